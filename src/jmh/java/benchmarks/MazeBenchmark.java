@@ -0,0 +1,67 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The mazes every benchmark runs on - the bundled test mazes by file name, and generated mazes named &lt;kind&gt;-&lt;cells&gt;
+ * (see {@link MazeGenerator.MazeKind}). Generated mazes are written once to the benchmark.mazes.dir directory and reused by later runs.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public abstract class MazeBenchmark {
+
+    private static final Path TEST_MAZES_DIRECTORY = Paths.get("test", "mazes");
+    private static final String GENERATED_MAZES_DIRECTORY = System.getProperty("benchmark.mazes.dir", "build/jmh-mazes");
+
+    @Param({
+            "small.txt", "input.txt", "medium_input.txt", "sparse_medium.txt", "large_input.txt",
+            "perfect-1000", "perfect-100000", "perfect-10000000", "perfect-100000000",
+            "rooms-1000", "rooms-100000", "rooms-10000000", "rooms-100000000",
+            "unsolvable-1000", "unsolvable-100000", "unsolvable-10000000", "unsolvable-100000000"
+    })
+    public String maze;
+
+
+    /**
+     * Returns the path of the benchmark maze, generating it first if it is a generated maze that does not exist yet.
+     *
+     * @return Path.
+     *
+     * @throws IOException
+     */
+    protected Path getMazeFile() throws IOException {
+        int separator = maze.lastIndexOf('-');
+
+        if (maze.endsWith(".txt") || separator < 0) {
+            return TEST_MAZES_DIRECTORY.resolve(maze);
+        }
+
+        Path mazeFile = Paths.get(GENERATED_MAZES_DIRECTORY, maze + ".txt");
+        if (!Files.exists(mazeFile)) {
+            MazeGenerator.MazeKind kind = MazeGenerator.MazeKind.valueOf(maze.substring(0, separator).toUpperCase(Locale.ROOT));
+            long cells = Long.parseLong(maze.substring(separator + 1));
+
+            Files.createDirectories(mazeFile.getParent());
+            Path partialFile = Paths.get(GENERATED_MAZES_DIRECTORY, maze + ".txt.tmp");
+            MazeGenerator.writeMaze(kind, cells, partialFile);
+            Files.move(partialFile, mazeFile);
+        }
+        return mazeFile;
+    }
+}
@@ -0,0 +1,187 @@
+package benchmarks;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Generates square text maze files of a given number of cells for the benchmarks - the same seed always gives the same maze.
+ * The start is the top left clear cell and the exit is the bottom right clear cell.
+ */
+final class MazeGenerator {
+
+    /**
+     * The kinds of generated mazes.
+     */
+    enum MazeKind {
+        /** A maze with exactly one path between any two clear cells - long corridors and many dead ends. */
+        PERFECT,
+        /** Large open rooms separated by walls with a few doors. */
+        ROOMS,
+        /** Open rooms with the exit walled in, so every solver has to search the whole maze. */
+        UNSOLVABLE
+    }
+
+    private static final long SEED = 42L;
+    private static final int ROOM_SIZE = 16;
+    private static final int DOORS_PER_WALL = 2;
+    private static final byte WALL = 1;
+    private static final byte CLEAR = 0;
+
+    private MazeGenerator() {
+        //private constructor to prevent instantiation
+    }
+
+
+    /**
+     * Generates a maze of the given kind with about the given number of cells and writes it to the given text maze file.
+     *
+     * @param kind      The kind of maze.
+     * @param cells     The approximate number of cells - the maze is a square with an odd side.
+     * @param mazeFile  The path of the text maze file.
+     *
+     * @throws IOException
+     */
+    static void writeMaze(MazeKind kind, long cells, Path mazeFile) throws IOException {
+        int side = getSide(cells);
+        byte[] grid;
+
+        if (kind == MazeKind.PERFECT) {
+            grid = createPerfectMaze(side);
+        } else {
+            grid = createRoomMaze(side);
+        }
+
+        int exit = (side - 2) * side + side - 2;
+        grid[side + 1] = CLEAR;
+        grid[exit] = CLEAR;
+
+        if (kind == MazeKind.UNSOLVABLE) {
+            grid[exit - side] = WALL;
+            grid[exit + side] = WALL;
+            grid[exit - 1] = WALL;
+            grid[exit + 1] = WALL;
+        }
+
+        writeGrid(grid, side, mazeFile);
+    }
+
+
+    private static int getSide(long cells) {
+        int side = Math.max(5, (int) Math.ceil(Math.sqrt((double) cells)));
+        return (side % 2 == 0) ? side + 1 : side;
+    }
+
+
+    /**
+     * Carves a perfect maze with a randomized depth first search over the cells with odd coordinates.
+     *
+     * @param side  The number of rows and columns.
+     *
+     * @return byte[] - the row-major grid, 1 for walls.
+     */
+    private static byte[] createPerfectMaze(int side) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        byte[] grid = new byte[side * side];
+        Arrays.fill(grid, WALL);
+
+        int[] stack = new int[((side - 1) / 2) * ((side - 1) / 2)];
+        int stackSize = 0;
+        int[] steps = {-2 * side, 2 * side, 2, -2};
+        int[] candidates = new int[steps.length];
+
+        grid[side + 1] = CLEAR;
+        stack[stackSize++] = side + 1;
+
+        while (stackSize > 0) {
+            int cell = stack[stackSize - 1];
+            int row = cell / side;
+            int column = cell % side;
+            int candidateCount = 0;
+
+            for (int step : steps) {
+                int next = cell + step;
+                int nextRow = (step == 2 || step == -2) ? row : row + step / side;
+                int nextColumn = (step == 2 || step == -2) ? column + step : column;
+
+                if (nextRow > 0 && nextRow < side - 1 && nextColumn > 0 && nextColumn < side - 1 && grid[next] == WALL) {
+                    candidates[candidateCount++] = step;
+                }
+            }
+
+            if (candidateCount == 0) {
+                --stackSize;
+                continue;
+            }
+
+            int step = candidates[random.nextInt(candidateCount)];
+            grid[cell + step / 2] = CLEAR;
+            grid[cell + step] = CLEAR;
+            stack[stackSize++] = cell + step;
+        }
+        return grid;
+    }
+
+
+    /**
+     * Creates a grid of open rooms - a wall every ROOM_SIZE rows and columns, with a few doors in every wall between two rooms.
+     *
+     * @param side  The number of rows and columns.
+     *
+     * @return byte[] - the row-major grid, 1 for walls.
+     */
+    private static byte[] createRoomMaze(int side) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        byte[] grid = new byte[side * side];
+
+        for (int row = 0; row < side; ++row) {
+            for (int column = 0; column < side; ++column) {
+
+                boolean isBorder = row == 0 || column == 0 || row == side - 1 || column == side - 1;
+                if (isBorder || row % ROOM_SIZE == 0 || column % ROOM_SIZE == 0) {
+                    grid[row * side + column] = WALL;
+                }
+            }
+        }
+
+        for (int wall = ROOM_SIZE; wall < side - 1; wall += ROOM_SIZE) {
+            for (int room = 0; room < side - 1; room += ROOM_SIZE) {
+                int roomEnd = Math.min(side - 1, room + ROOM_SIZE);
+
+                for (int door = 0; door < DOORS_PER_WALL && roomEnd - room > 1; ++door) {
+                    int offset = room + 1 + random.nextInt(roomEnd - room - 1);
+                    grid[wall * side + offset] = CLEAR;
+                    grid[offset * side + wall] = CLEAR;
+                }
+            }
+        }
+        return grid;
+    }
+
+
+    private static void writeGrid(byte[] grid, int side, Path mazeFile) throws IOException {
+        String header = side + " " + side + "\n1 1\n" + (side - 2) + " " + (side - 2) + "\n";
+        byte[] line = new byte[2 * side];
+        line[line.length - 1] = '\n';
+
+        try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(mazeFile), 1 << 16)) {
+            output.write(header.getBytes(StandardCharsets.US_ASCII));
+
+            for (int row = 0; row < side; ++row) {
+                for (int column = 0; column < side; ++column) {
+                    line[2 * column] = (byte) ('0' + grid[row * side + column]);
+
+                    if (column > 0) {
+                        line[2 * column - 1] = ' ';
+                    }
+                }
+                output.write(line);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package benchmarks;
+
+import domain.Maze;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import parsers.InputParser;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Measures parsing a text maze file into a maze, on one thread and on all the available processors.
+ */
+@State(Scope.Benchmark)
+public class ParseBenchmark extends MazeBenchmark {
+
+    private Path mazeFile;
+
+
+    @Setup
+    public void setUp() throws IOException {
+        mazeFile = getMazeFile();
+    }
+
+
+    @Benchmark
+    public Maze parseMaze() throws IOException {
+        return InputParser.parseMaze(mazeFile);
+    }
+
+
+    @Benchmark
+    public Maze parseMazeInParallel() throws IOException {
+        return InputParser.parseMaze(mazeFile, Runtime.getRuntime().availableProcessors());
+    }
+}
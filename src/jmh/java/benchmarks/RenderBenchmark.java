@@ -0,0 +1,67 @@
+package benchmarks;
+
+import domain.Maze;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import parsers.InputParser;
+import parsers.OutputParser;
+import solvers.SolverType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.BitSet;
+
+/**
+ * Measures rendering a solved maze - the maze is parsed and solved once, and the output is written to a stream that only counts bytes.
+ */
+@State(Scope.Benchmark)
+public class RenderBenchmark extends MazeBenchmark {
+
+    private Maze loadedMaze;
+    private BitSet mazePath;
+
+
+    @Setup
+    public void setUp() throws IOException {
+        loadedMaze = InputParser.parseMaze(getMazeFile());
+        mazePath = new BitSet(loadedMaze.getCellCount());
+
+        int[] parentNodes = SolverType.BFS.createSolver().solve(loadedMaze, loadedMaze.getStartIndex(), loadedMaze.getExitIndex());
+        if (parentNodes != null) {
+            for (int cell : OutputParser.getPathCells(parentNodes, loadedMaze.getExitIndex())) {
+                mazePath.set(cell);
+            }
+        }
+    }
+
+
+    @Benchmark
+    public long renderMaze() throws IOException {
+        CountingOutputStream output = new CountingOutputStream();
+        OutputParser.writeOutput(loadedMaze, mazePath, loadedMaze.getStartIndex(), loadedMaze.getExitIndex(), output);
+        return output.byteCount;
+    }
+
+
+    /**
+     * An output stream that drops the bytes written to it, keeping only their count.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long byteCount;
+
+
+        @Override
+        public void write(int b) {
+            ++byteCount;
+        }
+
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            byteCount += len;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package benchmarks;
+
+import domain.Maze;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import parsers.InputParser;
+import solvers.MazeSolver;
+import solvers.SolverType;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures solving a loaded maze with each solver - the maze is parsed once, so only the search is measured.
+ * The solver names must cover every SolverType - the set up fails for a solver type missing from them, so a new solver is not left out.
+ */
+@State(Scope.Benchmark)
+public class SolveBenchmark extends MazeBenchmark {
+
+    @Param({"dfs", "bfs", "dijkstra", "astar", "bidirectional", "parallel-bfs", "junction", "hpa"})
+    public String solver;
+
+    private Maze loadedMaze;
+    private MazeSolver mazeSolver;
+
+
+    @Setup
+    public void setUp() throws IOException, NoSuchFieldException {
+        checkSolverNames();
+        loadedMaze = InputParser.parseMaze(getMazeFile());
+        mazeSolver = SolverType.fromName(solver).createSolver(Runtime.getRuntime().availableProcessors());
+    }
+
+
+    @Benchmark
+    public int[] solveMaze() {
+        return mazeSolver.solve(loadedMaze, loadedMaze.getStartIndex(), loadedMaze.getExitIndex());
+    }
+
+
+    /**
+     * Checks that every solver type is among the benchmarked solver names.
+     *
+     * @throws NoSuchFieldException
+     */
+    private static void checkSolverNames() throws NoSuchFieldException {
+        List<String> solverNames = Arrays.asList(SolveBenchmark.class.getField("solver").getAnnotation(Param.class).value());
+
+        for (SolverType solverType : SolverType.values()) {
+            if (!solverNames.contains(solverType.getOptionName())) {
+                throw new IllegalStateException("Solver " + solverType.getOptionName() + " is missing from the SolveBenchmark solver names");
+            }
+        }
+    }
+}
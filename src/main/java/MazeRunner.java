@@ -1,148 +1,352 @@
-import domain.Maze;
-import domain.MazeTree;
-import domain.Position;
-import exceptions.NonValidMazePathException;
-import parsers.InputParser;
-import parsers.OutputParser;
+import domain.DistanceField;
+import domain.TiledWallGrid;
+import parsers.BinaryMazeFormat;
+import parsers.DistanceFieldFormat;
+import parsers.OutputMode;
+import parsers.TiledMazeFormat;
+import runners.BatchMazeRunner;
+import runners.MazeJob;
+import runners.MazeQueryServer;
+import runners.MazeSettings;
+import runners.MazeStatisticsCollector;
+import solvers.SolverType;
 
+import javax.management.JMException;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 
 public class MazeRunner {
 
+    private static final String SOLVER_OPTION = "--solver=";
+    private static final String THREADS_OPTION = "--threads=";
+    private static final String BATCH_OPTION = "--batch=";
+    private static final String OUTPUT_DIRECTORY_OPTION = "--output-dir=";
+    private static final String COMPONENTS_OPTION = "--components";
+    private static final String CONSTANT_MEMORY_OPTION = "--constant-memory";
+    private static final String OUTPUT_OPTION = "--output=";
+    private static final String SERVER_OPTION = "--server=";
+    private static final String PORT_OPTION = "--port=";
+    private static final String CACHE_SIZE_OPTION = "--cache-size=";
+    private static final String CONVERT_OPTION = "--convert=";
+    private static final String DISTANCE_FIELD_OPTION = "--distance-field=";
+    private static final String TILE_SIZE_OPTION = "--tile-size=";
+    private static final String TILE_CACHE_OPTION = "--tile-cache=";
+    private static final String TILE_STATISTICS_OPTION = "--tile-stats";
+    private static final String STATISTICS_OPTION = "--stats=";
+    private static final String JSON_STATISTICS = "json";
+    private static final String JMX_STATISTICS = "jmx";
+    private static final int DEFAULT_CACHE_SIZE = 1024;
+
     private static String filePath = null;
-    private static String[] mazeDimensions = null;
-    private static String[] startPositionCoordinates = null;
-    private static String[] endPositionCoordinates = null;
-    private static List<String> mazeLines = Collections.emptyList();
-    private static Position mazeStartPosition;
-    private static Position mazeExitPosition;
-    private static Maze maze;
+    private static String batchFiles = null;
+    private static String outputDirectory = null;
+    private static String serverFiles = null;
+    private static String convertedFile = null;
+    private static String distanceFieldFile = null;
+    private static int port = 0;
+    private static int cacheSize = DEFAULT_CACHE_SIZE;
+    private static int tileSize = TiledMazeFormat.DEFAULT_TILE_SIZE;
+    private static boolean showTileStatistics = false;
+    private static String statisticsFormat = null;
+    private static MazeSettings settings = new MazeSettings();
 
 
+    /**
+     * Usage: MazeRunner [--solver=&lt;solver&gt;] [--threads=&lt;threads&gt;] [--components] [--output=grid|moves|rle|binary] [--tile-cache=&lt;tiles&gt;] [--tile-stats] [--stats=json] &lt;maze file&gt;
+     *    or: MazeRunner --constant-memory [--solver=&lt;fallback solver&gt;] [--output=moves|rle] [--tile-cache=&lt;tiles&gt;] [--stats=json] &lt;maze file&gt;
+     *    or: MazeRunner [--solver=&lt;solver&gt;] [--threads=&lt;threads&gt;] [--components] [--output=grid|moves|rle|binary] [--stats=json|jmx] --batch=&lt;directory or glob&gt; [--output-dir=&lt;directory&gt;]
+     *    or: MazeRunner [--solver=&lt;solver&gt;] [--threads=&lt;threads&gt;] [--stats=json|jmx] --server=&lt;directory or glob&gt; [--port=&lt;port&gt;] [--cache-size=&lt;paths&gt;]
+     *    or: MazeRunner --convert=&lt;binary or tiled maze file&gt; [--tile-size=&lt;cells&gt;] &lt;maze file&gt;
+     *    or: MazeRunner --distance-field=&lt;distance field file&gt; &lt;maze file&gt;
+     *
+     * @param args  The command line arguments.
+     */
     public static void main(String[] args) {
 
-        if (args != null) {
-            filePath = args[0];
+        if (args != null && !parseArguments(args)) {
+            return;
         }
 
-        getDataFromFile();
-        initMaze();
-        solveMaze();
+        if (convertedFile != null) {
+            convertMaze();
+        } else if (distanceFieldFile != null) {
+            writeDistanceField();
+        } else if (serverFiles != null) {
+            serveQueries();
+        } else if (batchFiles != null) {
+            solveMazes();
+        } else {
+            solveMaze();
+        }
     }
 
 
     /**
-     * Gets the maze dimensions, start and exit positions, and the maze lines from the filepath.
+     * Loads and solves the single maze file and writes the output to the console - with --constant-memory the maze is walked
+     * and the moves of the walk are written instead.
      */
-    private static void getDataFromFile() {
+    private static void solveMaze() {
+        MazeJob job = new MazeJob(Paths.get(filePath), settings);
+
         try {
-            mazeDimensions           = InputParser.getLine(Files.lines(Paths.get(filePath)), 0);
-            startPositionCoordinates = InputParser.getLine(Files.lines(Paths.get(filePath)), 1);
-            endPositionCoordinates   = InputParser.getLine(Files.lines(Paths.get(filePath)), 2);
-            mazeLines                = InputParser.getMazeLines(Files.lines(Paths.get(filePath)), 3);
+            job.loadMaze();
 
         } catch(IOException ex) {
             ex.printStackTrace();
             System.exit(0);
         }
+
+        if (settings.isConstantMemory()) {
+            job.walkMaze(System.out);
+        } else {
+            job.solveMaze();
+            job.writeOutput(System.out);
+        }
+
+        if (JSON_STATISTICS.equals(statisticsFormat)) {
+            new MazeStatisticsCollector(System.err).record(filePath, settings.getSolverType().getOptionName(), job.getStatistics());
+        }
+
+        if (showTileStatistics && job.getMaze() != null && job.getMaze().getWalls() instanceof TiledWallGrid) {
+            System.err.println(((TiledWallGrid) job.getMaze().getWalls()).getTileStatistics());
+        }
     }
 
 
     /**
-     * Finds the path from start to finish and returns the path positions in a list.
-     *
-     * @param mazeStartPosition  The maze start position.
-     * @param mazeExitPosition   The maze exit position.
-     *
-     * @return List.
+     * Solves all the maze files of the batch, writing a solution file for each of them.
      */
-    private static List<Position> findMazePath(Position mazeStartPosition, Position mazeExitPosition) {
-        if (mazeStartPosition == null || mazeExitPosition == null) {
-            return Collections.emptyList();
-        }
-
-        List<Position> mazePath = new ArrayList<>();
+    private static void solveMazes() {
+        MazeStatisticsCollector statistics = createStatisticsCollector();
+        BatchMazeRunner batchRunner = new BatchMazeRunner(settings, (outputDirectory != null) ? Paths.get(outputDirectory) : null, statistics);
 
-        Position currentPosition = mazeExitPosition;
-        mazePath.add(currentPosition);
+        try {
+            if (statistics != null) {
+                statistics.register("batch");
+            }
+            batchRunner.run(batchFiles, System.out);
 
-        while(!currentPosition.equals(mazeStartPosition)) {
-            currentPosition = currentPosition.getParentPosition();
-            mazePath.add(currentPosition);
+        } catch(IOException | JMException ex) {
+            ex.printStackTrace();
+            System.exit(0);
         }
-        mazePath.add(mazeStartPosition);
-        return mazePath;
     }
 
 
     /**
-     * Draws the maze in the output as per the requirements.
-     *
-     * @param maze      The maze object for the output.
-     * @param mazePath  The path from start to exit.
+     * Converts the maze file to the tiled maze format if the converted file has the .mzt extension, to the binary maze format otherwise.
      */
-    private static void drawOutput(Maze maze, List<Position> mazePath) {
-        List<String> outputMaze = OutputParser.getOutput(maze, mazePath);
+    private static void convertMaze() {
+        MazeJob job = new MazeJob(Paths.get(filePath), settings);
+        Path convertedPath = Paths.get(convertedFile);
+
+        try {
+            job.loadMaze();
+
+            if (TiledMazeFormat.isTiledMazeFile(convertedPath)) {
+                TiledMazeFormat.writeMaze(job.getMaze(), convertedPath, tileSize);
+            } else {
+                BinaryMazeFormat.writeMaze(job.getMaze(), convertedPath);
+            }
 
-        for (String mazeLine : outputMaze) {
-            System.out.println(mazeLine);
+        } catch(IOException ex) {
+            ex.printStackTrace();
+            System.exit(0);
         }
     }
 
 
     /**
-     * Initializes the maze, the start and exit positions.
+     * Searches the maze file from its exit and writes the distance and the first step towards the exit of every cell to the distance field file.
      */
-    private static void initMaze() {
-        maze = Maze.initMaze(Integer.parseInt(mazeDimensions[0]),  Integer.parseInt(mazeDimensions[1]), mazeLines);
+    private static void writeDistanceField() {
+        MazeJob job = new MazeJob(Paths.get(filePath), settings);
+
+        try {
+            job.loadMaze();
 
-        mazeStartPosition = new Position(Integer.parseInt(startPositionCoordinates[1]), Integer.parseInt(startPositionCoordinates[0]), maze);
-        mazeExitPosition = new Position(Integer.parseInt(endPositionCoordinates[1]), Integer.parseInt(endPositionCoordinates[0]), maze);
+            if (job.getMaze() != null) {
+                DistanceFieldFormat.writeField(DistanceField.computeField(job.getMaze(), job.getMaze().getExitIndex()), Paths.get(distanceFieldFile));
+            }
+
+        } catch(IOException ex) {
+            ex.printStackTrace();
+            System.exit(0);
+        }
     }
 
 
     /**
-     * Solves the maze and produces the output.
-     **/
-    private static void solveMaze() {
-        MazeTree tree = MazeTree.getMazeTree(mazeStartPosition, mazeExitPosition, maze);
+     * Loads the server mazes and answers path queries from the standard input, or from connections to the port if one is given.
+     */
+    private static void serveQueries() {
+        MazeStatisticsCollector statistics = createStatisticsCollector();
+        MazeQueryServer server = new MazeQueryServer(settings, cacheSize, statistics);
 
-        if (tree != null) {
-            tree.createTree();
+        try {
+            if (statistics != null) {
+                statistics.register("server");
+            }
+            server.loadMazes(serverFiles);
 
-            try {
-                produceMazeOutput(tree);
-            } catch (NonValidMazePathException ex) {
-                System.out.println(ex.getMessage());
+            if (port > 0) {
+                server.serve(port);
+            } else {
+                server.serve(System.in, System.out);
             }
+
+        } catch(IOException | JMException ex) {
+            ex.printStackTrace();
+            System.exit(0);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+
+    /**
+     * Creates the collector for the statistics of the batch or server mazes - it writes them as JSON lines to the standard error
+     * with --stats=json, and only publishes the totals over JMX with --stats=jmx.
+     *
+     * @return MazeStatisticsCollector, or null if the statistics are not collected.
+     */
+    private static MazeStatisticsCollector createStatisticsCollector() {
+        if (statisticsFormat == null) {
+            return null;
         }
+        return new MazeStatisticsCollector(JSON_STATISTICS.equals(statisticsFormat) ? System.err : null);
     }
 
 
     /**
-     * Produces the desired output or throws an exception if the maze cannot be solved.
+     * Reads the options and the maze file path from the command line arguments.
      *
-     * @param tree  The maze tree.
+     * @param args  The command line arguments.
      *
-     * @throws NonValidMazePathException
+     * @return boolean - false if an option is not valid.
      */
-    private static void produceMazeOutput(MazeTree tree) throws NonValidMazePathException {
-        if (tree == null) {
-            return;
+    private static boolean parseArguments(String[] args) {
+        for (String arg : args) {
+
+            if (arg.startsWith(SOLVER_OPTION)) {
+                SolverType solverType = SolverType.fromName(arg.substring(SOLVER_OPTION.length()));
+
+                if (solverType == null) {
+                    System.out.println("Unknown solver: " + arg.substring(SOLVER_OPTION.length()));
+                    return false;
+                }
+                settings.setSolverType(solverType);
+
+            } else if (arg.startsWith(OUTPUT_OPTION)) {
+                OutputMode outputMode = OutputMode.fromName(arg.substring(OUTPUT_OPTION.length()));
+
+                if (outputMode == null) {
+                    System.out.println("Unknown output mode: " + arg.substring(OUTPUT_OPTION.length()));
+                    return false;
+                }
+                settings.setOutputMode(outputMode);
+
+            } else if (arg.startsWith(THREADS_OPTION)) {
+                int threads = parsePositiveInteger(arg.substring(THREADS_OPTION.length()));
+
+                if (threads < 1) {
+                    System.out.println("The number of threads must be a positive integer: " + arg.substring(THREADS_OPTION.length()));
+                    return false;
+                }
+                settings.setThreads(threads);
+
+            } else if (arg.startsWith(CONVERT_OPTION)) {
+                convertedFile = arg.substring(CONVERT_OPTION.length());
+
+            } else if (arg.startsWith(DISTANCE_FIELD_OPTION)) {
+                distanceFieldFile = arg.substring(DISTANCE_FIELD_OPTION.length());
+
+            } else if (arg.startsWith(SERVER_OPTION)) {
+                serverFiles = arg.substring(SERVER_OPTION.length());
+
+            } else if (arg.startsWith(PORT_OPTION)) {
+                port = parsePositiveInteger(arg.substring(PORT_OPTION.length()));
+
+                if (port < 1) {
+                    System.out.println("The port must be a positive integer: " + arg.substring(PORT_OPTION.length()));
+                    return false;
+                }
+
+            } else if (arg.startsWith(CACHE_SIZE_OPTION)) {
+                cacheSize = parsePositiveInteger(arg.substring(CACHE_SIZE_OPTION.length()));
+
+                if (cacheSize < 1) {
+                    System.out.println("The cache size must be a positive integer: " + arg.substring(CACHE_SIZE_OPTION.length()));
+                    return false;
+                }
+
+            } else if (arg.startsWith(TILE_SIZE_OPTION)) {
+                tileSize = parsePositiveInteger(arg.substring(TILE_SIZE_OPTION.length()));
+
+                if (!TiledMazeFormat.isValidTileSize(tileSize)) {
+                    System.out.println("The tile size must be a power of two between 8 and 32768: " + arg.substring(TILE_SIZE_OPTION.length()));
+                    return false;
+                }
+
+            } else if (arg.startsWith(TILE_CACHE_OPTION)) {
+                int cachedTiles = parsePositiveInteger(arg.substring(TILE_CACHE_OPTION.length()));
+
+                if (cachedTiles < 1) {
+                    System.out.println("The tile cache size must be a positive integer: " + arg.substring(TILE_CACHE_OPTION.length()));
+                    return false;
+                }
+                settings.setCachedTiles(cachedTiles);
+
+            } else if (arg.startsWith(STATISTICS_OPTION)) {
+                statisticsFormat = arg.substring(STATISTICS_OPTION.length());
+
+                if (!JSON_STATISTICS.equals(statisticsFormat) && !JMX_STATISTICS.equals(statisticsFormat)) {
+                    System.out.println("Unknown statistics format: " + statisticsFormat);
+                    return false;
+                }
+                settings.setCollectStatistics(true);
+
+            } else if (arg.equals(TILE_STATISTICS_OPTION)) {
+                showTileStatistics = true;
+
+            } else if (arg.equals(COMPONENTS_OPTION)) {
+                settings.setUseComponents(true);
+
+            } else if (arg.equals(CONSTANT_MEMORY_OPTION)) {
+                settings.setConstantMemory(true);
+
+            } else if (arg.startsWith(BATCH_OPTION)) {
+                batchFiles = arg.substring(BATCH_OPTION.length());
+
+            } else if (arg.startsWith(OUTPUT_DIRECTORY_OPTION)) {
+                outputDirectory = arg.substring(OUTPUT_DIRECTORY_OPTION.length());
+
+            } else {
+                filePath = arg;
+            }
+        }
+
+        if (JMX_STATISTICS.equals(statisticsFormat) && batchFiles == null && serverFiles == null) {
+            System.out.println("The jmx statistics format is only available with --batch or --server, use --stats=json for a single maze file");
+            return false;
         }
-        List<Position> mazePath;
+        return true;
+    }
 
-        if (maze.isSolvable()) {
-            mazePath = findMazePath(tree.getRootNode(), tree.getLastNode());
-            drawOutput(maze, mazePath);
 
-        } else {
-            throw new NonValidMazePathException("The provided maze cannot be solved - there is no valid path between start and exit");
+    /**
+     * Parses a numeric option value.
+     *
+     * @param value  The option value.
+     *
+     * @return int - the number, or 0 if the value is not a number.
+     */
+    private static int parsePositiveInteger(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException ex) {
+            return 0;
         }
     }
 }
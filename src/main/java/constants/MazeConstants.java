@@ -7,6 +7,8 @@ public final class MazeConstants {
 
     public final static String MAZE_WALL = "1";
     public final static String MAZE_CLEAR_PATH = "0";
+    public final static int MAZE_MIN_CELL_COST = 2;
+    public final static int MAZE_MAX_CELL_COST = 9;
 
     private MazeConstants() {
         //private constructor to prevent instantiation.
@@ -0,0 +1,323 @@
+package domain;
+
+import java.util.Arrays;
+
+/**
+ * The abstract graph of a maze split into square clusters of a fixed size, for hierarchical path finding. Every run of clear cell pairs
+ * across the border of two clusters is an entrance - a short run gets a pair of nodes in its middle, a long one a pair at each end.
+ * The two nodes of a pair are joined by an edge of one step, and the nodes of a cluster are joined by edges weighted with their distance
+ * within the cluster. A path between two cells is then found over the nodes of the clusters along the way instead of their cells.
+ *
+ * The nodes are numbered in cell order and grouped by cluster, and the edges are kept in compressed sparse row arrays - the edges of
+ * node n are the ones from getFirstEdge(n) to getFirstEdge(n + 1).
+ */
+public final class ClusterAbstraction {
+
+    public static final int DEFAULT_CLUSTER_SIZE = 32;
+    public static final int NO_NODE = -1;
+
+    private static final int LONG_ENTRANCE = 6;
+
+    private final Maze maze;
+    private final int clusterSize;
+    private final int clusterColumns;
+    private final int clusterCount;
+
+    private int[] nodeCells;
+    private int[] firstClusterNodes;
+    private int[] clusterNodes;
+    private int[] firstEdges;
+    private int[] edgeTargets;
+    private int[] edgeCosts;
+
+    private int[] entranceCells = new int[16];
+    private int entranceCellCount;
+    private int[] edgeList = new int[48];
+    private int edgeListSize;
+
+
+    /**
+     * Splits the given maze into clusters of the given size and builds their abstract graph.
+     *
+     * @param maze         The maze object.
+     * @param clusterSize  The number of rows and columns of a cluster.
+     *
+     * @return ClusterAbstraction.
+     */
+    public static ClusterAbstraction buildAbstraction(Maze maze, int clusterSize) {
+        return (maze != null && clusterSize > 0) ? new ClusterAbstraction(maze, clusterSize) : null;
+    }
+
+
+    public int getClusterSize() {
+        return clusterSize;
+    }
+
+
+    public int getClusterCount() {
+        return clusterCount;
+    }
+
+
+    /**
+     * Returns the cluster of the given cell.
+     *
+     * @param index  The cell index.
+     *
+     * @return int.
+     */
+    public int getCluster(int index) {
+        int width = maze.getMazeWidth();
+        return (index / width / clusterSize) * clusterColumns + (index % width) / clusterSize;
+    }
+
+
+    public int getNodeCount() {
+        return nodeCells.length;
+    }
+
+
+    /**
+     * Returns the node of the given cell.
+     *
+     * @param index  The cell index.
+     *
+     * @return int - the node, or NO_NODE if the cell is not a node.
+     */
+    public int getNode(int index) {
+        int node = Arrays.binarySearch(nodeCells, index);
+        return (node >= 0) ? node : NO_NODE;
+    }
+
+
+    public int getNodeCell(int node) {
+        return nodeCells[node];
+    }
+
+
+    /**
+     * Returns the position of the first node of the given cluster in the cluster node list - the nodes of the cluster end at the
+     * first node of the next cluster.
+     *
+     * @param cluster  The cluster, or the cluster count for the end of the last cluster's nodes.
+     *
+     * @return int.
+     */
+    public int getFirstClusterNode(int cluster) {
+        return firstClusterNodes[cluster];
+    }
+
+
+    /**
+     * Returns the node at the given position of the cluster node list.
+     *
+     * @param position  The position in the cluster node list.
+     *
+     * @return int.
+     */
+    public int getClusterNode(int position) {
+        return clusterNodes[position];
+    }
+
+
+    /**
+     * Returns the first edge of the given node - the edges of the node end at the first edge of the next node.
+     *
+     * @param node  The node, or the node count for the end of the last node's edges.
+     *
+     * @return int.
+     */
+    public int getFirstEdge(int node) {
+        return firstEdges[node];
+    }
+
+
+    public int getEdgeTarget(int edge) {
+        return edgeTargets[edge];
+    }
+
+
+    public int getEdgeCost(int edge) {
+        return edgeCosts[edge];
+    }
+
+
+    private ClusterAbstraction(Maze maze, int clusterSize) {
+        this.maze = maze;
+        this.clusterSize = clusterSize;
+        this.clusterColumns = (maze.getMazeWidth() + clusterSize - 1) / clusterSize;
+        this.clusterCount = clusterColumns * ((maze.getMazeHeight() + clusterSize - 1) / clusterSize);
+
+        findEntrances();
+        groupNodesByCluster();
+        connectClusterNodes();
+        buildEdgeArrays();
+
+        entranceCells = null;
+        edgeList = null;
+    }
+
+
+    /**
+     * Finds the runs of clear cell pairs across every border between two clusters, adding a pair of nodes for each entrance.
+     * The pairs are kept in the edge list until the nodes are numbered.
+     */
+    private void findEntrances() {
+        int width = maze.getMazeWidth();
+        int height = maze.getMazeHeight();
+
+        for (int column = clusterSize; column < width; column += clusterSize) {
+            for (int firstRow = 0; firstRow < height; firstRow += clusterSize) {
+                int lastRow = Math.min(height, firstRow + clusterSize);
+                findBorderEntrances(firstRow * width + column - 1, width, 1, lastRow - firstRow);
+            }
+        }
+
+        for (int row = clusterSize; row < height; row += clusterSize) {
+            for (int firstColumn = 0; firstColumn < width; firstColumn += clusterSize) {
+                int lastColumn = Math.min(width, firstColumn + clusterSize);
+                findBorderEntrances((row - 1) * width + firstColumn, 1, width, lastColumn - firstColumn);
+            }
+        }
+
+        int[] cells = Arrays.copyOf(entranceCells, entranceCellCount);
+        Arrays.sort(cells);
+
+        int nodeCount = 0;
+        for (int i = 0; i < cells.length; ++i) {
+            if (i == 0 || cells[i] != cells[i - 1]) {
+                cells[nodeCount++] = cells[i];
+            }
+        }
+        nodeCells = Arrays.copyOf(cells, nodeCount);
+
+        for (int i = 0; i < edgeListSize; i += 3) {
+            edgeList[i] = getNode(edgeList[i]);
+            edgeList[i + 1] = getNode(edgeList[i + 1]);
+        }
+    }
+
+
+    /**
+     * Finds the entrances along one border segment of a cluster.
+     *
+     * @param firstCell    The first cell on the inner side of the border.
+     * @param borderStep   The index step along the border.
+     * @param crossStep    The index step across the border.
+     * @param borderCells  The number of cells along the border segment.
+     */
+    private void findBorderEntrances(int firstCell, int borderStep, int crossStep, int borderCells) {
+        int runStart = -1;
+
+        for (int i = 0; i <= borderCells; ++i) {
+            int cell = firstCell + i * borderStep;
+            boolean isOpen = i < borderCells && !maze.isWall(cell) && !maze.isWall(cell + crossStep);
+
+            if (isOpen && runStart < 0) {
+                runStart = i;
+
+            } else if (!isOpen && runStart >= 0) {
+                int runEnd = i - 1;
+
+                if (runEnd - runStart + 1 < LONG_ENTRANCE) {
+                    addEntrance(firstCell + ((runStart + runEnd) / 2) * borderStep, crossStep);
+                } else {
+                    addEntrance(firstCell + runStart * borderStep, crossStep);
+                    addEntrance(firstCell + runEnd * borderStep, crossStep);
+                }
+                runStart = -1;
+            }
+        }
+    }
+
+
+    private void addEntrance(int cell, int crossStep) {
+        if (entranceCellCount + 2 > entranceCells.length) {
+            entranceCells = Arrays.copyOf(entranceCells, entranceCells.length << 1);
+        }
+        entranceCells[entranceCellCount++] = cell;
+        entranceCells[entranceCellCount++] = cell + crossStep;
+
+        addEdge(cell, cell + crossStep, 1);
+        addEdge(cell + crossStep, cell, 1);
+    }
+
+
+    private void addEdge(int from, int to, int cost) {
+        if (edgeListSize + 3 > edgeList.length) {
+            edgeList = Arrays.copyOf(edgeList, edgeList.length << 1);
+        }
+        edgeList[edgeListSize++] = from;
+        edgeList[edgeListSize++] = to;
+        edgeList[edgeListSize++] = cost;
+    }
+
+
+    /**
+     * Lists the nodes of every cluster together, counting the nodes of each cluster first.
+     */
+    private void groupNodesByCluster() {
+        firstClusterNodes = new int[clusterCount + 1];
+        clusterNodes = new int[nodeCells.length];
+
+        for (int nodeCell : nodeCells) {
+            ++firstClusterNodes[getCluster(nodeCell) + 1];
+        }
+        for (int cluster = 0; cluster < clusterCount; ++cluster) {
+            firstClusterNodes[cluster + 1] += firstClusterNodes[cluster];
+        }
+
+        int[] nextPositions = Arrays.copyOf(firstClusterNodes, clusterCount);
+        for (int node = 0; node < nodeCells.length; ++node) {
+            clusterNodes[nextPositions[getCluster(nodeCells[node])]++] = node;
+        }
+    }
+
+
+    /**
+     * Searches every cluster from each of its nodes, adding an edge to every other node of the cluster the search reaches.
+     */
+    private void connectClusterNodes() {
+        ClusterSearch search = new ClusterSearch(maze, clusterSize);
+
+        for (int cluster = 0; cluster < clusterCount; ++cluster) {
+            for (int i = firstClusterNodes[cluster]; i < firstClusterNodes[cluster + 1]; ++i) {
+                int node = clusterNodes[i];
+                search.search(nodeCells[node], Maze.NO_CELL);
+
+                for (int j = firstClusterNodes[cluster]; j < firstClusterNodes[cluster + 1]; ++j) {
+                    int distance = search.getDistance(nodeCells[clusterNodes[j]]);
+
+                    if (j != i && distance > 0) {
+                        addEdge(node, clusterNodes[j], distance);
+                    }
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Sorts the edge list by node into the compressed sparse row arrays.
+     */
+    private void buildEdgeArrays() {
+        int edgeCount = edgeListSize / 3;
+        firstEdges = new int[nodeCells.length + 1];
+        edgeTargets = new int[edgeCount];
+        edgeCosts = new int[edgeCount];
+
+        for (int i = 0; i < edgeListSize; i += 3) {
+            ++firstEdges[edgeList[i] + 1];
+        }
+        for (int node = 0; node < nodeCells.length; ++node) {
+            firstEdges[node + 1] += firstEdges[node];
+        }
+
+        int[] nextEdges = Arrays.copyOf(firstEdges, nodeCells.length);
+        for (int i = 0; i < edgeListSize; i += 3) {
+            int edge = nextEdges[edgeList[i]]++;
+            edgeTargets[edge] = edgeList[i + 1];
+            edgeCosts[edge] = edgeList[i + 2];
+        }
+    }
+}
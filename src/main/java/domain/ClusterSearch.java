@@ -0,0 +1,161 @@
+package domain;
+
+import java.util.Arrays;
+
+/**
+ * A breadth first search kept within the cluster of its first cell - the maze is split into square clusters of a fixed size,
+ * and the search only moves between cells of the same cluster. The arrays are sized for a single cluster and reused by every search,
+ * so a search costs at most the number of cells of a cluster. An instance is not safe to use from several threads.
+ */
+public final class ClusterSearch {
+
+    private static final int NOT_REACHED = -1;
+
+    private final Maze maze;
+    private final int clusterSize;
+    private final int[] distances;
+    private final int[] parents;
+    private final int[] queue;
+    private final int[] stamps;
+    private int stamp;
+
+    private int firstRow;
+    private int firstColumn;
+    private int lastRow;
+    private int lastColumn;
+
+
+    /**
+     * Constructor.
+     *
+     * @param maze         The maze object.
+     * @param clusterSize  The number of rows and columns of a cluster.
+     */
+    public ClusterSearch(Maze maze, int clusterSize) {
+        this.maze = maze;
+        this.clusterSize = clusterSize;
+        this.distances = new int[clusterSize * clusterSize];
+        this.parents = new int[clusterSize * clusterSize];
+        this.queue = new int[clusterSize * clusterSize];
+        this.stamps = new int[clusterSize * clusterSize];
+    }
+
+
+    public int getClusterSize() {
+        return clusterSize;
+    }
+
+
+    /**
+     * Searches breadth first from the given cell within its cluster, until the target cell is reached or the cluster has been searched.
+     *
+     * @param fromIndex  The index of the first cell.
+     * @param toIndex    The index of the target cell, or Maze.NO_CELL to search the whole cluster.
+     *
+     * @return boolean - true if the target cell was reached.
+     */
+    public boolean search(int fromIndex, int toIndex) {
+        int width = maze.getMazeWidth();
+        firstRow = (fromIndex / width) / clusterSize * clusterSize;
+        firstColumn = (fromIndex % width) / clusterSize * clusterSize;
+        lastRow = Math.min(maze.getMazeHeight(), firstRow + clusterSize) - 1;
+        lastColumn = Math.min(width, firstColumn + clusterSize) - 1;
+
+        if (++stamp == 0) {
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+
+        int head = 0;
+        int tail = 0;
+        int fromCell = getLocalIndex(fromIndex);
+        stamps[fromCell] = stamp;
+        distances[fromCell] = 0;
+        parents[fromCell] = NOT_REACHED;
+        queue[tail++] = fromCell;
+
+        while (head < tail) {
+            int cell = queue[head++];
+            int row = firstRow + cell / clusterSize;
+            int column = firstColumn + cell % clusterSize;
+
+            if (row * width + column == toIndex) {
+                return true;
+            }
+
+            if (row > firstRow) {
+                tail = visitCell(cell, cell - clusterSize, row - 1, column, tail);
+            }
+            if (row < lastRow) {
+                tail = visitCell(cell, cell + clusterSize, row + 1, column, tail);
+            }
+            if (column < lastColumn) {
+                tail = visitCell(cell, cell + 1, row, column + 1, tail);
+            }
+            if (column > firstColumn) {
+                tail = visitCell(cell, cell - 1, row, column - 1, tail);
+            }
+        }
+        return toIndex == Maze.NO_CELL;
+    }
+
+
+    /**
+     * Returns the number of steps from the first cell of the last search to the given cell.
+     *
+     * @param index  The cell index.
+     *
+     * @return int - the distance, or -1 if the last search did not reach the cell.
+     */
+    public int getDistance(int index) {
+        if (!isInCluster(index)) {
+            return NOT_REACHED;
+        }
+
+        int cell = getLocalIndex(index);
+        return (stamps[cell] == stamp) ? distances[cell] : NOT_REACHED;
+    }
+
+
+    /**
+     * Returns the cell the last search reached the given cell from.
+     *
+     * @param index  The index of a cell reached by the last search.
+     *
+     * @return int - the parent index, or Maze.NO_CELL for the first cell.
+     */
+    public int getParent(int index) {
+        int parent = parents[getLocalIndex(index)];
+
+        if (parent == NOT_REACHED) {
+            return Maze.NO_CELL;
+        }
+        return (firstRow + parent / clusterSize) * maze.getMazeWidth() + firstColumn + parent % clusterSize;
+    }
+
+
+    private int visitCell(int parent, int cell, int row, int column, int tail) {
+        if (stamps[cell] == stamp || maze.isWall(row * maze.getMazeWidth() + column)) {
+            return tail;
+        }
+
+        stamps[cell] = stamp;
+        distances[cell] = distances[parent] + 1;
+        parents[cell] = parent;
+        queue[tail] = cell;
+        return tail + 1;
+    }
+
+
+    private boolean isInCluster(int index) {
+        int row = index / maze.getMazeWidth();
+        int column = index % maze.getMazeWidth();
+
+        return row >= firstRow && row <= lastRow && column >= firstColumn && column <= lastColumn;
+    }
+
+
+    private int getLocalIndex(int index) {
+        return (index / maze.getMazeWidth() - firstRow) * clusterSize + index % maze.getMazeWidth() - firstColumn;
+    }
+}
@@ -0,0 +1,195 @@
+package domain;
+
+import java.util.Arrays;
+
+/**
+ * The distance of every cell of a maze from a single source cell, with the direction of the first step back towards the source -
+ * found by one breadth first search from the source. The path from any cell to the source is then read by following the directions,
+ * in steps proportional to its length, so a single search answers the shortest path from every cell (for example from anywhere to the exit).
+ */
+public final class DistanceField {
+
+    public static final int NO_DISTANCE = -1;
+    public static final byte NO_DIRECTION = -1;
+
+    private final int width;
+    private final int height;
+    private final int sourceIndex;
+    private final int[] distances;
+    private final byte[] directions;
+
+
+    /**
+     * Searches the given maze breadth first from the given source cell.
+     *
+     * @param maze         The maze object.
+     * @param sourceIndex  The index of the source cell.
+     *
+     * @return DistanceField.
+     */
+    public static DistanceField computeField(Maze maze, int sourceIndex) {
+        if (maze == null) {
+            return null;
+        }
+
+        int cellCount = maze.getCellCount();
+        DistanceField field = new DistanceField(maze.getMazeWidth(), maze.getMazeHeight(), sourceIndex, new int[cellCount], new byte[cellCount]);
+        field.search(maze);
+        return field;
+    }
+
+
+    /**
+     * Factory constructor - constructs the field from distances and directions computed before, after performing the size checks.
+     *
+     * @param width        The number of columns.
+     * @param height       The number of rows.
+     * @param sourceIndex  The index of the source cell.
+     * @param distances    The distance of every cell from the source, or NO_DISTANCE.
+     * @param directions   The direction of the first step from every cell towards the source, or NO_DIRECTION.
+     *
+     * @return DistanceField.
+     */
+    public static DistanceField initField(int width, int height, int sourceIndex, int[] distances, byte[] directions) {
+        long cellCount = (long) width * height;
+
+        if (distances == null || directions == null || distances.length != cellCount || directions.length != cellCount) {
+            return null;
+        }
+        return new DistanceField(width, height, sourceIndex, distances, directions);
+    }
+
+
+    public int getMazeWidth() {
+        return width;
+    }
+
+
+    public int getMazeHeight() {
+        return height;
+    }
+
+
+    public int getSourceIndex() {
+        return sourceIndex;
+    }
+
+
+    public int getCellCount() {
+        return distances.length;
+    }
+
+
+    /**
+     * Returns the number of steps from the given cell to the source.
+     *
+     * @param index  The cell index.
+     *
+     * @return int - the distance, or NO_DISTANCE if the cell is a wall or not connected to the source.
+     */
+    public int getDistance(int index) {
+        return distances[index];
+    }
+
+
+    /**
+     * Returns the direction of the first step from the given cell towards the source.
+     *
+     * @param index  The cell index.
+     *
+     * @return int - one of Maze.NORTH, SOUTH, EAST or WEST, or NO_DIRECTION for the source and the cells not connected to it.
+     */
+    public int getDirection(int index) {
+        return directions[index];
+    }
+
+
+    /**
+     * Returns the cells of a shortest path from the given cell to the source.
+     *
+     * @param startIndex  The index of the first cell of the path.
+     *
+     * @return int[] - the cell indices in order from the given cell to the source, or null if the cell is not connected to the source.
+     */
+    public int[] getPathCells(int startIndex) {
+        if (distances[startIndex] == NO_DISTANCE) {
+            return null;
+        }
+
+        int[] pathCells = new int[distances[startIndex] + 1];
+        int cell = startIndex;
+
+        for (int step = 0; step < pathCells.length; ++step) {
+            pathCells[step] = cell;
+            cell = getNextCell(cell);
+        }
+        return pathCells;
+    }
+
+
+    private DistanceField(int width, int height, int sourceIndex, int[] distances, byte[] directions) {
+        this.width = width;
+        this.height = height;
+        this.sourceIndex = sourceIndex;
+        this.distances = distances;
+        this.directions = directions;
+    }
+
+
+    /**
+     * Fills the distances and directions with a breadth first search from the source - the distances double as the visited marks,
+     * and the queue holds every cell at most once.
+     */
+    private void search(Maze maze) {
+        Arrays.fill(distances, NO_DISTANCE);
+        Arrays.fill(directions, NO_DIRECTION);
+
+        if (maze.isWall(sourceIndex)) {
+            return;
+        }
+
+        int[] queue = new int[distances.length];
+        int head = 0;
+        int tail = 0;
+        distances[sourceIndex] = 0;
+        queue[tail++] = sourceIndex;
+
+        while (head < tail) {
+            int cell = queue[head++];
+
+            for (int direction = Maze.NORTH; direction <= Maze.WEST; ++direction) {
+                int neighbor = maze.getNeighbor(cell, direction);
+
+                if (neighbor != Maze.NO_CELL && distances[neighbor] == NO_DISTANCE && !maze.isWall(neighbor)) {
+                    distances[neighbor] = distances[cell] + 1;
+                    directions[neighbor] = (byte) getOppositeDirection(direction);
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+    }
+
+
+    private int getNextCell(int index) {
+        switch (directions[index]) {
+            case Maze.NORTH:
+                return index - width;
+            case Maze.SOUTH:
+                return index + width;
+            case Maze.EAST:
+                return index + 1;
+            case Maze.WEST:
+                return index - 1;
+            default:
+                return Maze.NO_CELL;
+        }
+    }
+
+
+    /**
+     * Returns the opposite of the given direction - the directions are numbered in opposite pairs (NORTH and SOUTH, EAST and WEST).
+     */
+    private static int getOppositeDirection(int direction) {
+        return direction ^ 1;
+    }
+}
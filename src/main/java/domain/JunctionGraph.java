@@ -0,0 +1,396 @@
+package domain;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The clear path cells of a maze contracted into a weighted graph of junctions. First the dead ends are filled - cells with at most one
+ * clear neighbor are removed until none is left, which leaves the core of the maze, the cells on a cycle or between two cycles.
+ * The core cells with other than two core neighbors become the nodes, and every corridor between two nodes becomes an edge weighted
+ * with its number of steps. A cycle without any junction gets one of its cells as a node.
+ *
+ * The edges are kept in compressed sparse row arrays - the edges of node n are the ones from getFirstEdge(n) to getFirstEdge(n + 1),
+ * stored in both directions. Every edge keeps the direction of its first step, so its cells can be walked again.
+ * A filled cell keeps the order it was filled in - its neighbor filled later, or in the core, is the next cell towards the core.
+ *
+ * Open mazes hardly contract, as most of their cells are junctions - the contraction gives up as soon as more than a quarter of
+ * the clear cells are nodes, before any corridor is walked, so no graph is built that would be searched slower than the cells.
+ */
+public final class JunctionGraph {
+
+    public static final int NO_NODE = -1;
+
+    private static final int CORE = Integer.MAX_VALUE;
+    private static final int MIN_CONTRACTION = 4;
+    private static final int[] DIRECTIONS = {Maze.NORTH, Maze.SOUTH, Maze.EAST, Maze.WEST};
+
+    private final Maze maze;
+    private final int[] fillOrder;
+    private final BitSet nodeMarks;
+    private int[] nodeCells;
+    private int[] firstEdges;
+    private int[] edgeTargets;
+    private int[] edgeLengths;
+    private byte[] edgeDirections;
+    private int edgeCount;
+    private int clearCellCount;
+
+
+    /**
+     * Contracts the corridors of the given maze into a junction graph.
+     *
+     * @param maze  The maze object.
+     *
+     * @return JunctionGraph, or null if more than a quarter of the clear cells are nodes.
+     */
+    public static JunctionGraph contractCorridors(Maze maze) {
+        if (maze == null) {
+            return null;
+        }
+
+        JunctionGraph graph = new JunctionGraph(maze);
+        return (graph.nodeCells != null) ? graph : null;
+    }
+
+
+    public int getNodeCount() {
+        return nodeCells.length;
+    }
+
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+
+    public int getClearCellCount() {
+        return clearCellCount;
+    }
+
+
+    /**
+     * Returns the node of the given cell.
+     *
+     * @param index  The cell index.
+     *
+     * @return int - the node, or NO_NODE if the cell is not a node.
+     */
+    public int getNode(int index) {
+        if (!nodeMarks.get(index)) {
+            return NO_NODE;
+        }
+        return Arrays.binarySearch(nodeCells, index);
+    }
+
+
+    public boolean isNode(int index) {
+        return nodeMarks.get(index);
+    }
+
+
+    public int getNodeCell(int node) {
+        return nodeCells[node];
+    }
+
+
+    /**
+     * Returns the first edge of the given node - the edges of the node end at the first edge of the next node.
+     *
+     * @param node  The node, or the node count for the end of the last node's edges.
+     *
+     * @return int.
+     */
+    public int getFirstEdge(int node) {
+        return firstEdges[node];
+    }
+
+
+    public int getEdgeTarget(int edge) {
+        return edgeTargets[edge];
+    }
+
+
+    public int getEdgeLength(int edge) {
+        return edgeLengths[edge];
+    }
+
+
+    /**
+     * Returns the direction of the first step of the given edge from its node.
+     *
+     * @param edge  The edge.
+     *
+     * @return int - one of Maze.NORTH, SOUTH, EAST or WEST.
+     */
+    public int getEdgeDirection(int edge) {
+        return edgeDirections[edge];
+    }
+
+
+    /**
+     * Checks if the given cell is a clear path left after filling the dead ends.
+     *
+     * @param index  The cell index.
+     *
+     * @return boolean.
+     */
+    public boolean isCore(int index) {
+        return fillOrder[index] == CORE && !maze.isWall(index);
+    }
+
+
+    /**
+     * Returns the order the given cell was filled in - the next cell towards the core is always filled later.
+     *
+     * @param index  The cell index.
+     *
+     * @return int - the fill order, or Integer.MAX_VALUE for a core cell.
+     */
+    public int getFillOrder(int index) {
+        return fillOrder[index];
+    }
+
+
+    /**
+     * Returns the next cell from the given filled cell towards the core.
+     *
+     * @param index  The index of a filled cell.
+     *
+     * @return int - the next cell, or Maze.NO_CELL if the cell was the last one filled of a part of the maze without a core.
+     */
+    public int getCoreward(int index) {
+        for (int direction : DIRECTIONS) {
+            int neighbor = maze.getNeighbor(index, direction);
+
+            if (neighbor != Maze.NO_CELL && !maze.isWall(neighbor) && fillOrder[neighbor] > fillOrder[index]) {
+                return neighbor;
+            }
+        }
+        return Maze.NO_CELL;
+    }
+
+
+    /**
+     * Returns the next cell of the corridor through the given core cell, coming from the previous cell.
+     *
+     * @param previousIndex  The index of the previous cell.
+     * @param index          The index of a core cell with two core neighbors.
+     *
+     * @return int - the core neighbor other than the previous cell.
+     */
+    public int getNextCorridorCell(int previousIndex, int index) {
+        for (int direction : DIRECTIONS) {
+            int neighbor = maze.getNeighbor(index, direction);
+
+            if (neighbor != Maze.NO_CELL && neighbor != previousIndex && isCore(neighbor)) {
+                return neighbor;
+            }
+        }
+        return Maze.NO_CELL;
+    }
+
+
+    private JunctionGraph(Maze maze) {
+        this.maze = maze;
+        this.fillOrder = new int[maze.getCellCount()];
+        this.nodeMarks = new BitSet(maze.getCellCount());
+
+        Arrays.fill(fillOrder, CORE);
+        fillDeadEnds();
+
+        if (findNodes()) {
+            findEdges();
+        }
+    }
+
+
+    /**
+     * Fills the cells with at most one clear neighbor left, until there are none - the cells are numbered in the order they are filled.
+     */
+    private void fillDeadEnds() {
+        int cellCount = maze.getCellCount();
+        byte[] degrees = new byte[cellCount];
+        int[] deadEnds = new int[16];
+        int deadEndCount = 0;
+
+        for (int index = 0; index < cellCount; ++index) {
+            if (!maze.isWall(index)) {
+                degrees[index] = (byte) getClearNeighborCount(index);
+                ++clearCellCount;
+
+                if (degrees[index] <= 1) {
+                    deadEnds = append(deadEnds, deadEndCount++, index);
+                }
+            }
+        }
+
+        int order = 0;
+        while (deadEndCount > 0) {
+            int deadEnd = deadEnds[--deadEndCount];
+            fillOrder[deadEnd] = order++;
+
+            for (int direction : DIRECTIONS) {
+                int neighbor = maze.getNeighbor(deadEnd, direction);
+
+                if (neighbor != Maze.NO_CELL && isCore(neighbor) && --degrees[neighbor] == 1) {
+                    deadEnds = append(deadEnds, deadEndCount++, neighbor);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Marks the core cells with other than two core neighbors as nodes, then one cell of every cycle left without a node.
+     *
+     * @return boolean - false if more than a quarter of the clear cells are nodes, in which case the node cells are not kept.
+     */
+    private boolean findNodes() {
+        int cellCount = maze.getCellCount();
+        int maxNodeCount = clearCellCount / MIN_CONTRACTION;
+        int nodeCount = 0;
+
+        for (int index = 0; index < cellCount; ++index) {
+            if (isCore(index) && getCoreNeighborCount(index) != 2) {
+                nodeMarks.set(index);
+
+                if (++nodeCount > maxNodeCount) {
+                    return false;
+                }
+            }
+        }
+
+        BitSet walkedCells = new BitSet(cellCount);
+        for (int index = nodeMarks.nextSetBit(0); index >= 0; index = nodeMarks.nextSetBit(index + 1)) {
+            walkCorridors(index, walkedCells);
+        }
+
+        for (int index = 0; index < cellCount; ++index) {
+            if (isCore(index) && !nodeMarks.get(index) && !walkedCells.get(index)) {
+                nodeMarks.set(index);
+                ++nodeCount;
+                walkCorridors(index, walkedCells);
+            }
+        }
+
+        if (nodeCount > maxNodeCount) {
+            return false;
+        }
+
+        nodeCells = new int[nodeCount];
+        int node = 0;
+        for (int index = nodeMarks.nextSetBit(0); index >= 0; index = nodeMarks.nextSetBit(index + 1)) {
+            nodeCells[node++] = index;
+        }
+        return true;
+    }
+
+
+    /**
+     * Marks the cells of every corridor leaving the given node as walked.
+     */
+    private void walkCorridors(int nodeCell, BitSet walkedCells) {
+        for (int direction : DIRECTIONS) {
+            int previous = nodeCell;
+            int cell = maze.getNeighbor(nodeCell, direction);
+
+            if (cell == Maze.NO_CELL || !isCore(cell) || walkedCells.get(cell)) {
+                continue;
+            }
+
+            while (!nodeMarks.get(cell)) {
+                walkedCells.set(cell);
+                int next = getNextCorridorCell(previous, cell);
+                previous = cell;
+                cell = next;
+            }
+        }
+    }
+
+
+    /**
+     * Walks every corridor leaving every node to the node at its other end, adding an edge for each - corridors leading back to
+     * their own node are left out, as they are never part of a shortest path.
+     */
+    private void findEdges() {
+        firstEdges = new int[nodeCells.length + 1];
+        edgeTargets = new int[Math.max(16, nodeCells.length * 2)];
+        edgeLengths = new int[edgeTargets.length];
+        edgeDirections = new byte[edgeTargets.length];
+
+        for (int node = 0; node < nodeCells.length; ++node) {
+            firstEdges[node] = edgeCount;
+
+            for (int direction : DIRECTIONS) {
+                int previous = nodeCells[node];
+                int cell = maze.getNeighbor(previous, direction);
+
+                if (cell == Maze.NO_CELL || !isCore(cell)) {
+                    continue;
+                }
+
+                int length = 1;
+                while (!nodeMarks.get(cell)) {
+                    int next = getNextCorridorCell(previous, cell);
+                    previous = cell;
+                    cell = next;
+                    ++length;
+                }
+
+                if (cell != nodeCells[node]) {
+                    addEdge(Arrays.binarySearch(nodeCells, cell), length, direction);
+                }
+            }
+        }
+        firstEdges[nodeCells.length] = edgeCount;
+    }
+
+
+    private void addEdge(int targetNode, int length, int direction) {
+        if (edgeCount == edgeTargets.length) {
+            edgeTargets = Arrays.copyOf(edgeTargets, edgeCount << 1);
+            edgeLengths = Arrays.copyOf(edgeLengths, edgeCount << 1);
+            edgeDirections = Arrays.copyOf(edgeDirections, edgeCount << 1);
+        }
+
+        edgeTargets[edgeCount] = targetNode;
+        edgeLengths[edgeCount] = length;
+        edgeDirections[edgeCount] = (byte) direction;
+        ++edgeCount;
+    }
+
+
+    private int getClearNeighborCount(int index) {
+        int count = 0;
+
+        for (int direction : DIRECTIONS) {
+            int neighbor = maze.getNeighbor(index, direction);
+
+            if (neighbor != Maze.NO_CELL && !maze.isWall(neighbor)) {
+                ++count;
+            }
+        }
+        return count;
+    }
+
+
+    private int getCoreNeighborCount(int index) {
+        int count = 0;
+
+        for (int direction : DIRECTIONS) {
+            int neighbor = maze.getNeighbor(index, direction);
+
+            if (neighbor != Maze.NO_CELL && isCore(neighbor)) {
+                ++count;
+            }
+        }
+        return count;
+    }
+
+
+    private static int[] append(int[] elements, int size, int element) {
+        int[] grownElements = (size == elements.length) ? Arrays.copyOf(elements, size << 1) : elements;
+        grownElements[size] = element;
+        return grownElements;
+    }
+}
@@ -0,0 +1,31 @@
+package domain;
+
+/**
+ * Wall bits kept on the heap in a long array.
+ */
+public final class LongArrayWallGrid implements WallGrid {
+
+    private static final int WORD_INDEX_SHIFT = 6;
+
+    private final long[] words;
+
+
+    public LongArrayWallGrid(long[] words) {
+        this.words = words;
+    }
+
+    @Override
+    public boolean isWall(int index) {
+        return (words[index >>> WORD_INDEX_SHIFT] & (1L << index)) != 0;
+    }
+
+    @Override
+    public long getWord(int wordIndex) {
+        return words[wordIndex];
+    }
+
+    @Override
+    public int getWordCount() {
+        return words.length;
+    }
+}
@@ -0,0 +1,38 @@
+package domain;
+
+import java.nio.LongBuffer;
+
+/**
+ * Wall bits read in place from a buffer, usually a view of a memory-mapped file, so the grid is never copied to the heap.
+ */
+public final class MappedWallGrid implements WallGrid {
+
+    private static final int WORD_INDEX_SHIFT = 6;
+
+    private final LongBuffer words;
+
+
+    /**
+     * Constructor.
+     *
+     * @param words  The wall words - the buffer must not be modified while the grid is in use.
+     */
+    public MappedWallGrid(LongBuffer words) {
+        this.words = words;
+    }
+
+    @Override
+    public boolean isWall(int index) {
+        return (words.get(index >>> WORD_INDEX_SHIFT) & (1L << index)) != 0;
+    }
+
+    @Override
+    public long getWord(int wordIndex) {
+        return words.get(wordIndex);
+    }
+
+    @Override
+    public int getWordCount() {
+        return words.limit();
+    }
+}
@@ -1,54 +1,354 @@
 package domain;
 
-import java.util.List;
-
+/**
+ * The maze grid - every cell is stored as a single bit (1 for a wall, 0 for a clear path) in a packed WallGrid using row-major indexing.
+ * A maze never changes once created and keeps no search state - the structures built on the first request are published through
+ * volatile fields - so one maze can be solved by any number of threads at once.
+ */
 public class Maze {
 
-    private String[][] mazeRepresentation;
-    private List<String> mazeLines;
-    private boolean isSolvable;
+    public static final int NO_CELL = -1;
+    public static final int NORTH = 0;
+    public static final int SOUTH = 1;
+    public static final int EAST = 2;
+    public static final int WEST = 3;
+
+    private static final int WORD_INDEX_SHIFT = 6;
+
+    private final int width;
+    private final int height;
+    private final WallGrid walls;
+    private final byte[] cellCosts;
+    private final int startIndex;
+    private final int exitIndex;
+    private volatile MazeComponents components;
+    private JunctionGraph junctionGraph;
+    private volatile boolean isJunctionGraphContracted;
+    private volatile ClusterAbstraction clusterAbstraction;
+
+    /**
+     * Factory constructor - constructs the maze from the packed wall bits after performing the size checks.
+     *
+     * @param width       The number of columns.
+     * @param height      The number of rows.
+     * @param walls       The wall bits as created by createWallBits and set by setWallBit.
+     * @param startIndex  The index of the start cell.
+     * @param exitIndex   The index of the exit cell.
+     *
+     * @return Maze.
+     */
+    public static Maze initMaze(int width, int height, long[] walls, int startIndex, int exitIndex) {
+        return (walls != null) ? initMaze(width, height, new LongArrayWallGrid(walls), startIndex, exitIndex) : null;
+    }
+
+    /**
+     * Factory constructor - constructs the maze on the given wall grid after performing the size checks.
+     *
+     * @param width       The number of columns.
+     * @param height      The number of rows.
+     * @param walls       The wall grid.
+     * @param startIndex  The index of the start cell.
+     * @param exitIndex   The index of the exit cell.
+     *
+     * @return Maze.
+     */
+    public static Maze initMaze(int width, int height, WallGrid walls, int startIndex, int exitIndex) {
+        return initMaze(width, height, walls, null, startIndex, exitIndex);
+    }
+
+    /**
+     * Factory constructor - constructs the maze with weighted cells on the given wall grid after performing the size checks.
+     *
+     * @param width       The number of columns.
+     * @param height      The number of rows.
+     * @param walls       The wall grid.
+     * @param cellCosts   The cost of stepping onto every cell in row-major order, or null if every step costs 1.
+     * @param startIndex  The index of the start cell.
+     * @param exitIndex   The index of the exit cell.
+     *
+     * @return Maze.
+     */
+    public static Maze initMaze(int width, int height, WallGrid walls, byte[] cellCosts, int startIndex, int exitIndex) {
+        if (walls == null || width < 0 || height < 0 || walls.getWordCount() != getWallWordCount(width, height)) {
+            return null;
+        }
+        return (cellCosts == null || cellCosts.length == (long) width * height) ? new Maze(width, height, walls, cellCosts, startIndex, exitIndex) : null;
+    }
+
+    /**
+     * Returns the number of 64 bit words needed for the wall bits of a maze of the given size.
+     *
+     * @param width   The number of columns.
+     * @param height  The number of rows.
+     *
+     * @return int.
+     */
+    public static int getWallWordCount(int width, int height) {
+        return (int) (((long) width * height + Long.SIZE - 1) >>> WORD_INDEX_SHIFT);
+    }
+
+    /**
+     * Creates the zeroed wall bits (all clear paths) for a maze of the given size.
+     *
+     * @param width   The number of columns.
+     * @param height  The number of rows.
+     *
+     * @return long[].
+     */
+    public static long[] createWallBits(int width, int height) {
+        return new long[getWallWordCount(width, height)];
+    }
 
-    public static Maze initMaze(int width, int height, List<String> mazeLines) {
-        return (mazeLines != null && width >= 0 && height >= 0) ? new Maze(width, height, mazeLines) : null;
+    /**
+     * Marks the cell with the given index as a wall in the given wall bits.
+     *
+     * @param walls  The wall bits.
+     * @param index  The cell index.
+     */
+    public static void setWallBit(long[] walls, int index) {
+        walls[index >>> WORD_INDEX_SHIFT] |= 1L << index;
     }
 
-    public String[][] getMazeAs2DArray() {
-        return this.mazeRepresentation;
+    /**
+     * Marks the cell with the given index as a clear path in the given wall bits.
+     *
+     * @param walls  The wall bits.
+     * @param index  The cell index.
+     */
+    public static void clearWallBit(long[] walls, int index) {
+        walls[index >>> WORD_INDEX_SHIFT] &= ~(1L << index);
     }
 
+    /**
+     * Returns the number of columns in the maze (the range of Position.getPositionY()).
+     *
+     * @return int.
+     */
     public int getMazeWidth() {
-        return mazeRepresentation.length;
+        return width;
     }
 
+    /**
+     * Returns the number of rows in the maze (the range of Position.getPositionX()).
+     *
+     * @return int.
+     */
     public int getMazeHeight() {
-        return mazeRepresentation[0].length;
+        return height;
+    }
+
+    /**
+     * Returns the total number of cells in the maze.
+     *
+     * @return int.
+     */
+    public int getCellCount() {
+        return width * height;
+    }
+
+    /**
+     * Returns the row-major index of the cell with the given Position coordinates.
+     *
+     * @param coordX  The row of the cell.
+     * @param coordY  The column of the cell.
+     *
+     * @return int.
+     */
+    public int indexOf(int coordX, int coordY) {
+        return coordX * width + coordY;
+    }
+
+    /**
+     * Returns the row (Position.getPositionX()) of the cell with the given index.
+     *
+     * @param index  The cell index.
+     *
+     * @return int.
+     */
+    public int getCoordX(int index) {
+        return index / width;
+    }
+
+    /**
+     * Returns the column (Position.getPositionY()) of the cell with the given index.
+     *
+     * @param index  The cell index.
+     *
+     * @return int.
+     */
+    public int getCoordY(int index) {
+        return index % width;
+    }
+
+    /**
+     * Returns the index of the start cell given in the maze file.
+     *
+     * @return int.
+     */
+    public int getStartIndex() {
+        return startIndex;
     }
 
-    public boolean isSolvable() {
-        return isSolvable;
+    /**
+     * Returns the index of the exit cell given in the maze file.
+     *
+     * @return int.
+     */
+    public int getExitIndex() {
+        return exitIndex;
     }
 
-    public void setIsSolvable(boolean isSolvable) {
-        this.isSolvable = isSolvable;
+    /**
+     * Checks if the cell with the given Position coordinates is a wall - the coordinates must lie inside the maze.
+     *
+     * @param coordX  The row of the cell.
+     * @param coordY  The column of the cell.
+     *
+     * @return boolean.
+     */
+    public boolean isWall(int coordX, int coordY) {
+        return isWall(indexOf(coordX, coordY));
     }
 
-    private Maze(int width, int height, List<String> mazeLines) {
-        this.mazeRepresentation = new String[height][width];
-        this.mazeLines = mazeLines;
-        this.isSolvable = true;
-        populateMazeRepresentation();
+    /**
+     * Checks if the cell with the given row-major index is a wall - the index must lie inside the maze.
+     *
+     * @param index  The cell index.
+     *
+     * @return boolean.
+     */
+    public boolean isWall(int index) {
+        return walls.isWall(index);
     }
 
-    private void populateMazeRepresentation() {
+    /**
+     * Returns the cost of stepping onto the cell with the given index - 1 for a clear path, up to MazeConstants.MAZE_MAX_CELL_COST
+     * for a weighted cell.
+     *
+     * @param index  The cell index.
+     *
+     * @return int.
+     */
+    public int getCellCost(int index) {
+        return (cellCosts != null) ? cellCosts[index] : 1;
+    }
+
+    /**
+     * Checks if the maze has weighted cells - without them every step costs 1.
+     *
+     * @return boolean.
+     */
+    public boolean hasCellCosts() {
+        return cellCosts != null;
+    }
+
+    /**
+     * Returns the wall grid of the maze.
+     *
+     * @return WallGrid.
+     */
+    public WallGrid getWalls() {
+        return walls;
+    }
+
+    /**
+     * Returns the index of the neighboring cell in the given direction.
+     *
+     * @param index      The cell index.
+     * @param direction  One of NORTH, SOUTH, EAST or WEST.
+     *
+     * @return int - the index of the neighboring cell, or NO_CELL if it lies outside the maze.
+     */
+    public int getNeighbor(int index, int direction) {
+        switch (direction) {
+            case NORTH:
+                return (index >= width) ? index - width : NO_CELL;
+            case SOUTH:
+                return (index < getCellCount() - width) ? index + width : NO_CELL;
+            case EAST:
+                return (index % width != width - 1) ? index + 1 : NO_CELL;
+            default:
+                return (index % width != 0) ? index - 1 : NO_CELL;
+        }
+    }
+
+    /**
+     * Returns the connected components of the maze, labeling them on the first call - the labels are kept for the lifetime of the maze.
+     *
+     * @return MazeComponents.
+     */
+    public MazeComponents getComponents() {
+        MazeComponents mazeComponents = components;
+
+        if (mazeComponents == null) {
+            synchronized (this) {
+                mazeComponents = components;
+
+                if (mazeComponents == null) {
+                    mazeComponents = MazeComponents.labelComponents(this);
+                    components = mazeComponents;
+                }
+            }
+        }
+        return mazeComponents;
+    }
+
+    /**
+     * Checks if the connected components of the maze have been labeled, so getComponents answers without labeling them.
+     *
+     * @return boolean.
+     */
+    public boolean hasComponents() {
+        return components != null;
+    }
+
+    /**
+     * Returns the junction graph of the maze, contracting the corridors on the first call - the graph is kept for the lifetime of the maze.
+     * A maze that hardly contracts keeps no graph, only the answer that it has none.
+     *
+     * @return JunctionGraph, or null if more than a quarter of the clear cells are junctions.
+     */
+    public JunctionGraph getJunctionGraph() {
+        if (!isJunctionGraphContracted) {
+            synchronized (this) {
+
+                if (!isJunctionGraphContracted) {
+                    junctionGraph = JunctionGraph.contractCorridors(this);
+                    isJunctionGraphContracted = true;
+                }
+            }
+        }
+        return junctionGraph;
+    }
 
-        int currentMazeLine = 0;
-        for(String mazeLine : mazeLines) {
+    /**
+     * Returns the cluster abstraction of the maze with the default cluster size, building it on the first call - the abstraction is kept
+     * for the lifetime of the maze.
+     *
+     * @return ClusterAbstraction.
+     */
+    public ClusterAbstraction getClusterAbstraction() {
+        ClusterAbstraction abstraction = clusterAbstraction;
 
-            if (mazeLine != null) {
-                String[] elements = mazeLine.trim().split(" ");
-                mazeRepresentation[currentMazeLine] = elements;
+        if (abstraction == null) {
+            synchronized (this) {
+                abstraction = clusterAbstraction;
+
+                if (abstraction == null) {
+                    abstraction = ClusterAbstraction.buildAbstraction(this, ClusterAbstraction.DEFAULT_CLUSTER_SIZE);
+                    clusterAbstraction = abstraction;
+                }
             }
-            currentMazeLine++;
         }
+        return abstraction;
+    }
+
+    private Maze(int width, int height, WallGrid walls, byte[] cellCosts, int startIndex, int exitIndex) {
+        this.width = width;
+        this.height = height;
+        this.walls = walls;
+        this.cellCosts = cellCosts;
+        this.startIndex = startIndex;
+        this.exitIndex = exitIndex;
     }
 }
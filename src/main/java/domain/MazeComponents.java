@@ -0,0 +1,147 @@
+package domain;
+
+import java.util.Arrays;
+
+/**
+ * The connected components of the clear path cells of a maze - every clear path cell is labeled with the number of its component,
+ * so whether two cells are connected is answered in constant time. The labels are found in a single scan with union-find over
+ * the horizontal runs of clear path cells.
+ */
+public final class MazeComponents {
+
+    public static final int NO_COMPONENT = 0;
+
+    private final int[] labels;
+    private final int componentCount;
+
+
+    /**
+     * Labels the connected components of the given maze.
+     *
+     * @param maze  The maze object.
+     *
+     * @return MazeComponents.
+     */
+    public static MazeComponents labelComponents(Maze maze) {
+        return (maze != null) ? new MazeComponents(maze) : null;
+    }
+
+
+    /**
+     * Returns the component label of the given cell.
+     *
+     * @param index  The cell index.
+     *
+     * @return int - the component label, or NO_COMPONENT for a wall.
+     */
+    public int getComponent(int index) {
+        return labels[index];
+    }
+
+
+    /**
+     * Returns the number of connected components.
+     *
+     * @return int.
+     */
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+
+    /**
+     * Checks if there may be a path between the two given cells - false only if both are clear paths in different components.
+     * A wall start or exit cannot be decided from the labels, so it is left to the solver.
+     *
+     * @param fromIndex  The index of the first cell.
+     * @param toIndex    The index of the second cell.
+     *
+     * @return boolean.
+     */
+    public boolean isReachable(int fromIndex, int toIndex) {
+        int fromComponent = labels[fromIndex];
+        int toComponent = labels[toIndex];
+
+        return fromComponent == NO_COMPONENT || toComponent == NO_COMPONENT || fromComponent == toComponent;
+    }
+
+
+    private MazeComponents(Maze maze) {
+        int width = maze.getMazeWidth();
+        int height = maze.getMazeHeight();
+
+        this.labels = new int[maze.getCellCount()];
+        int[] runParents = new int[16];
+        int runCount = 0;
+
+        int index = 0;
+        for (int row = 0; row < height; ++row) {
+            int column = 0;
+
+            while (column < width) {
+                if (maze.isWall(index)) {
+                    ++column;
+                    ++index;
+                    continue;
+                }
+
+                if (runCount + 1 == runParents.length) {
+                    runParents = Arrays.copyOf(runParents, runParents.length << 1);
+                }
+                int run = ++runCount;
+                runParents[run] = run;
+
+                for (; column < width && !maze.isWall(index); ++column, ++index) {
+                    labels[index] = run;
+
+                    if (row > 0 && labels[index - width] != NO_COMPONENT) {
+                        union(runParents, run, labels[index - width]);
+                    }
+                }
+            }
+        }
+
+        int[] componentOfRun = new int[runCount + 1];
+        int components = 0;
+        for (int run = 1; run <= runCount; ++run) {
+            int root = find(runParents, run);
+
+            if (componentOfRun[root] == NO_COMPONENT) {
+                componentOfRun[root] = ++components;
+            }
+            componentOfRun[run] = componentOfRun[root];
+        }
+
+        for (int i = 0; i < labels.length; ++i) {
+            labels[i] = componentOfRun[labels[i]];
+        }
+        this.componentCount = components;
+    }
+
+
+    /**
+     * Finds the root run of the given run, halving the path on the way.
+     */
+    private static int find(int[] runParents, int run) {
+        while (runParents[run] != run) {
+            runParents[run] = runParents[runParents[run]];
+            run = runParents[run];
+        }
+        return run;
+    }
+
+
+    /**
+     * Joins the sets of the two given runs - the smaller root becomes the parent, so a root is never linked below a later run.
+     */
+    private static void union(int[] runParents, int firstRun, int secondRun) {
+        int firstRoot = find(runParents, firstRun);
+        int secondRoot = find(runParents, secondRun);
+
+        if (firstRoot < secondRoot) {
+            runParents[secondRoot] = firstRoot;
+        } else if (secondRoot < firstRoot) {
+            runParents[firstRoot] = secondRoot;
+        }
+    }
+}
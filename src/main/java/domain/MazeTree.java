@@ -1,9 +1,6 @@
 package domain;
 
-import constants.MazeConstants;
-
-import java.util.ArrayList;
-import java.util.List;
+import java.util.BitSet;
 
 
 /**
@@ -11,9 +8,19 @@ import java.util.List;
  */
 public class MazeTree {
 
+    public static final int NO_NODE = Maze.NO_CELL;
+
+    private static final int[] VERTICAL_FIRST = {Maze.SOUTH, Maze.NORTH, Maze.EAST, Maze.WEST};
+    private static final int[] HORIZONTAL_FIRST = {Maze.EAST, Maze.WEST, Maze.SOUTH, Maze.NORTH};
+
     private Position rootNode;
     private Position lastNode;
     private Maze maze;
+    private int[] parentNodes;
+    private BitSet claimedNodes;
+    private BitSet visitedNodes;
+    private boolean isSolvable;
+    private int peakDepth;
 
 
     /**
@@ -31,114 +38,128 @@ public class MazeTree {
 
 
     /**
-     * Creates the tree by looping through the maze elements - calculates the child nodes of the nodes with their value set to 0.
+     * Creates the tree by walking the maze cells depth first - every cell with its value set to 0 is claimed as a child node by the first node
+     * expanded next to it, and the walk moves to the first unvisited child node or returns to the parent node when there is none.
+     * The tree is kept as the parent index of every claimed cell, so no objects are created per node.
      */
     public void createTree() {
-        List<Position> childNodes = new ArrayList<>();
-        Position currentNodePosition = rootNode;
-        currentNodePosition.setIsVisited(true);
-        populateChildNodesForNode(rootNode, childNodes);
+        int cellCount = maze.getCellCount();
+        createTree(new int[cellCount], new BitSet(cellCount), new BitSet(cellCount));
+    }
 
-        do {
-            List<Position> childNodePositions = currentNodePosition.getNeighboringPositions();
 
-            int invalidPositionsToMoveTo = 0;
-            for (Position childNodePosition : childNodePositions) {
+    /**
+     * Creates the tree like createTree, keeping the walk state in the given buffers instead of new ones - the parents are only set
+     * for the claimed cells, so the buffers may hold the state of an earlier walk as long as the bit sets are cleared.
+     *
+     * @param parentNodes   The parent index buffer, at least as long as the cell count.
+     * @param claimedNodes  The cleared bit set for the claimed cells.
+     * @param visitedNodes  The cleared bit set for the visited cells.
+     */
+    public void createTree(int[] parentNodes, BitSet claimedNodes, BitSet visitedNodes) {
+        int rootIndex = maze.indexOf(rootNode.getPositionX(), rootNode.getPositionY());
+        int lastIndex = maze.indexOf(lastNode.getPositionX(), lastNode.getPositionY());
+
+        this.parentNodes = parentNodes;
+        this.claimedNodes = claimedNodes;
+        this.visitedNodes = visitedNodes;
+
+        isSolvable = true;
+        parentNodes[rootIndex] = NO_NODE;
+        claimedNodes.set(rootIndex);
+        visitedNodes.set(rootIndex);
+        peakDepth = 0;
+
+        if (rootIndex == lastIndex) {
+            return;
+        }
+        populateChildNodesForNode(rootIndex);
+
+        int depth = 0;
+
+        int currentNode = rootIndex;
+        do {
+            int childNode = getNextChildNode(currentNode);
 
-                if (isValidNodePosition(childNodePosition)) {
-                    currentNodePosition = childNodePosition;
-                    childNodePosition.setIsVisited(true);
-                    populateChildNodesForNode(childNodePosition, childNodes);
-                    break;
+            if (childNode != NO_NODE) {
+                currentNode = childNode;
+                visitedNodes.set(childNode);
+                populateChildNodesForNode(childNode);
 
-                } else {
-                    ++invalidPositionsToMoveTo;
+                if (++depth > peakDepth) {
+                    peakDepth = depth;
                 }
-            }
 
-            if (isReturnedToRootNodePosition(currentNodePosition, childNodePositions, invalidPositionsToMoveTo)){
-                maze.setIsSolvable(false);
+            } else if (currentNode == rootIndex) {
+                isSolvable = false;
                 return;
-            }
 
-            if (noValidMovesForward(childNodePositions, invalidPositionsToMoveTo)) {
-                currentNodePosition = currentNodePosition.getParentPosition();
+            } else {
+                currentNode = parentNodes[currentNode];
+                --depth;
             }
 
-        } while (!currentNodePosition.equals(lastNode));
-
-        if (currentNodePosition.equals(lastNode)) {
-            lastNode.setParentPosition(currentNodePosition.getParentPosition());
-        }
+        } while (currentNode != lastIndex);
     }
 
 
     /**
-     * Returns the root node of the tree.
+     * Returns the parent index of every cell claimed by the tree - the root node has no parent (NO_NODE).
      *
-     * @return Position.
+     * @return int[].
      */
-    public Position getRootNode() {
-        return rootNode;
+    public int[] getParentNodes() {
+        return parentNodes;
     }
 
 
     /**
-     * Returns the exit node of the maze.
+     * Checks if the last created tree reached the exit node - the maze itself is never changed, so several trees can be created on the same maze.
      *
-     * @return Position.
+     * @return boolean.
      */
-    public Position getLastNode() {
-        return lastNode;
+    public boolean isSolvable() {
+        return isSolvable;
     }
 
 
     /**
-     * Checks if the passed node object is in the list of visited nodes (has been populated).
-     *
-     * @param node                  The given node to check.
-     * @param visitedNodePositions  The visited nodes list.
+     * Returns the number of nodes visited by the last created tree.
      *
-     * @return boolean.
+     * @return int.
      */
-    public static boolean isInNodesList(Position node, List<Position> visitedNodePositions) {
-        if (node == null || visitedNodePositions == null) {
-            return false;
-        }
+    public int getVisitedNodeCount() {
+        return (visitedNodes != null) ? visitedNodes.cardinality() : 0;
+    }
 
-        for (Position visitedNode : visitedNodePositions) {
 
-            if (visitedNode.equals(node)) {
-                return true;
-            }
-        }
-        return false;
+    /**
+     * Returns the largest distance from the root node the walk of the last created tree went along the tree.
+     *
+     * @return int.
+     */
+    public int getPeakDepth() {
+        return peakDepth;
     }
 
 
     /**
-     * Checks if the passed node is a valid node to visit.
-     *
-     * @param node  The node position object.
+     * Returns the root node of the tree.
      *
-     * @return boolean.
+     * @return Position.
      */
-    private boolean isValidNodePosition(Position node) {
-        return MazeConstants.MAZE_CLEAR_PATH.equals(node.getPositionValue()) && !node.isVisited();
+    public Position getRootNode() {
+        return rootNode;
     }
 
 
     /**
-     * Checks if the current position is the start position and there are no valid routes left, so the maze is not solvable.
-     *
-     * @param currentNodePosition       The current node position to check.
-     * @param possiblePositions         The possible nearby positions list.
-     * @param invalidPositionsToMoveTo  The number of invalid positions to move to.
+     * Returns the exit node of the maze.
      *
-     * @return boolean.
+     * @return Position.
      */
-    private boolean isReturnedToRootNodePosition(Position currentNodePosition, List<Position> possiblePositions, int invalidPositionsToMoveTo) {
-        return currentNodePosition.getParentPosition() == null && noValidMovesForward(possiblePositions, invalidPositionsToMoveTo);
+    public Position getLastNode() {
+        return lastNode;
     }
 
 
@@ -161,61 +182,57 @@ public class MazeTree {
      * If there is a wall north or south, first the horizontal positions (east and west) are populated since the program looks for the first valid route.
      * In all other cases the vertical positions (south and north) are populated since the program looks for the first valid route.
      *
-     * @param parentNodePosition  The node object.
-     * @param childNodePositions  The nodes that already have a parent node.
+     * @param parentNode  The index of the node.
      */
-    private void populateChildNodesForNode(Position parentNodePosition, List<Position> childNodePositions) {
-        int nodeCoordX = parentNodePosition.getPositionX();
-        int nodeCoordY = parentNodePosition.getPositionY();
-
-        Position childNodePositionNorth = new Position(nodeCoordX - 1, nodeCoordY, maze, parentNodePosition);
-        Position childNodePositionSouth = new Position(nodeCoordX + 1, nodeCoordY, maze, parentNodePosition);
-        Position childNodePositionEast = new Position(nodeCoordX, nodeCoordY + 1, maze, parentNodePosition);
-        Position childNodePositionWest = new Position(nodeCoordX, nodeCoordY - 1, maze, parentNodePosition);
-
-        if (MazeConstants.MAZE_WALL.equals(childNodePositionSouth.getPositionValue()) || MazeConstants.MAZE_WALL.equals(childNodePositionNorth.getPositionValue())) {
-            addChildNodeToList(parentNodePosition, childNodePositionEast, childNodePositions);
-            addChildNodeToList(parentNodePosition, childNodePositionWest, childNodePositions);
-            addChildNodeToList(parentNodePosition, childNodePositionSouth, childNodePositions);
-            addChildNodeToList(parentNodePosition, childNodePositionNorth, childNodePositions);
-            return;
+    private void populateChildNodesForNode(int parentNode) {
+        int[] directions = getDirectionOrder(parentNode);
+
+        for (int direction : directions) {
+            int childNode = maze.getNeighbor(parentNode, direction);
+
+            if (childNode != NO_NODE && !maze.isWall(childNode) && !claimedNodes.get(childNode)) {
+                claimedNodes.set(childNode);
+                parentNodes[childNode] = parentNode;
+            }
         }
-        addChildNodeToList(parentNodePosition, childNodePositionSouth, childNodePositions);
-        addChildNodeToList(parentNodePosition, childNodePositionNorth, childNodePositions);
-        addChildNodeToList(parentNodePosition, childNodePositionEast, childNodePositions);
-        addChildNodeToList(parentNodePosition, childNodePositionWest, childNodePositions);
     }
 
 
     /**
-     * Adds the given child node to the given parent node after checking the validity of the child node.
+     * Returns the first child node of the given node that has not been visited yet, in the order the child nodes were populated.
      *
-     * @param parentNodePosition    The parent node for which to add the child.
-     * @param childNodePosition     The child node to add to the parent.
-     * @param childNodes            The nodes that already have a parent.
+     * @param parentNode  The index of the node.
+     *
+     * @return int - the index of the child node, or NO_NODE if there are no valid moves forward.
      */
-    private void addChildNodeToList(Position parentNodePosition, Position childNodePosition, List<Position> childNodes) {
+    private int getNextChildNode(int parentNode) {
+        int[] directions = getDirectionOrder(parentNode);
 
-        if (parentNodePosition == null || childNodePosition == null) {
-            return;
-        }
+        for (int direction : directions) {
+            int childNode = maze.getNeighbor(parentNode, direction);
 
-        if (childNodePosition.getPositionValue() != null && !childNodePosition.equals(parentNodePosition.getParentPosition()) && !MazeTree.isInNodesList(childNodePosition, childNodes)) {
-            childNodes.add(childNodePosition);
-            parentNodePosition.getNeighboringPositions().add(childNodePosition);
+            if (childNode != NO_NODE && claimedNodes.get(childNode) && parentNodes[childNode] == parentNode && !visitedNodes.get(childNode)) {
+                return childNode;
+            }
         }
+        return NO_NODE;
     }
 
 
     /**
-     * Checks if the current node position has valid node positions to move to.
+     * Returns the order the neighboring positions of the given node are populated in.
      *
-     * @param possiblePositions         The possible positions to move to.
-     * @param invalidPositionsToMoveTo  The number of invalid positions nearby.
+     * @param node  The index of the node.
      *
-     * @return boolean.
+     * @return int[].
      */
-    private static boolean noValidMovesForward(List<Position> possiblePositions, int invalidPositionsToMoveTo) {
-        return (possiblePositions != null && invalidPositionsToMoveTo == possiblePositions.size());
+    private int[] getDirectionOrder(int node) {
+        int southNode = maze.getNeighbor(node, Maze.SOUTH);
+        int northNode = maze.getNeighbor(node, Maze.NORTH);
+
+        if ((southNode != NO_NODE && maze.isWall(southNode)) || (northNode != NO_NODE && maze.isWall(northNode))) {
+            return HORIZONTAL_FIRST;
+        }
+        return VERTICAL_FIRST;
     }
 }
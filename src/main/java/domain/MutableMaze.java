@@ -0,0 +1,190 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * A maze whose walls change a few cells at a time - doors open and blocks get placed. It keeps its own copy of the wall bits of the
+ * maze it was created from, so that maze is never changed, and tells every wall listener the index of each cell whose wall changed,
+ * so a solver keeping a path on the maze can repair it instead of solving again. The cell costs of the maze are not kept.
+ *
+ * Unlike a Maze, a mutable maze is not safe to use from several threads - toMaze takes a Maze of the current walls, which can be
+ * solved and written like any other.
+ */
+public final class MutableMaze {
+
+    private final long[] walls;
+    private final Maze grid;
+    private final List<IntConsumer> wallListeners = new ArrayList<>();
+
+
+    /**
+     * Factory constructor - creates a mutable maze with a copy of the walls, start and exit of the given maze.
+     *
+     * @param maze  The maze object.
+     *
+     * @return MutableMaze.
+     */
+    public static MutableMaze initMaze(Maze maze) {
+        return (maze != null) ? new MutableMaze(maze) : null;
+    }
+
+
+    /**
+     * Returns the number of columns in the maze (the range of Position.getPositionY()).
+     *
+     * @return int.
+     */
+    public int getMazeWidth() {
+        return grid.getMazeWidth();
+    }
+
+
+    /**
+     * Returns the number of rows in the maze (the range of Position.getPositionX()).
+     *
+     * @return int.
+     */
+    public int getMazeHeight() {
+        return grid.getMazeHeight();
+    }
+
+
+    public int getCellCount() {
+        return grid.getCellCount();
+    }
+
+
+    /**
+     * Returns the row-major index of the cell with the given Position coordinates.
+     *
+     * @param coordX  The row of the cell.
+     * @param coordY  The column of the cell.
+     *
+     * @return int.
+     */
+    public int indexOf(int coordX, int coordY) {
+        return grid.indexOf(coordX, coordY);
+    }
+
+
+    public int getCoordX(int index) {
+        return grid.getCoordX(index);
+    }
+
+
+    public int getCoordY(int index) {
+        return grid.getCoordY(index);
+    }
+
+
+    public int getStartIndex() {
+        return grid.getStartIndex();
+    }
+
+
+    public int getExitIndex() {
+        return grid.getExitIndex();
+    }
+
+
+    /**
+     * Returns the index of the neighboring cell in the given direction.
+     *
+     * @param index      The cell index.
+     * @param direction  One of Maze.NORTH, Maze.SOUTH, Maze.EAST or Maze.WEST.
+     *
+     * @return int - the index of the neighboring cell, or Maze.NO_CELL if it lies outside the maze.
+     */
+    public int getNeighbor(int index, int direction) {
+        return grid.getNeighbor(index, direction);
+    }
+
+
+    /**
+     * Checks if the cell with the given Position coordinates is a wall - the coordinates must lie inside the maze.
+     *
+     * @param coordX  The row of the cell.
+     * @param coordY  The column of the cell.
+     *
+     * @return boolean.
+     */
+    public boolean isWall(int coordX, int coordY) {
+        return grid.isWall(coordX, coordY);
+    }
+
+
+    /**
+     * Checks if the cell with the given row-major index is a wall - the index must lie inside the maze.
+     *
+     * @param index  The cell index.
+     *
+     * @return boolean.
+     */
+    public boolean isWall(int index) {
+        return grid.isWall(index);
+    }
+
+
+    /**
+     * Builds a wall or clears the path at the cell with the given Position coordinates, and tells the wall listeners if the cell
+     * changed - the coordinates must lie inside the maze.
+     *
+     * @param coordX  The row of the cell.
+     * @param coordY  The column of the cell.
+     * @param isWall  True to build a wall, false to clear the path.
+     */
+    public void setWall(int coordX, int coordY, boolean isWall) {
+        int index = indexOf(coordX, coordY);
+
+        if (isWall(index) == isWall) {
+            return;
+        }
+
+        if (isWall) {
+            Maze.setWallBit(walls, index);
+        } else {
+            Maze.clearWallBit(walls, index);
+        }
+
+        for (IntConsumer wallListener : wallListeners) {
+            wallListener.accept(index);
+        }
+    }
+
+
+    /**
+     * Adds a listener told the index of every cell whose wall is changed by setWall, after the change.
+     *
+     * @param wallListener  The wall listener.
+     */
+    public void addWallListener(IntConsumer wallListener) {
+        wallListeners.add(wallListener);
+    }
+
+
+    /**
+     * Creates a maze with the current walls - later edits do not change it.
+     *
+     * @return Maze.
+     */
+    public Maze toMaze() {
+        return Maze.initMaze(getMazeWidth(), getMazeHeight(), walls.clone(), getStartIndex(), getExitIndex());
+    }
+
+
+    /**
+     * Private constructor - the grid is a maze over the live wall bits, only used for the cell lookups and never handed out,
+     * as a Maze is expected not to change.
+     *
+     * @param maze  The maze object.
+     */
+    private MutableMaze(Maze maze) {
+        this.walls = Maze.createWallBits(maze.getMazeWidth(), maze.getMazeHeight());
+        for (int i = 0; i < walls.length; ++i) {
+            walls[i] = maze.getWalls().getWord(i);
+        }
+        this.grid = Maze.initMaze(maze.getMazeWidth(), maze.getMazeHeight(), walls, maze.getStartIndex(), maze.getExitIndex());
+    }
+}
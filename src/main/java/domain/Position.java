@@ -1,8 +1,5 @@
 package domain;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * A class to replicate the node behaviour in a tree data structure - it denotes the current position in the maze.
  */
@@ -10,25 +7,15 @@ public class Position {
 
     private int coordX;
     private int coordY;
-    private String positionValue;
-    private List<Position> neightboringPositions = new ArrayList<>();
-    private Position parentPosition;
-    private boolean isVisited;
+    private boolean isInsideMaze;
+    private boolean isWall;
 
 
-    public Position(int coordX, int coordY, Maze maze, Position parentPosition) {
-        this.coordX = coordX;
-        this.coordY = coordY;
-        this.positionValue = (isValidPosition(maze)) ? maze.getMazeAs2DArray()[coordX][coordY] : null;
-        this.parentPosition = parentPosition;
-        this.isVisited = false;
-    }
-
     public Position(int coordX, int coordY, Maze maze) {
         this.coordX = coordX;
         this.coordY = coordY;
-        this.positionValue = (isValidPosition(maze)) ? maze.getMazeAs2DArray()[coordX][coordY] : null;
-        this.isVisited = false;
+        this.isInsideMaze = isValidPosition(maze);
+        this.isWall = isInsideMaze && maze.isWall(coordX, coordY);
     }
 
     public int getPositionX() {
@@ -39,28 +26,12 @@ public class Position {
         return coordY;
     }
 
-    public String getPositionValue() {
-        return positionValue;
-    }
-
-    public Position getParentPosition() {
-        return parentPosition;
-    }
-
-    public void setParentPosition(Position parent) {
-        this.parentPosition = parent;
-    }
-
-    public List<Position> getNeighboringPositions() {
-        return neightboringPositions;
-    }
-
-    public boolean isVisited() {
-        return isVisited;
+    public boolean isInsideMaze() {
+        return isInsideMaze;
     }
 
-    public void setIsVisited(boolean visited) {
-        isVisited = visited;
+    public boolean isWall() {
+        return isWall;
     }
 
     public boolean equals(Position position) {
@@ -76,6 +47,6 @@ public class Position {
             return false;
         }
 
-        return (coordX >= 0 && coordY >= 0 && coordX < maze.getMazeWidth() && coordY < maze.getMazeHeight());
+        return (coordX >= 0 && coordY >= 0 && coordX < maze.getMazeHeight() && coordY < maze.getMazeWidth());
     }
 }
@@ -0,0 +1,31 @@
+package domain;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The thread pools shared by the parallel parsers and solvers - one ForkJoinPool for every number of threads asked for, started on
+ * the first use and kept for the lifetime of the program, so a parse or a solve never starts or stops threads of its own.
+ * The pool threads are daemon threads, so they never keep the program running.
+ */
+public final class SharedPools {
+
+    private static final Map<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<>();
+
+    private SharedPools() {
+        //private constructor to prevent instantiation
+    }
+
+
+    /**
+     * Returns the shared pool with the given number of threads, starting it on the first call.
+     *
+     * @param threads  The number of threads of the pool.
+     *
+     * @return ForkJoinPool.
+     */
+    public static ForkJoinPool getPool(int threads) {
+        return POOLS.computeIfAbsent(Math.max(1, threads), ForkJoinPool::new);
+    }
+}
@@ -0,0 +1,258 @@
+package domain;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Wall bits read on demand from a file of square tiles, keeping at most a fixed number of tiles in memory - so mazes larger than the heap
+ * can be solved. A tile that is not in memory is read from the file on its first access, and when the cache is full a tile is evicted
+ * with the clock algorithm, skipping tiles accessed since the clock hand last passed them.
+ *
+ * Loaded tiles are never modified, so lookups from several threads need no lock - only loading and evicting tiles is synchronized.
+ * The number of tile accesses, loads and evictions is counted, to tune the tile size and the cache size.
+ */
+public final class TiledWallGrid implements WallGrid, Closeable {
+
+    private final FileChannel tileFile;
+    private final long firstTilePosition;
+    private final int width;
+    private final int height;
+    private final int tileSizeShift;
+    private final int tileMask;
+    private final int tileColumns;
+    private final int tileWords;
+
+    private final AtomicReferenceArray<long[]> tiles;
+    private final boolean[] isTileReferenced;
+    private final int[] residentTiles;
+    private int residentTileCount;
+    private int clockHand;
+
+    private final LongAdder tileAccesses = new LongAdder();
+    private final LongAdder tileLoads = new LongAdder();
+    private final LongAdder tileEvictions = new LongAdder();
+
+
+    /**
+     * Constructor.
+     *
+     * @param tileFile           The open file holding the tiles - it is closed with the grid.
+     * @param firstTilePosition  The file position of the first tile.
+     * @param width              The number of columns of the maze.
+     * @param height             The number of rows of the maze.
+     * @param tileSize           The number of rows and columns of a tile - a power of two of at least 8.
+     * @param cachedTiles        The maximum number of tiles kept in memory.
+     */
+    public TiledWallGrid(FileChannel tileFile, long firstTilePosition, int width, int height, int tileSize, int cachedTiles) {
+        this.tileFile = tileFile;
+        this.firstTilePosition = firstTilePosition;
+        this.width = width;
+        this.height = height;
+        this.tileSizeShift = Integer.numberOfTrailingZeros(tileSize);
+        this.tileMask = tileSize - 1;
+        this.tileColumns = getTileCount(width, tileSize);
+        this.tileWords = getTileWordCount(tileSize);
+
+        this.tiles = new AtomicReferenceArray<>(tileColumns * getTileCount(height, tileSize));
+        this.residentTiles = new int[Math.max(1, Math.min(cachedTiles, tiles.length()))];
+        this.isTileReferenced = new boolean[tiles.length()];
+    }
+
+
+    /**
+     * Returns the number of tiles needed to cover the given number of rows or columns.
+     *
+     * @param cells     The number of rows or columns.
+     * @param tileSize  The number of rows and columns of a tile.
+     *
+     * @return int.
+     */
+    public static int getTileCount(int cells, int tileSize) {
+        return (cells + tileSize - 1) / tileSize;
+    }
+
+
+    /**
+     * Returns the number of 64 bit words of a tile.
+     *
+     * @param tileSize  The number of rows and columns of a tile.
+     *
+     * @return int.
+     */
+    public static int getTileWordCount(int tileSize) {
+        return (tileSize * tileSize) >>> 6;
+    }
+
+
+    /**
+     * Returns the index of the bit of the given cell within its tile.
+     *
+     * @param row       The row of the cell.
+     * @param column    The column of the cell.
+     * @param tileSize  The number of rows and columns of a tile.
+     *
+     * @return int.
+     */
+    public static int getTileBit(int row, int column, int tileSize) {
+        return (row % tileSize) * tileSize + (column % tileSize);
+    }
+
+    @Override
+    public boolean isWall(int index) {
+        int row = index / width;
+        int column = index - row * width;
+        int tile = (row >>> tileSizeShift) * tileColumns + (column >>> tileSizeShift);
+        int tileBit = ((row & tileMask) << tileSizeShift) | (column & tileMask);
+
+        long[] tileBits = getTile(tile);
+        return (tileBits[tileBit >>> 6] & (1L << tileBit)) != 0;
+    }
+
+    @Override
+    public long getWord(int wordIndex) {
+        long word = 0;
+        int firstCell = wordIndex << 6;
+        int cells = (int) Math.min(Long.SIZE, (long) width * height - firstCell);
+
+        for (int i = 0; i < cells; ++i) {
+            if (isWall(firstCell + i)) {
+                word |= 1L << i;
+            }
+        }
+        return word;
+    }
+
+    @Override
+    public int getWordCount() {
+        return Maze.getWallWordCount(width, height);
+    }
+
+    /**
+     * Returns the number of times a tile was looked up.
+     *
+     * @return long.
+     */
+    public long getTileAccesses() {
+        return tileAccesses.sum();
+    }
+
+    /**
+     * Returns the number of times a tile was read from the file.
+     *
+     * @return long.
+     */
+    public long getTileLoads() {
+        return tileLoads.sum();
+    }
+
+    /**
+     * Returns the number of times a tile was evicted from the cache.
+     *
+     * @return long.
+     */
+    public long getTileEvictions() {
+        return tileEvictions.sum();
+    }
+
+    /**
+     * Returns the size of the tiles and of the cache with the tile counters, in a single line.
+     *
+     * @return String.
+     */
+    public String getTileStatistics() {
+        return "tile size " + (tileMask + 1) + ", cached tiles " + residentTiles.length + "/" + tiles.length()
+                + ", accesses " + getTileAccesses() + ", loads " + getTileLoads() + ", evictions " + getTileEvictions();
+    }
+
+    @Override
+    public void close() throws IOException {
+        tileFile.close();
+    }
+
+
+    private long[] getTile(int tile) {
+        tileAccesses.increment();
+        long[] tileBits = tiles.get(tile);
+
+        if (tileBits == null) {
+            tileBits = loadTile(tile);
+        }
+        isTileReferenced[tile] = true;
+        return tileBits;
+    }
+
+
+    /**
+     * Reads the given tile from the file, evicting a tile first if the cache is full.
+     *
+     * @param tile  The tile index.
+     *
+     * @return long[] - the tile bits.
+     */
+    private synchronized long[] loadTile(int tile) {
+        long[] tileBits = tiles.get(tile);
+        if (tileBits != null) {
+            return tileBits;
+        }
+
+        int slot;
+        if (residentTileCount < residentTiles.length) {
+            slot = residentTileCount++;
+        } else {
+            slot = evictTile();
+        }
+
+        tileBits = readTile(tile);
+        residentTiles[slot] = tile;
+        tiles.set(tile, tileBits);
+        tileLoads.increment();
+        return tileBits;
+    }
+
+
+    /**
+     * Moves the clock hand to the first resident tile not referenced since the hand last passed it, clearing the references on the way,
+     * and evicts that tile.
+     *
+     * @return int - the freed cache slot.
+     */
+    private int evictTile() {
+        while (isTileReferenced[residentTiles[clockHand]]) {
+            isTileReferenced[residentTiles[clockHand]] = false;
+            clockHand = (clockHand + 1) % residentTiles.length;
+        }
+
+        int slot = clockHand;
+        tiles.set(residentTiles[slot], null);
+        clockHand = (clockHand + 1) % residentTiles.length;
+        tileEvictions.increment();
+        return slot;
+    }
+
+
+    private long[] readTile(int tile) {
+        ByteBuffer buffer = ByteBuffer.allocate(tileWords * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        long position = firstTilePosition + (long) tile * buffer.capacity();
+
+        try {
+            while (buffer.hasRemaining()) {
+                if (tileFile.read(buffer, position + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of the tile file at tile " + tile);
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        buffer.flip();
+        long[] tileBits = new long[tileWords];
+        buffer.asLongBuffer().get(tileBits);
+        return tileBits;
+    }
+}
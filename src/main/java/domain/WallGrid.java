@@ -0,0 +1,33 @@
+package domain;
+
+/**
+ * The storage of the maze wall bits - bit i of the grid is set if the cell with row-major index i is a wall.
+ * The bits are grouped in 64 bit words, word w holding the cells 64 * w to 64 * w + 63 with the lowest cell in the lowest bit.
+ */
+public interface WallGrid {
+
+    /**
+     * Checks if the cell with the given index is a wall.
+     *
+     * @param index  The cell index.
+     *
+     * @return boolean.
+     */
+    boolean isWall(int index);
+
+    /**
+     * Returns the wall bits of the 64 cells in the given word.
+     *
+     * @param wordIndex  The word index.
+     *
+     * @return long.
+     */
+    long getWord(int wordIndex);
+
+    /**
+     * Returns the number of words in the grid.
+     *
+     * @return int.
+     */
+    int getWordCount();
+}
@@ -0,0 +1,320 @@
+package domain;
+
+import java.util.Arrays;
+
+/**
+ * A flood fill of the clear path cells reachable from a source cell, working on the packed wall words 64 cells at a time.
+ * The fill is spread a row at a time: the filled cells of the rows above and below seed the row, and the seeds are spread along
+ * the clear runs of the row with shifts and masks, through the words of the row to the east and back to the west.
+ * A row whose filled cells grew makes its neighboring rows pending, and the pending rows are swept down and up the maze until none is left.
+ *
+ * Open mazes settle in a few sweeps. Winding mazes need a sweep for every turn back up or down, so the fill gives up once it has
+ * spread as many rows as a few passes over the whole maze - the caller then answers with a cell by cell search instead.
+ */
+public final class WordFloodFill {
+
+    private static final int WORD_INDEX_SHIFT = 6;
+    private static final int MAX_MAZE_PASSES = 4;
+    private static final int SAMPLED_WORDS = 64;
+    private static final int OPEN_MAZE_WALL_RATIO = 4;
+
+    private final int width;
+    private final int height;
+    private final long[] clearWords;
+    private final long[] filledWords;
+    private final long[] rowWords;
+    private final boolean[] isRowPending;
+    private int firstPendingRow;
+    private int lastPendingRow;
+
+
+    /**
+     * Prepares a flood fill of the given maze, copying its clear path cells.
+     *
+     * @param maze  The maze object.
+     *
+     * @return WordFloodFill.
+     */
+    public static WordFloodFill initFill(Maze maze) {
+        return (maze != null) ? new WordFloodFill(maze) : null;
+    }
+
+
+    /**
+     * Checks if the maze looks open enough for a fill to settle in a few sweeps - the walls of a few words spread evenly over the maze
+     * are counted, so the check costs the same on a maze of any size. The corridors of a winding maze take about half of its cells
+     * as walls, so a maze with at most a quarter of its sampled cells as walls is taken as open.
+     *
+     * @param maze  The maze object.
+     *
+     * @return boolean.
+     */
+    public static boolean isOpenMaze(Maze maze) {
+        WallGrid walls = maze.getWalls();
+        int fullWordCount = maze.getCellCount() >>> WORD_INDEX_SHIFT;
+
+        if (fullWordCount == 0) {
+            return true;
+        }
+
+        int sampledWords = Math.min(fullWordCount, SAMPLED_WORDS);
+        long wallCount = 0;
+        for (int i = 0; i < sampledWords; ++i) {
+            wallCount += Long.bitCount(walls.getWord((int) ((long) i * fullWordCount / sampledWords)));
+        }
+        return wallCount * OPEN_MAZE_WALL_RATIO <= (long) sampledWords * Long.SIZE;
+    }
+
+
+    /**
+     * Fills the cells reachable from the given source cell, until the target cell is filled or no cell is left to fill.
+     *
+     * @param sourceIndex  The index of the source cell.
+     * @param targetIndex  The index of the target cell, or Maze.NO_CELL to fill every reachable cell.
+     *
+     * @return boolean - true if the fill is decided: the target cell was filled or no cell is left to fill. False if the fill gave up.
+     */
+    public boolean fillFrom(int sourceIndex, int targetIndex) {
+        Arrays.fill(filledWords, 0);
+        Arrays.fill(isRowPending, false);
+
+        if ((clearWords[sourceIndex >>> WORD_INDEX_SHIFT] & (1L << sourceIndex)) == 0) {
+            return true;
+        }
+
+        int sourceRow = sourceIndex / width;
+        filledWords[sourceIndex >>> WORD_INDEX_SHIFT] |= 1L << sourceIndex;
+        firstPendingRow = height;
+        lastPendingRow = -1;
+        markPending(Math.max(0, sourceRow - 1));
+        markPending(sourceRow);
+        markPending(Math.min(height - 1, sourceRow + 1));
+
+        long rowBudget = (long) MAX_MAZE_PASSES * height;
+        boolean isDownward = true;
+
+        while (firstPendingRow <= lastPendingRow) {
+            int firstRow = firstPendingRow;
+            int lastRow = lastPendingRow;
+            firstPendingRow = height;
+            lastPendingRow = -1;
+
+            if (isDownward) {
+                for (int row = firstRow; row <= lastRow; ++row) {
+                    if (isRowPending[row]) {
+
+                        if (--rowBudget < 0) {
+                            return false;
+                        }
+                        if (spreadRow(row) && isTargetFilled(targetIndex)) {
+                            return true;
+                        }
+                        lastRow = Math.max(lastRow, lastPendingRow);
+                    }
+                }
+            } else {
+                for (int row = lastRow; row >= firstRow; --row) {
+                    if (isRowPending[row]) {
+
+                        if (--rowBudget < 0) {
+                            return false;
+                        }
+                        if (spreadRow(row) && isTargetFilled(targetIndex)) {
+                            return true;
+                        }
+                        firstRow = Math.min(firstRow, firstPendingRow);
+                    }
+                }
+            }
+            isDownward = !isDownward;
+        }
+        return true;
+    }
+
+
+    /**
+     * Checks if the given cell was filled by the last fill.
+     *
+     * @param index  The cell index.
+     *
+     * @return boolean.
+     */
+    public boolean isFilled(int index) {
+        return (filledWords[index >>> WORD_INDEX_SHIFT] & (1L << index)) != 0;
+    }
+
+
+    private WordFloodFill(Maze maze) {
+        this.width = maze.getMazeWidth();
+        this.height = maze.getMazeHeight();
+
+        WallGrid walls = maze.getWalls();
+        this.clearWords = new long[walls.getWordCount()];
+        for (int wordIndex = 0; wordIndex < clearWords.length; ++wordIndex) {
+            clearWords[wordIndex] = ~walls.getWord(wordIndex);
+        }
+
+        int cellCount = maze.getCellCount();
+        if ((cellCount & 63) != 0) {
+            clearWords[clearWords.length - 1] &= (1L << cellCount) - 1;
+        }
+
+        this.filledWords = new long[clearWords.length];
+        this.rowWords = new long[(width >>> WORD_INDEX_SHIFT) + 2];
+        this.isRowPending = new boolean[height];
+    }
+
+
+    /**
+     * Fills the given pending row, making its neighboring rows pending if any of its cells was newly filled.
+     *
+     * @param row  The row.
+     *
+     * @return boolean - true if any cell of the row was newly filled.
+     */
+    private boolean spreadRow(int row) {
+        isRowPending[row] = false;
+
+        if (!fillRow(row)) {
+            return false;
+        }
+
+        if (row > 0) {
+            markPending(row - 1);
+        }
+        if (row < height - 1) {
+            markPending(row + 1);
+        }
+        return true;
+    }
+
+
+    private boolean isTargetFilled(int targetIndex) {
+        return targetIndex != Maze.NO_CELL && isFilled(targetIndex);
+    }
+
+
+    /**
+     * Marks the given row to be filled again in the next sweep, or later in the current one.
+     */
+    private void markPending(int row) {
+        isRowPending[row] = true;
+        firstPendingRow = Math.min(firstPendingRow, row);
+        lastPendingRow = Math.max(lastPendingRow, row);
+    }
+
+
+    /**
+     * Seeds the given row from the filled cells of the rows above and below, and spreads the seeds along the clear runs of the row.
+     *
+     * @param row  The row.
+     *
+     * @return boolean - true if any cell of the row was newly filled.
+     */
+    private boolean fillRow(int row) {
+        long rowStart = (long) row * width;
+        long rowEnd = rowStart + width;
+        int firstWord = (int) (rowStart >>> WORD_INDEX_SHIFT);
+        int lastWord = (int) ((rowEnd - 1) >>> WORD_INDEX_SHIFT);
+        int wordCount = lastWord - firstWord + 1;
+
+        for (int i = 0; i < wordCount; ++i) {
+            int wordIndex = firstWord + i;
+            long wordStart = (long) wordIndex << WORD_INDEX_SHIFT;
+            long seeds = filledWords[wordIndex] | getBits(filledWords, wordStart - width) | getBits(filledWords, wordStart + width);
+            rowWords[i] = seeds & clearWords[wordIndex] & getRowMask(wordStart, rowStart, rowEnd);
+        }
+
+        boolean isCarried = false;
+        for (int i = 0; i < wordCount; ++i) {
+            long clearRun = clearWords[firstWord + i] & getRowMask((long) (firstWord + i) << WORD_INDEX_SHIFT, rowStart, rowEnd);
+            long filled = rowWords[i] | (isCarried ? clearRun & 1L : 0);
+            rowWords[i] = fillEast(filled, clearRun);
+            isCarried = rowWords[i] < 0;
+        }
+
+        isCarried = false;
+        boolean isChanged = false;
+        for (int i = wordCount - 1; i >= 0; --i) {
+            int wordIndex = firstWord + i;
+            long clearRun = clearWords[wordIndex] & getRowMask((long) wordIndex << WORD_INDEX_SHIFT, rowStart, rowEnd);
+            long filled = fillWest(rowWords[i] | (isCarried ? clearRun & Long.MIN_VALUE : 0), clearRun);
+            isCarried = (filled & 1L) != 0;
+
+            if ((filled & ~filledWords[wordIndex]) != 0) {
+                filledWords[wordIndex] |= filled;
+                isChanged = true;
+            }
+        }
+        return isChanged;
+    }
+
+
+    /**
+     * Returns the bits of the cells of the given row-major range that lie in the word starting at the given cell.
+     */
+    private static long getRowMask(long wordStart, long rowStart, long rowEnd) {
+        long mask = -1L;
+
+        if (rowStart > wordStart) {
+            mask &= -1L << (rowStart - wordStart);
+        }
+        if (rowEnd < wordStart + 64) {
+            mask &= ~(-1L << (rowEnd - wordStart));
+        }
+        return mask;
+    }
+
+
+    /**
+     * Returns the 64 bits starting at the given bit of the given words - the bits outside the words are zero.
+     */
+    private static long getBits(long[] words, long bitIndex) {
+        int wordIndex = (int) (bitIndex >> WORD_INDEX_SHIFT);
+        int offset = (int) (bitIndex & 63);
+
+        long low = (wordIndex >= 0 && wordIndex < words.length) ? words[wordIndex] : 0;
+        if (offset == 0) {
+            return low;
+        }
+
+        long high = (wordIndex + 1 >= 0 && wordIndex + 1 < words.length) ? words[wordIndex + 1] : 0;
+        return (low >>> offset) | (high << (64 - offset));
+    }
+
+
+    /**
+     * Spreads the filled bits to the higher bits along the runs of clear bits, doubling the reach with every step.
+     */
+    private static long fillEast(long filled, long clear) {
+        filled |= clear & (filled << 1);
+        clear &= clear << 1;
+        filled |= clear & (filled << 2);
+        clear &= clear << 2;
+        filled |= clear & (filled << 4);
+        clear &= clear << 4;
+        filled |= clear & (filled << 8);
+        clear &= clear << 8;
+        filled |= clear & (filled << 16);
+        clear &= clear << 16;
+        return filled | (clear & (filled << 32));
+    }
+
+
+    /**
+     * Spreads the filled bits to the lower bits along the runs of clear bits, doubling the reach with every step.
+     */
+    private static long fillWest(long filled, long clear) {
+        filled |= clear & (filled >>> 1);
+        clear &= clear >>> 1;
+        filled |= clear & (filled >>> 2);
+        clear &= clear >>> 2;
+        filled |= clear & (filled >>> 4);
+        clear &= clear >>> 4;
+        filled |= clear & (filled >>> 8);
+        clear &= clear >>> 8;
+        filled |= clear & (filled >>> 16);
+        clear &= clear >>> 16;
+        return filled | (clear & (filled >>> 32));
+    }
+}
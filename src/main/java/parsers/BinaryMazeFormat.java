@@ -0,0 +1,162 @@
+package parsers;
+
+import domain.Maze;
+import domain.MappedWallGrid;
+import domain.WallGrid;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Reads and writes the binary maze format (.mzb) - a fixed little-endian header followed by the wall bits, one bit per cell.
+ *
+ * Header (40 bytes):
+ *   magic "MZB\0", version, width, height, start x, start y, exit x, exit y (4 byte ints), CRC32 of the wall bits (8 bytes).
+ * Wall bits:
+ *   the rows packed back to back in 64 bit little-endian words, bit i of the stream being the cell with row-major index i,
+ *   so the mapped file is used as the maze grid as it is.
+ */
+public final class BinaryMazeFormat {
+
+    public static final String FILE_EXTENSION = ".mzb";
+
+    private static final int MAGIC = 0x00425A4D;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 40;
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    private BinaryMazeFormat() {
+        //private constructor to prevent instantiation
+    }
+
+
+    /**
+     * Checks if the given file has the binary maze file extension.
+     *
+     * @param mazeFile  The path of the maze file.
+     *
+     * @return boolean.
+     */
+    public static boolean isBinaryMazeFile(Path mazeFile) {
+        return mazeFile != null && mazeFile.getFileName().toString().endsWith(FILE_EXTENSION);
+    }
+
+
+    /**
+     * Maps the given binary maze file and returns a maze reading its walls from the mapped file, after checking the header and the checksum.
+     *
+     * @param mazeFile  The path of the binary maze file.
+     *
+     * @return Maze.
+     *
+     * @throws IOException if the file is not a valid binary maze file.
+     */
+    public static Maze parseMaze(Path mazeFile) throws IOException {
+        if (mazeFile == null) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(mazeFile, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Not a binary maze file: " + mazeFile);
+            }
+
+            MappedByteBuffer mappedFile = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mappedFile.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (mappedFile.getInt(0) != MAGIC || mappedFile.getInt(4) != VERSION) {
+                throw new IOException("Not a binary maze file of version " + VERSION + ": " + mazeFile);
+            }
+
+            int width = mappedFile.getInt(8);
+            int height = mappedFile.getInt(12);
+            int wordCount = Maze.getWallWordCount(width, height);
+
+            if (width < 0 || height < 0 || channel.size() != HEADER_SIZE + (long) wordCount * Long.BYTES) {
+                throw new IOException("The size of the binary maze file does not match its header: " + mazeFile);
+            }
+
+            mappedFile.position(HEADER_SIZE);
+            ByteBuffer wallBytes = mappedFile.slice().order(ByteOrder.LITTLE_ENDIAN);
+
+            CRC32 checksum = new CRC32();
+            checksum.update(wallBytes.duplicate());
+            if (checksum.getValue() != mappedFile.getLong(32)) {
+                throw new IOException("The checksum of the binary maze file does not match: " + mazeFile);
+            }
+
+            int startIndex = mappedFile.getInt(20) * width + mappedFile.getInt(16);
+            int exitIndex = mappedFile.getInt(28) * width + mappedFile.getInt(24);
+            return Maze.initMaze(width, height, new MappedWallGrid(wallBytes.asLongBuffer()), startIndex, exitIndex);
+        }
+    }
+
+
+    /**
+     * Writes the given maze to a binary maze file.
+     *
+     * @param maze      The maze object.
+     * @param mazeFile  The path of the binary maze file.
+     *
+     * @throws IOException if the maze has weighted cells, which the format does not store.
+     */
+    public static void writeMaze(Maze maze, Path mazeFile) throws IOException {
+        if (maze == null || mazeFile == null) {
+            return;
+        }
+
+        if (maze.hasCellCosts()) {
+            throw new IOException("The binary maze format does not store the cell costs of a weighted maze: " + mazeFile);
+        }
+
+        try (FileChannel channel = FileChannel.open(mazeFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            WallGrid walls = maze.getWalls();
+            ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            CRC32 checksum = new CRC32();
+
+            channel.position(HEADER_SIZE);
+            for (int wordIndex = 0; wordIndex < walls.getWordCount(); ++wordIndex) {
+
+                if (!buffer.hasRemaining()) {
+                    writeWallBytes(channel, buffer, checksum);
+                }
+                buffer.putLong(walls.getWord(wordIndex));
+            }
+            writeWallBytes(channel, buffer, checksum);
+
+            buffer.clear();
+            buffer.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(maze.getMazeWidth())
+                    .putInt(maze.getMazeHeight())
+                    .putInt(maze.getCoordY(maze.getStartIndex()))
+                    .putInt(maze.getCoordX(maze.getStartIndex()))
+                    .putInt(maze.getCoordY(maze.getExitIndex()))
+                    .putInt(maze.getCoordX(maze.getExitIndex()))
+                    .putLong(checksum.getValue());
+            buffer.flip();
+
+            channel.position(0);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+
+    private static void writeWallBytes(FileChannel channel, ByteBuffer buffer, CRC32 checksum) throws IOException {
+        buffer.flip();
+        checksum.update(buffer.duplicate());
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,179 @@
+package parsers;
+
+import domain.DistanceField;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Reads and writes the distance field format (.mzd) - a fixed little-endian header followed by the distances and the directions of the cells.
+ *
+ * Header (32 bytes):
+ *   magic "MZD\0", version, width, height, source x, source y (4 byte ints), CRC32 of the distances and directions (8 bytes).
+ * Field:
+ *   the distance of every cell in row-major order as 4 byte ints (-1 for the cells not connected to the source), then the direction
+ *   of the first step towards the source of every cell as single bytes (0 north, 1 south, 2 east, 3 west, -1 for none).
+ */
+public final class DistanceFieldFormat {
+
+    public static final String FILE_EXTENSION = ".mzd";
+
+    private static final int MAGIC = 0x00445A4D;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private DistanceFieldFormat() {
+        //private constructor to prevent instantiation
+    }
+
+
+    /**
+     * Reads the given distance field file, after checking the header and the checksum.
+     *
+     * @param fieldFile  The path of the distance field file.
+     *
+     * @return DistanceField.
+     *
+     * @throws IOException if the file is not a valid distance field file.
+     */
+    public static DistanceField readField(Path fieldFile) throws IOException {
+        if (fieldFile == null) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(fieldFile, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, header);
+
+            if (header.position() < HEADER_SIZE || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Not a distance field file of version " + VERSION + ": " + fieldFile);
+            }
+
+            int width = header.getInt(8);
+            int height = header.getInt(12);
+            long cellCount = (long) width * height;
+
+            if (width < 0 || height < 0 || cellCount > Integer.MAX_VALUE || channel.size() != HEADER_SIZE + cellCount * (Integer.BYTES + 1)) {
+                throw new IOException("The size of the distance field file does not match its header: " + fieldFile);
+            }
+
+            int[] distances = new int[(int) cellCount];
+            byte[] directions = new byte[(int) cellCount];
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            CRC32 checksum = new CRC32();
+            buffer.flip();
+
+            for (int cell = 0; cell < distances.length; ++cell) {
+                if (buffer.remaining() < Integer.BYTES) {
+                    fillBuffer(channel, buffer, checksum);
+                }
+                distances[cell] = buffer.getInt();
+            }
+            for (int cell = 0; cell < directions.length; ++cell) {
+                if (!buffer.hasRemaining()) {
+                    fillBuffer(channel, buffer, checksum);
+                }
+                directions[cell] = buffer.get();
+            }
+
+            if (checksum.getValue() != header.getLong(24)) {
+                throw new IOException("The checksum of the distance field file does not match: " + fieldFile);
+            }
+
+            int sourceIndex = header.getInt(20) * width + header.getInt(16);
+            return DistanceField.initField(width, height, sourceIndex, distances, directions);
+        }
+    }
+
+
+    /**
+     * Writes the given distance field to a distance field file.
+     *
+     * @param field      The distance field.
+     * @param fieldFile  The path of the distance field file.
+     *
+     * @throws IOException
+     */
+    public static void writeField(DistanceField field, Path fieldFile) throws IOException {
+        if (field == null || fieldFile == null) {
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(fieldFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            CRC32 checksum = new CRC32();
+
+            channel.position(HEADER_SIZE);
+            for (int cell = 0; cell < field.getCellCount(); ++cell) {
+                if (buffer.remaining() < Integer.BYTES) {
+                    writeBuffer(channel, buffer, checksum);
+                }
+                buffer.putInt(field.getDistance(cell));
+            }
+            for (int cell = 0; cell < field.getCellCount(); ++cell) {
+                if (!buffer.hasRemaining()) {
+                    writeBuffer(channel, buffer, checksum);
+                }
+                buffer.put((byte) field.getDirection(cell));
+            }
+            writeBuffer(channel, buffer, checksum);
+
+            int width = field.getMazeWidth();
+            buffer.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(width)
+                    .putInt(field.getMazeHeight())
+                    .putInt(field.getSourceIndex() % width)
+                    .putInt(field.getSourceIndex() / width)
+                    .putLong(checksum.getValue());
+            buffer.flip();
+
+            channel.position(0);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+
+    private static void writeBuffer(FileChannel channel, ByteBuffer buffer, CRC32 checksum) throws IOException {
+        buffer.flip();
+        checksum.update(buffer.duplicate());
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+
+    /**
+     * Moves the unread bytes of the buffer to its start and reads the next bytes of the file after them, adding the bytes read to the checksum.
+     */
+    private static void fillBuffer(FileChannel channel, ByteBuffer buffer, CRC32 checksum) throws IOException {
+        buffer.compact();
+        int readStart = buffer.position();
+        readFully(channel, buffer);
+
+        ByteBuffer readBytes = buffer.duplicate();
+        readBytes.flip();
+        readBytes.position(readStart);
+        checksum.update(readBytes);
+        buffer.flip();
+    }
+
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                break;
+            }
+        }
+    }
+}
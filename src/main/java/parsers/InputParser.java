@@ -1,36 +1,523 @@
 package parsers;
 
-import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import constants.MazeConstants;
+import domain.LongArrayWallGrid;
+import domain.Maze;
+import domain.SharedPools;
 
-import static java.util.stream.Collectors.joining;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
+/**
+ * Loads a maze file in a single pass over the memory-mapped file, decoding the cells straight into the maze wall bits.
+ * A cell may also be a cost digit from 2 to 9 - a clear path that costs that many steps to enter. The cell costs are only kept
+ * once the first weighted cell is read.
+ *
+ * Large files can also be loaded on several threads: the maze rows are split into chunks of whole rows, and the chunks are decoded
+ * in parallel, each one into its own rows of the wall bits, on the SharedPools pool with that number of threads.
+ */
 public final class InputParser {
 
-    private static final String SEPARATOR = " ";
+    private static final long MAPPED_REGION_SIZE = 1L << 30;
+    private static final long PARALLEL_FILE_SIZE = 1L << 24;
+    private static final long MIN_CHUNK_SIZE = 1L << 20;
+    private static final int CHUNKS_PER_THREAD = 4;
 
     private InputParser() {
         //private constructor to prevent instantiation
     }
 
-    public static String[] getLine(Stream<String> stream, int line) {
-        if (stream == null) {
+
+    /**
+     * Reads the maze dimensions, the start and exit positions and the maze rows from the given file.
+     *
+     * @param mazeFile  The path of the maze file.
+     *
+     * @return Maze, or null if the file does not contain a complete header.
+     *
+     * @throws IOException
+     */
+    public static Maze parseMaze(Path mazeFile) throws IOException {
+        if (mazeFile == null) {
             return null;
         }
 
-        Optional<String> firstLine = stream.skip(line).findFirst();
-        String stringLine = firstLine.orElse(SEPARATOR);
-        return stringLine.trim().split(SEPARATOR);
+        try (FileChannel channel = FileChannel.open(mazeFile, StandardOpenOption.READ)) {
+            return decodeFile(channel);
+        }
     }
 
-    public static List<String> getMazeLines(Stream<String> stream, int line) {
-        if (stream == null) {
+
+    /**
+     * Reads the maze from the given file like parseMaze, decoding the maze rows of a large file in parallel on the given number of threads.
+     * Small files, and files whose rows cannot be split into chunks of a mappable size, are read on the calling thread.
+     *
+     * @param mazeFile  The path of the maze file.
+     * @param threads   The number of threads to decode the rows on.
+     *
+     * @return Maze, or null if the file does not contain a complete header.
+     *
+     * @throws IOException
+     */
+    public static Maze parseMaze(Path mazeFile, int threads) throws IOException {
+        if (mazeFile == null) {
             return null;
         }
 
-        Stream<String> maze = stream.skip(line);
-        return maze.collect(Collectors.toList());
+        try (FileChannel channel = FileChannel.open(mazeFile, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+
+            if (threads > 1 && fileSize >= PARALLEL_FILE_SIZE) {
+                MazeDecoder decoder = new MazeDecoder();
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(MAPPED_REGION_SIZE, fileSize));
+                int gridStart = decoder.decodeHeader(region, 0, region.limit());
+
+                if (decoder.isInGrid && new ParallelGridDecoder(channel, decoder, gridStart).decode(threads)) {
+                    return decoder.toMaze();
+                }
+            }
+            return decodeFile(channel);
+        }
+    }
+
+
+    private static Maze decodeFile(FileChannel channel) throws IOException {
+        MazeDecoder decoder = new MazeDecoder();
+        long fileSize = channel.size();
+
+        for (long regionStart = 0; regionStart < fileSize && !decoder.isComplete(); regionStart += MAPPED_REGION_SIZE) {
+            MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, regionStart, Math.min(MAPPED_REGION_SIZE, fileSize - regionStart));
+            decoder.decode(region);
+        }
+        return decoder.toMaze();
+    }
+
+
+    /**
+     * Incremental decoder for the maze file format - keeps its state between the mapped regions of the file,
+     * so a header value or a maze row may span two regions.
+     */
+    private static final class MazeDecoder {
+
+        private static final int HEADER_VALUES = 6;
+        private static final byte WALL = (byte) MazeConstants.MAZE_WALL.charAt(0);
+        private static final byte MIN_COST = (byte) ('0' + MazeConstants.MAZE_MIN_CELL_COST);
+        private static final byte MAX_COST = (byte) ('0' + MazeConstants.MAZE_MAX_CELL_COST);
+
+        private final int[] header = new int[HEADER_VALUES];
+        private int headerValuesRead;
+        private int headerValue;
+        private boolean isInHeaderValue;
+        private boolean isInGrid;
+
+        private long[] walls;
+        private byte[] cellCosts;
+        private int width;
+        private int height;
+        private int row;
+        private int column;
+
+
+        private boolean isComplete() {
+            return isInGrid && row >= height;
+        }
+
+
+        private void decode(MappedByteBuffer region) {
+            int position = 0;
+            int limit = region.limit();
+
+            if (!isInGrid) {
+                position = decodeHeader(region, position, limit);
+            }
+
+            if (isInGrid) {
+                decodeGrid(region, position, limit);
+            }
+        }
+
+
+        /**
+         * Reads the six header values and skips the rest of the third line.
+         *
+         * @return int - the position the maze rows start at, or the region limit if the header continues in the next region.
+         */
+        private int decodeHeader(MappedByteBuffer region, int position, int limit) {
+            while (position < limit) {
+                byte element = region.get(position++);
+
+                if (headerValuesRead == HEADER_VALUES) {
+                    if (element == '\n') {
+                        startGrid();
+                        return position;
+                    }
+
+                } else if (element >= '0' && element <= '9') {
+                    headerValue = headerValue * 10 + (element - '0');
+                    isInHeaderValue = true;
+
+                } else if (isInHeaderValue) {
+                    finishHeaderValue();
+
+                    if (headerValuesRead == HEADER_VALUES && element == '\n') {
+                        startGrid();
+                        return position;
+                    }
+                }
+            }
+            return limit;
+        }
+
+
+        /**
+         * Sets the wall bits for the maze rows - whitespace is skipped, cells past the width of a row are ignored and
+         * cells missing from a short row are left as clear paths.
+         */
+        private void decodeGrid(MappedByteBuffer region, int position, int limit) {
+            long[] walls = this.walls;
+            int width = this.width;
+            int height = this.height;
+            int row = this.row;
+            int column = this.column;
+            int rowStart = row * width;
+
+            while (position < limit && row < height) {
+                byte element = region.get(position++);
+
+                if (element == '\n') {
+                    ++row;
+                    rowStart += width;
+                    column = 0;
+
+                } else if (element > ' ' && column < width) {
+                    if (element == WALL) {
+                        Maze.setWallBit(walls, rowStart + column);
+                    } else if (element >= MIN_COST && element <= MAX_COST) {
+                        setCellCost(rowStart + column, element - '0');
+                    }
+                    ++column;
+                }
+            }
+            this.row = row;
+            this.column = column;
+        }
+
+
+        private void setCellCost(int index, int cost) {
+            if (cellCosts == null) {
+                cellCosts = new byte[width * height];
+                Arrays.fill(cellCosts, (byte) 1);
+            }
+            cellCosts[index] = (byte) cost;
+        }
+
+
+        private void finishHeaderValue() {
+            header[headerValuesRead++] = headerValue;
+            headerValue = 0;
+            isInHeaderValue = false;
+        }
+
+
+        private void startGrid() {
+            width = header[0];
+            height = header[1];
+            walls = Maze.createWallBits(width, height);
+            isInGrid = true;
+        }
+
+
+        private Maze toMaze() {
+            if (isInHeaderValue && headerValuesRead < HEADER_VALUES) {
+                finishHeaderValue();
+            }
+
+            if (headerValuesRead < HEADER_VALUES) {
+                return null;
+            }
+
+            if (!isInGrid) {
+                startGrid();
+            }
+            return Maze.initMaze(width, height, new LongArrayWallGrid(walls), cellCosts, header[3] * width + header[2], header[5] * width + header[4]);
+        }
+    }
+
+
+    /**
+     * Decodes the maze rows of a file on several threads in two passes over fixed size chunks of the file. The first pass counts
+     * the line ends of every chunk, which gives the row each line starts on, and the chunks are then moved to start after their
+     * first line end, so each one holds whole rows. The second pass decodes the rows of every chunk into the wall bits - the rows
+     * of a chunk only share their first and last wall words with the neighboring chunks, so those two words are set aside and
+     * merged once all the chunks are decoded.
+     */
+    private static final class ParallelGridDecoder {
+
+        private final FileChannel channel;
+        private final MazeDecoder decoder;
+        private final long gridStart;
+        private final long fileSize;
+
+        private long chunkSize;
+        private int[] lineEndCounts;
+        private long[] firstLineEnds;
+        private boolean[] hasCellCosts;
+
+        private int rowChunkCount;
+        private long[] rowChunkStarts;
+        private int[] rowChunkFirstRows;
+        private long[] headWords;
+        private long[] tailWords;
+
+
+        private ParallelGridDecoder(FileChannel channel, MazeDecoder decoder, long gridStart) throws IOException {
+            this.channel = channel;
+            this.decoder = decoder;
+            this.gridStart = gridStart;
+            this.fileSize = channel.size();
+        }
+
+
+        /**
+         * Decodes the maze rows into the wall bits and cell costs of the decoder.
+         *
+         * @param threads  The number of threads.
+         *
+         * @return boolean - false if a chunk of whole rows is too large to be mapped, in which case nothing is decoded.
+         *
+         * @throws IOException
+         */
+        private boolean decode(int threads) throws IOException {
+            long gridSize = fileSize - gridStart;
+            if (gridSize <= 0) {
+                return false;
+            }
+
+            int chunkCount = threads * CHUNKS_PER_THREAD;
+            chunkSize = Math.min(MAPPED_REGION_SIZE, Math.max(MIN_CHUNK_SIZE, (gridSize + chunkCount - 1) / chunkCount));
+            chunkCount = (int) ((gridSize + chunkSize - 1) / chunkSize);
+
+            lineEndCounts = new int[chunkCount];
+            firstLineEnds = new long[chunkCount];
+            hasCellCosts = new boolean[chunkCount];
+
+            ForkJoinPool pool = SharedPools.getPool(threads);
+            try {
+                pool.invoke(new ChunksTask(0, chunkCount, false));
+
+                if (!findRowChunks()) {
+                    return false;
+                }
+
+                for (boolean hasCellCost : hasCellCosts) {
+                    if (hasCellCost) {
+                        decoder.cellCosts = new byte[decoder.width * decoder.height];
+                        Arrays.fill(decoder.cellCosts, (byte) 1);
+                        break;
+                    }
+                }
+
+                headWords = new long[rowChunkCount];
+                tailWords = new long[rowChunkCount];
+                pool.invoke(new ChunksTask(0, rowChunkCount, true));
+
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+
+            for (int i = 0; i < rowChunkCount; ++i) {
+                decoder.walls[getHeadWordIndex(i)] |= headWords[i];
+                decoder.walls[getTailWordIndex(i)] |= tailWords[i];
+            }
+            decoder.row = decoder.height;
+            return true;
+        }
+
+
+        /**
+         * Counts the line ends of the given chunk, and finds its first line end and whether it holds a cost digit.
+         *
+         * @param chunk  The chunk index.
+         *
+         * @throws IOException
+         */
+        private void scanChunk(int chunk) throws IOException {
+            long chunkStart = gridStart + chunk * chunkSize;
+            MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, chunkStart, Math.min(chunkSize, fileSize - chunkStart));
+            int limit = region.limit();
+            int lineEndCount = 0;
+            int firstLineEnd = -1;
+            boolean hasCellCost = false;
+
+            for (int position = 0; position < limit; ++position) {
+                byte element = region.get(position);
+
+                if (element == '\n') {
+                    if (lineEndCount++ == 0) {
+                        firstLineEnd = position;
+                    }
+                } else if (element >= MazeDecoder.MIN_COST && element <= MazeDecoder.MAX_COST) {
+                    hasCellCost = true;
+                }
+            }
+
+            lineEndCounts[chunk] = lineEndCount;
+            firstLineEnds[chunk] = (firstLineEnd >= 0) ? chunkStart + firstLineEnd : -1;
+            hasCellCosts[chunk] = hasCellCost;
+        }
+
+
+        /**
+         * Moves the start of every chunk after its first line end - a chunk without a line end joins the chunk before it - and
+         * finds the row each chunk starts on. The chunks starting past the last maze row are dropped.
+         *
+         * @return boolean - false if a chunk of whole rows is too large to be mapped.
+         */
+        private boolean findRowChunks() {
+            rowChunkStarts = new long[lineEndCounts.length + 1];
+            rowChunkFirstRows = new int[lineEndCounts.length];
+            rowChunkStarts[0] = gridStart;
+            rowChunkCount = 1;
+            long rowsBefore = 0;
+
+            for (int chunk = 1; chunk < lineEndCounts.length; ++chunk) {
+                rowsBefore += lineEndCounts[chunk - 1];
+
+                if (firstLineEnds[chunk] >= 0 && rowsBefore + 1 < decoder.height) {
+                    rowChunkStarts[rowChunkCount] = firstLineEnds[chunk] + 1;
+                    rowChunkFirstRows[rowChunkCount] = (int) (rowsBefore + 1);
+                    ++rowChunkCount;
+                }
+            }
+            rowChunkStarts[rowChunkCount] = fileSize;
+
+            for (int i = 0; i < rowChunkCount; ++i) {
+                if (rowChunkStarts[i + 1] - rowChunkStarts[i] > Integer.MAX_VALUE) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+
+        /**
+         * Sets the wall bits and cell costs for the rows of the given chunk of whole rows, with the same rules as MazeDecoder.decodeGrid.
+         *
+         * @param rowChunk  The index of the chunk of whole rows.
+         *
+         * @throws IOException
+         */
+        private void decodeRowChunk(int rowChunk) throws IOException {
+            long chunkStart = rowChunkStarts[rowChunk];
+            MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, chunkStart, rowChunkStarts[rowChunk + 1] - chunkStart);
+            long[] walls = decoder.walls;
+            byte[] cellCosts = decoder.cellCosts;
+            int width = decoder.width;
+            int height = decoder.height;
+            int headWordIndex = getHeadWordIndex(rowChunk);
+            int tailWordIndex = getTailWordIndex(rowChunk);
+            long headWord = 0;
+            long tailWord = 0;
+
+            int row = rowChunkFirstRows[rowChunk];
+            int column = 0;
+            int rowStart = row * width;
+            int position = 0;
+            int limit = region.limit();
+
+            while (position < limit && row < height) {
+                byte element = region.get(position++);
+
+                if (element == '\n') {
+                    ++row;
+                    rowStart += width;
+                    column = 0;
+
+                } else if (element > ' ' && column < width) {
+                    int index = rowStart + column;
+
+                    if (element == MazeDecoder.WALL) {
+                        int wordIndex = index >>> 6;
+
+                        if (wordIndex == headWordIndex) {
+                            headWord |= 1L << index;
+                        } else if (wordIndex == tailWordIndex) {
+                            tailWord |= 1L << index;
+                        } else {
+                            Maze.setWallBit(walls, index);
+                        }
+                    } else if (element >= MazeDecoder.MIN_COST && element <= MazeDecoder.MAX_COST) {
+                        cellCosts[index] = (byte) (element - '0');
+                    }
+                    ++column;
+                }
+            }
+            headWords[rowChunk] = headWord;
+            tailWords[rowChunk] = tailWord;
+        }
+
+
+        /**
+         * Returns the index of the wall word holding the first cell of the given chunk of whole rows.
+         */
+        private int getHeadWordIndex(int rowChunk) {
+            return (int) (((long) rowChunkFirstRows[rowChunk] * decoder.width) >>> 6);
+        }
+
+
+        /**
+         * Returns the index of the wall word holding the last cell of the row the next chunk starts on - the rows of the chunk end before it.
+         */
+        private int getTailWordIndex(int rowChunk) {
+            long endRow = (rowChunk + 1 < rowChunkCount) ? rowChunkFirstRows[rowChunk + 1] : decoder.height;
+            return (int) (Math.max(0, endRow * decoder.width - 1) >>> 6);
+        }
+
+
+        /**
+         * Scans or decodes a range of chunks, splitting the range in halves until a single chunk is left.
+         */
+        private final class ChunksTask extends RecursiveAction {
+
+            private static final long serialVersionUID = 1L;
+
+            private final int fromChunk;
+            private final int toChunk;
+            private final boolean isDecoding;
+
+
+            private ChunksTask(int fromChunk, int toChunk, boolean isDecoding) {
+                this.fromChunk = fromChunk;
+                this.toChunk = toChunk;
+                this.isDecoding = isDecoding;
+            }
+
+
+            @Override
+            protected void compute() {
+                if (toChunk - fromChunk > 1) {
+                    int middleChunk = (fromChunk + toChunk) >>> 1;
+                    invokeAll(new ChunksTask(fromChunk, middleChunk, isDecoding), new ChunksTask(middleChunk, toChunk, isDecoding));
+                    return;
+                }
+
+                try {
+                    if (isDecoding) {
+                        decodeRowChunk(fromChunk);
+                    } else {
+                        scanChunk(fromChunk);
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+        }
     }
 }
@@ -0,0 +1,147 @@
+package parsers;
+
+import domain.Maze;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes a path as the sequence of its moves on a single line - one letter per move (N, S, E or W), or one run of moves in the same
+ * direction per letter and count (E12 S3 W7) when run-length encoded. The moves are buffered, so a path of any length is written
+ * as it is walked, without holding its cells.
+ */
+public final class MoveWriter {
+
+    private static final byte[] MOVE_REPRESENTATIONS = {'N', 'S', 'E', 'W'};
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    private static final byte RUN_SEPARATOR = ' ';
+    private static final int NO_RUN = -1;
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
+    private final OutputStream output;
+    private final boolean isRunLength;
+    private final byte[] runDigits = new byte[20];
+    private int runDirection = NO_RUN;
+    private long runLength;
+    private boolean isFirstRun = true;
+
+
+    /**
+     * Constructor - one letter is written per move.
+     *
+     * @param output  The output stream - it is flushed but not closed.
+     */
+    public MoveWriter(OutputStream output) {
+        this(output, false);
+    }
+
+
+    /**
+     * Constructor.
+     *
+     * @param output       The output stream - it is flushed but not closed.
+     * @param isRunLength  True to write the runs of moves in the same direction as a letter and a count.
+     */
+    public MoveWriter(OutputStream output, boolean isRunLength) {
+        this.output = new BufferedOutputStream(output, OUTPUT_BUFFER_SIZE);
+        this.isRunLength = isRunLength;
+    }
+
+
+    /**
+     * Writes a move in the given direction - a run-length encoded move is only written once the run ends.
+     *
+     * @param direction  One of Maze.NORTH, SOUTH, EAST or WEST.
+     *
+     * @throws IOException
+     */
+    public void writeMove(int direction) throws IOException {
+        if (!isRunLength) {
+            output.write(MOVE_REPRESENTATIONS[direction]);
+
+        } else if (direction == runDirection) {
+            ++runLength;
+
+        } else {
+            writeRun();
+            runDirection = direction;
+            runLength = 1;
+        }
+    }
+
+
+    /**
+     * Writes the move between the given neighboring cells.
+     *
+     * @param maze       The maze object.
+     * @param fromIndex  The index of the cell the move starts at.
+     * @param toIndex    The index of the neighboring cell the move ends at.
+     *
+     * @throws IOException
+     */
+    public void writeStep(Maze maze, int fromIndex, int toIndex) throws IOException {
+        if (toIndex == fromIndex - maze.getMazeWidth()) {
+            writeMove(Maze.NORTH);
+        } else if (toIndex == fromIndex + maze.getMazeWidth()) {
+            writeMove(Maze.SOUTH);
+        } else if (toIndex == fromIndex + 1) {
+            writeMove(Maze.EAST);
+        } else {
+            writeMove(Maze.WEST);
+        }
+    }
+
+
+    /**
+     * Writes the moves between the cells of the given path.
+     *
+     * @param maze       The maze object.
+     * @param pathCells  The cell indices in order from start to exit.
+     *
+     * @throws IOException
+     */
+    public void writePath(Maze maze, int[] pathCells) throws IOException {
+        for (int i = 1; i < pathCells.length; ++i) {
+            writeStep(maze, pathCells[i - 1], pathCells[i]);
+        }
+    }
+
+
+    /**
+     * Ends the line of moves and flushes the output.
+     *
+     * @throws IOException
+     */
+    public void finish() throws IOException {
+        writeRun();
+        runDirection = NO_RUN;
+        isFirstRun = true;
+
+        output.write(LINE_SEPARATOR);
+        output.flush();
+    }
+
+
+    /**
+     * Writes the pending run as its letter and count, without creating a string for the count.
+     */
+    private void writeRun() throws IOException {
+        if (runDirection == NO_RUN) {
+            return;
+        }
+
+        if (!isFirstRun) {
+            output.write(RUN_SEPARATOR);
+        }
+        isFirstRun = false;
+        output.write(MOVE_REPRESENTATIONS[runDirection]);
+
+        int digitStart = runDigits.length;
+        for (long length = runLength; length > 0; length /= 10) {
+            runDigits[--digitStart] = (byte) ('0' + length % 10);
+        }
+        output.write(runDigits, digitStart, runDigits.length - digitStart);
+    }
+}
@@ -0,0 +1,43 @@
+package parsers;
+
+import java.util.Locale;
+
+/**
+ * The available forms of a solution, selected by name on the command line - the whole maze with the path marked (grid), or only
+ * the path, written straight from the parent chain without visiting the other cells: its moves as N, S, E and W letters (moves),
+ * its moves as runs of a direction and a count such as E12 S3 W7 (rle), or its cell indices as 4 byte little-endian integers
+ * after their count (binary).
+ */
+public enum OutputMode {
+
+    GRID,
+    MOVES,
+    RLE,
+    BINARY;
+
+    /**
+     * Returns the name of this output mode as given on the command line.
+     *
+     * @return String.
+     */
+    public String getOptionName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the output mode with the given name, ignoring case.
+     *
+     * @param name  The output mode name.
+     *
+     * @return OutputMode, or null if there is no output mode with the given name.
+     */
+    public static OutputMode fromName(String name) {
+        for (OutputMode outputMode : values()) {
+
+            if (outputMode.name().equalsIgnoreCase(name)) {
+                return outputMode;
+            }
+        }
+        return null;
+    }
+}
@@ -1,22 +1,25 @@
 package parsers;
 
-import constants.MazeConstants;
 import domain.Maze;
-import domain.MazeTree;
-import domain.Position;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
 
 public final class OutputParser {
 
-    private static final String WALL_REPRESENTATION = "#";
-    private static final String CLEAR_PATH_REPRESENTATION = " ";
-    private static final String START_POSITION_REPRESENTATION = "S";
-    private static final String EXIT_POSITION_REPRESENTATION = "E";
-    private static final String MAZE_PATH_REPRESENTATION = "X";
-    private static final String EMPTY_STRING = "";
+    private static final byte WALL_REPRESENTATION = '#';
+    private static final byte CLEAR_PATH_REPRESENTATION = ' ';
+    private static final byte START_POSITION_REPRESENTATION = 'S';
+    private static final byte EXIT_POSITION_REPRESENTATION = 'E';
+    private static final byte MAZE_PATH_REPRESENTATION = 'X';
+    private static final byte SEPARATOR = ' ';
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
 
 
     private OutputParser() {
@@ -24,133 +27,143 @@ public final class OutputParser {
     }
 
     /**
-     * Returns the output in the desired format by replacing the maze walls, clear paths, start, exit, and chosen path with the appropriate signs.
+     * Writes the output in the desired format by replacing the maze walls, clear paths, start, exit, and chosen path with the appropriate signs -
+     * weighted cells off the path keep their cost digit.
+     * Every row is written from a single reusable line buffer, so the maze itself is left unchanged and nothing is created per cell.
      *
-     * @param maze      The maze object.
-     * @param mazePath  The path from start to exit.
+     * @param maze           The maze object.
+     * @param mazePath       The cells on the path from start to exit.
+     * @param startPosition  The index of the start cell, marked as S.
+     * @param exitPosition   The index of the exit cell, marked as E.
+     * @param output         The output stream - it is flushed but not closed.
      *
-     * @return List.
+     * @throws IOException
      */
-    public static List<String> getOutput(Maze maze, List<Position> mazePath) {
-        if (maze == null || mazePath == null) {
-            return null;
+    public static void writeOutput(Maze maze, BitSet mazePath, int startPosition, int exitPosition, OutputStream output) throws IOException {
+        if (maze == null || mazePath == null || output == null) {
+            return;
         }
 
-        Position startPosition = null;
-        Position exitPosition = null;
+        int width = maze.getMazeWidth();
+        byte[] mazeLine = new byte[Math.max(0, 2 * width - 1) + LINE_SEPARATOR.length];
+        System.arraycopy(LINE_SEPARATOR, 0, mazeLine, mazeLine.length - LINE_SEPARATOR.length, LINE_SEPARATOR.length);
 
-        if (!mazePath.isEmpty()) {
-            exitPosition = mazePath.get(0);
-            startPosition = mazePath.get(mazePath.size() - 1);
+        for (int j = 1; j < width; ++j) {
+            mazeLine[2 * j - 1] = SEPARATOR;
         }
 
-        return parseOutputAsList(maze, mazePath, startPosition, exitPosition);
+        OutputStream bufferedOutput = new BufferedOutputStream(output, OUTPUT_BUFFER_SIZE);
+
+        int position = 0;
+        for (int i = 0; i < maze.getMazeHeight(); ++i) {
+
+            for (int j = 0; j < width; ++j, ++position) {
+                mazeLine[2 * j] = getOutputValue(maze, mazePath, startPosition, exitPosition, position);
+            }
+            bufferedOutput.write(mazeLine);
+        }
+        bufferedOutput.flush();
     }
 
 
     /**
-     * Populates and returns the output as a list of maze lines.
+     * Returns the cells of the path from start to exit, following the parent nodes back from the exit.
      *
-     * @param maze           The maze object.
-     * @param mazePath       The maze path.
-     * @param startPosition  The start position in the maze.
-     * @param exitPosition   The exit position in the maze.
+     * @param parentNodes  The parent index of the cells on the path.
+     * @param exitIndex    The index of the exit cell.
      *
-     * @return List.
+     * @return int[] - the cell indices in order from start to exit.
      */
-    private static List<String> parseOutputAsList(Maze maze, List<Position> mazePath, Position startPosition, Position exitPosition) {
-        List<String> output = new ArrayList<>();
-        String[][] mazeAsArray = maze.getMazeAs2DArray();
-
-        for (int i = 0; i < maze.getMazeWidth(); ++i) {
-            String mazeLine;
+    public static int[] getPathCells(int[] parentNodes, int exitIndex) {
+        int pathLength = 0;
+        for (int node = exitIndex; node != Maze.NO_CELL; node = parentNodes[node]) {
+            ++pathLength;
+        }
 
-            for (int j = 0; j < maze.getMazeHeight(); ++j) {
-                Position position = new Position(i, j, maze);
-                replaceMazeElementsWithOutputValues(mazePath, startPosition, exitPosition, mazeAsArray, position);
-            }
-            mazeLine = getLineAsString(mazeAsArray[i]);
-            output.add(mazeLine);
+        int[] pathCells = new int[pathLength];
+        for (int node = exitIndex; node != Maze.NO_CELL; node = parentNodes[node]) {
+            pathCells[--pathLength] = node;
         }
-        return output;
+        return pathCells;
     }
 
 
     /**
-     * Replaces the original elements with the desired output values.
+     * Writes the given path as its number of cells and then the index of every cell, all as 4 byte little-endian integers.
      *
-     * @param mazePath       The maze path from start to exit.
-     * @param startPosition  The maze starting position to be marked as S.
-     * @param exitPosition   The maze exit position to be marked as E.
-     * @param mazeAsArray    The maze array object.
-     * @param position       The current position.
+     * @param pathCells  The cell indices in order from start to exit.
+     * @param output     The output stream - it is flushed but not closed.
+     *
+     * @throws IOException
      */
-    private static void replaceMazeElementsWithOutputValues(List<Position> mazePath, Position startPosition, Position exitPosition, String[][] mazeAsArray, Position position) {
-        if (position == null) {
+    public static void writePathCells(int[] pathCells, OutputStream output) throws IOException {
+        if (pathCells == null || output == null) {
             return;
         }
 
-        int coordX = position.getPositionX();
-        int coordY = position.getPositionY();
-
-        if (isMazeWall(position)) {
-            mazeAsArray[coordX][coordY] = WALL_REPRESENTATION;
-
-        } else if (position.equals(startPosition)) {
-            mazeAsArray[coordX][coordY] = START_POSITION_REPRESENTATION;
-
-        } else if (position.equals(exitPosition)) {
-            mazeAsArray[coordX][coordY] = EXIT_POSITION_REPRESENTATION;
-
-        } else if (isPartOfTheMazePath(mazePath, startPosition, exitPosition, position)) {
-            mazeAsArray[coordX][coordY] = MAZE_PATH_REPRESENTATION;
+        ByteBuffer buffer = ByteBuffer.allocate(OUTPUT_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(pathCells.length);
 
-        } else {
-            mazeAsArray[coordX][coordY] = CLEAR_PATH_REPRESENTATION;
+        for (int cell : pathCells) {
+            if (!buffer.hasRemaining()) {
+                output.write(buffer.array(), 0, buffer.position());
+                buffer.clear();
+            }
+            buffer.putInt(cell);
         }
+        output.write(buffer.array(), 0, buffer.position());
+        output.flush();
     }
 
 
     /**
-     * Checks if the given position is part of the maze path excluding the start and exit positions - positions in the maze path are marked with X.
+     * Formats the given path as x,y coordinates (column and row, as in the maze file) separated by spaces.
      *
-     * @param mazePath       The maze path.
-     * @param startPosition  The start position.
-     * @param exitPosition   The exit position.
-     * @param position       The position to check.
+     * @param maze       The maze object.
+     * @param pathCells  The cell indices in order from start to exit.
      *
-     * @return boolean.
+     * @return String.
      */
-    private static boolean isPartOfTheMazePath(List<Position> mazePath, Position startPosition, Position exitPosition, Position position) {
-        return MazeTree.isInNodesList(position, mazePath) && (!position.equals(startPosition) || position.equals(exitPosition));
+    public static String getPathCoordinates(Maze maze, int[] pathCells) {
+        StringBuilder coordinates = new StringBuilder(pathCells.length * 8);
+
+        for (int i = 0; i < pathCells.length; ++i) {
+            if (i > 0) {
+                coordinates.append(' ');
+            }
+            coordinates.append(maze.getCoordY(pathCells[i])).append(',').append(maze.getCoordX(pathCells[i]));
+        }
+        return coordinates.toString();
     }
 
 
     /**
-     * Checks if the given position is a maze wall - maze walls are marked with #.
+     * Returns the output value of the given cell.
      *
-     * @param position  The position to check.
+     * @param maze           The maze object.
+     * @param mazePath       The cells on the path from start to exit.
+     * @param startPosition  The index of the start cell.
+     * @param exitPosition   The index of the exit cell.
+     * @param position       The index of the current cell.
      *
-     * @return boolean.
+     * @return byte.
      */
-    private static boolean isMazeWall(Position position) {
-        return position != null && MazeConstants.MAZE_WALL.equals(position.getPositionValue());
-    }
+    private static byte getOutputValue(Maze maze, BitSet mazePath, int startPosition, int exitPosition, int position) {
+        if (maze.isWall(position)) {
+            return WALL_REPRESENTATION;
 
+        } else if (position == startPosition) {
+            return START_POSITION_REPRESENTATION;
 
-    /**
-     * Converts the given maze line array to a String after stripping it from unnecessary characters for the output.
-     *
-     * @param mazeLineArray  The given maze line as array.
-     *
-     * @return String.
-     */
-    private static String getLineAsString(String[] mazeLineArray) {
-        if (mazeLineArray == null) {
-            return EMPTY_STRING;
-        }
+        } else if (position == exitPosition) {
+            return EXIT_POSITION_REPRESENTATION;
+
+        } else if (mazePath.get(position)) {
+            return MAZE_PATH_REPRESENTATION;
 
-        String mazeLine = Arrays.toString(mazeLineArray);
-        return mazeLine.replaceAll("[,\\[\\]]", EMPTY_STRING);
+        } else if (maze.getCellCost(position) > 1) {
+            return (byte) ('0' + maze.getCellCost(position));
+        }
+        return CLEAR_PATH_REPRESENTATION;
     }
 }
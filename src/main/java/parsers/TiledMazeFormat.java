@@ -0,0 +1,207 @@
+package parsers;
+
+import domain.Maze;
+import domain.TiledWallGrid;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads and writes the tiled maze format (.mzt) - a fixed little-endian header followed by the walls split into square tiles,
+ * so a maze larger than the heap is read a tile at a time through a bounded tile cache instead of all at once.
+ *
+ * Header (40 bytes):
+ *   magic "MZT\0", version, width, height, start x, start y, exit x, exit y, tile size, reserved (4 byte ints).
+ * Tiles:
+ *   the tiles in row-major order, each one the bits of its tile size x tile size cells in row-major order, packed in 64 bit
+ *   little-endian words. The tiles on the right and bottom edges are padded with clear cells.
+ */
+public final class TiledMazeFormat {
+
+    public static final String FILE_EXTENSION = ".mzt";
+    public static final int DEFAULT_TILE_SIZE = 256;
+
+    private static final int MAGIC = 0x00545A4D;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 40;
+    private static final int MIN_TILE_SIZE = 8;
+
+    private TiledMazeFormat() {
+        //private constructor to prevent instantiation
+    }
+
+
+    /**
+     * Checks if the given file has the tiled maze file extension.
+     *
+     * @param mazeFile  The path of the maze file.
+     *
+     * @return boolean.
+     */
+    public static boolean isTiledMazeFile(Path mazeFile) {
+        return mazeFile != null && mazeFile.getFileName().toString().endsWith(FILE_EXTENSION);
+    }
+
+
+    /**
+     * Checks if the given tile size can be used - a power of two of at least 8, so every tile is a whole number of 64 bit words.
+     *
+     * @param tileSize  The number of rows and columns of a tile.
+     *
+     * @return boolean.
+     */
+    public static boolean isValidTileSize(int tileSize) {
+        return tileSize >= MIN_TILE_SIZE && tileSize <= (1 << 15) && Integer.bitCount(tileSize) == 1;
+    }
+
+
+    /**
+     * Opens the given tiled maze file and returns a maze reading its walls from the file a tile at a time, after checking the header.
+     * The file stays open while the maze is used.
+     *
+     * @param mazeFile     The path of the tiled maze file.
+     * @param cachedTiles  The maximum number of tiles kept in memory.
+     *
+     * @return Maze.
+     *
+     * @throws IOException if the file is not a valid tiled maze file.
+     */
+    public static Maze parseMaze(Path mazeFile, int cachedTiles) throws IOException {
+        if (mazeFile == null) {
+            return null;
+        }
+
+        FileChannel channel = FileChannel.open(mazeFile, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    break;
+                }
+            }
+
+            if (header.hasRemaining() || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Not a tiled maze file of version " + VERSION + ": " + mazeFile);
+            }
+
+            int width = header.getInt(8);
+            int height = header.getInt(12);
+            int tileSize = header.getInt(32);
+
+            if (width < 0 || height < 0 || (long) width * height > Integer.MAX_VALUE || !isValidTileSize(tileSize)
+                    || channel.size() != HEADER_SIZE + getTileFileSize(width, height, tileSize)) {
+                throw new IOException("The size of the tiled maze file does not match its header: " + mazeFile);
+            }
+
+            int startIndex = header.getInt(20) * width + header.getInt(16);
+            int exitIndex = header.getInt(28) * width + header.getInt(24);
+            TiledWallGrid walls = new TiledWallGrid(channel, HEADER_SIZE, width, height, tileSize, cachedTiles);
+            return Maze.initMaze(width, height, walls, startIndex, exitIndex);
+
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+
+    /**
+     * Writes the given maze to a tiled maze file, a band of tile rows at a time.
+     *
+     * @param maze      The maze object.
+     * @param mazeFile  The path of the tiled maze file.
+     * @param tileSize  The number of rows and columns of a tile - a power of two of at least 8.
+     *
+     * @throws IOException if the maze has weighted cells, which the format does not store.
+     */
+    public static void writeMaze(Maze maze, Path mazeFile, int tileSize) throws IOException {
+        if (maze == null || mazeFile == null) {
+            return;
+        }
+
+        if (maze.hasCellCosts()) {
+            throw new IOException("The tiled maze format does not store the cell costs of a weighted maze: " + mazeFile);
+        }
+
+        if (!isValidTileSize(tileSize)) {
+            throw new IllegalArgumentException("The tile size must be a power of two between 8 and 32768: " + tileSize);
+        }
+
+        try (FileChannel channel = FileChannel.open(mazeFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            int width = maze.getMazeWidth();
+            int height = maze.getMazeHeight();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(width)
+                    .putInt(height)
+                    .putInt(maze.getCoordY(maze.getStartIndex()))
+                    .putInt(maze.getCoordX(maze.getStartIndex()))
+                    .putInt(maze.getCoordY(maze.getExitIndex()))
+                    .putInt(maze.getCoordX(maze.getExitIndex()))
+                    .putInt(tileSize)
+                    .putInt(0);
+            writeBytes(channel, header);
+
+            int tileColumns = TiledWallGrid.getTileCount(width, tileSize);
+            ByteBuffer tileBand = ByteBuffer.allocate(tileColumns * TiledWallGrid.getTileWordCount(tileSize) * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+            for (int bandRow = 0; bandRow < height; bandRow += tileSize) {
+                fillTileBand(maze, tileBand, bandRow, tileSize);
+                writeBytes(channel, tileBand);
+            }
+        }
+    }
+
+
+    /**
+     * Sets the wall bits of the band of tiles starting at the given row.
+     *
+     * @param maze      The maze object.
+     * @param tileBand  The buffer holding the tiles of the band one after the other.
+     * @param bandRow   The first row of the band.
+     * @param tileSize  The number of rows and columns of a tile.
+     */
+    private static void fillTileBand(Maze maze, ByteBuffer tileBand, int bandRow, int tileSize) {
+        int width = maze.getMazeWidth();
+        int tileBytes = TiledWallGrid.getTileWordCount(tileSize) * Long.BYTES;
+        int lastRow = Math.min(maze.getMazeHeight(), bandRow + tileSize);
+
+        tileBand.clear();
+        for (int i = 0; i < tileBand.capacity(); i += Long.BYTES) {
+            tileBand.putLong(i, 0L);
+        }
+
+        for (int row = bandRow; row < lastRow; ++row) {
+            int index = row * width;
+
+            for (int column = 0; column < width; ++column, ++index) {
+                if (maze.isWall(index)) {
+                    int tileBit = TiledWallGrid.getTileBit(row, column, tileSize);
+                    int wordOffset = (column / tileSize) * tileBytes + (tileBit >>> 6) * Long.BYTES;
+                    tileBand.putLong(wordOffset, tileBand.getLong(wordOffset) | (1L << tileBit));
+                }
+            }
+        }
+    }
+
+
+    private static long getTileFileSize(int width, int height, int tileSize) {
+        long tiles = (long) TiledWallGrid.getTileCount(width, tileSize) * TiledWallGrid.getTileCount(height, tileSize);
+        return tiles * TiledWallGrid.getTileWordCount(tileSize) * Long.BYTES;
+    }
+
+
+    private static void writeBytes(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.clear();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package runners;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Solves all the maze files in a directory, or matching a file name glob, as a pipeline - the load, solve and output stages of different
+ * mazes run at the same time, so reading and writing the files overlaps with solving. The number of mazes in flight is bounded,
+ * so only a few loaded mazes are kept in memory at once.
+ */
+public class BatchMazeRunner {
+
+    private static final String DIRECTORY_GLOB = "*.{txt,mzb,mzt}";
+    private static final String OUTPUT_FILE_SUFFIX = ".solution";
+    private static final int MAZES_IN_FLIGHT_PER_THREAD = 2;
+
+    private final MazeSettings jobSettings;
+    private final int threads;
+    private final Path outputDirectory;
+    private final MazeStatisticsCollector statistics;
+
+
+    /**
+     * Constructor.
+     *
+     * @param settings         The settings for every maze - the threads are used to solve different mazes at the same time, and bound
+     *                         the shared pool the large files are decoded on and the parallel solvers search on.
+     * @param outputDirectory  The directory to write the solutions to, created if it does not exist, or null to write each one next to its maze file.
+     * @param statistics       The collector for the statistics of every maze, or null if the statistics are not collected.
+     */
+    public BatchMazeRunner(MazeSettings settings, Path outputDirectory, MazeStatisticsCollector statistics) {
+        this.threads = Math.max(1, settings.getThreads());
+        this.jobSettings = settings.withThreads(threads);
+        this.outputDirectory = outputDirectory;
+        this.statistics = statistics;
+    }
+
+
+    /**
+     * Solves every maze file in the given directory or matching the given glob, writing each solution to &lt;maze file name&gt;.solution
+     * and reporting the result of every file to the given output.
+     *
+     * @param mazeFiles  A directory, or a path whose file name is a glob such as test/mazes/*.txt.
+     * @param report     The output stream for the per file results.
+     *
+     * @throws IOException if the maze files cannot be listed or the output directory cannot be created.
+     */
+    public void run(String mazeFiles, PrintStream report) throws IOException {
+        List<Path> mazePaths = findMazeFiles(mazeFiles);
+
+        if (outputDirectory != null) {
+            Files.createDirectories(outputDirectory);
+        }
+
+        ExecutorService ioExecutor = createIoExecutor();
+        ExecutorService solveExecutor = Executors.newFixedThreadPool(threads);
+        Semaphore mazesInFlight = new Semaphore(threads * MAZES_IN_FLIGHT_PER_THREAD);
+        List<CompletableFuture<String>> results = new ArrayList<>();
+
+        try {
+            for (Path mazePath : mazePaths) {
+                mazesInFlight.acquireUninterruptibly();
+                MazeJob job = new MazeJob(mazePath, jobSettings);
+
+                CompletableFuture<String> result = CompletableFuture
+                        .runAsync(() -> loadMaze(job), ioExecutor)
+                        .thenRunAsync(job::solveMaze, solveExecutor)
+                        .thenApplyAsync(ignored -> writeOutput(job), ioExecutor)
+                        .handle((outputPath, ex) -> {
+                            mazesInFlight.release();
+
+                            if (ex == null && statistics != null && job.getStatistics() != null) {
+                                statistics.record(job.getMazeFile().toString(), jobSettings.getSolverType().getOptionName(), job.getStatistics());
+                            }
+                            return (ex == null) ? job.getMazeFile() + " -> " + outputPath : job.getMazeFile() + ": " + getMessage(ex);
+                        });
+                results.add(result);
+            }
+
+            for (CompletableFuture<String> result : results) {
+                report.println(result.join());
+            }
+        } finally {
+            ioExecutor.shutdown();
+            solveExecutor.shutdown();
+        }
+    }
+
+
+    /**
+     * Lists the maze files in the given directory, or matching the given glob, sorted by name.
+     *
+     * @param mazeFiles  A directory, or a path whose file name is a glob.
+     *
+     * @return List.
+     *
+     * @throws IOException
+     */
+    static List<Path> findMazeFiles(String mazeFiles) throws IOException {
+        Path path = Paths.get(mazeFiles);
+        Path directory;
+        String glob;
+
+        if (Files.isDirectory(path)) {
+            directory = path;
+            glob = DIRECTORY_GLOB;
+        } else {
+            directory = (path.getParent() != null) ? path.getParent() : Paths.get(".");
+            glob = path.getFileName().toString();
+        }
+
+        List<Path> mazePaths = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, glob)) {
+            for (Path mazePath : stream) {
+
+                if (Files.isRegularFile(mazePath)) {
+                    mazePaths.add(mazePath);
+                }
+            }
+        }
+        Collections.sort(mazePaths);
+        return mazePaths;
+    }
+
+
+    private static void loadMaze(MazeJob job) {
+        try {
+            job.loadMaze();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+
+    /**
+     * Writes the solution of the given job to its output file. The print stream keeps its write errors to itself, so they are
+     * checked once the solution is written - a solution cut short by a full disk fails the file instead of being reported as written.
+     *
+     * @param job  The solved maze job.
+     *
+     * @return Path - the output file.
+     */
+    private Path writeOutput(MazeJob job) {
+        Path mazeFile = job.getMazeFile();
+        Path directory = (outputDirectory != null) ? outputDirectory : mazeFile.toAbsolutePath().getParent();
+        Path outputPath = directory.resolve(mazeFile.getFileName() + OUTPUT_FILE_SUFFIX);
+
+        try (PrintStream output = new PrintStream(new BufferedOutputStream(Files.newOutputStream(outputPath)))) {
+            job.writeOutput(output);
+
+            if (output.checkError()) {
+                throw new IOException("The solution could not be written to " + outputPath);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return outputPath;
+    }
+
+
+    /**
+     * Creates the executor for the load and output stages - virtual threads when the runtime has them, a fixed pool otherwise.
+     *
+     * @return ExecutorService.
+     */
+    private ExecutorService createIoExecutor() {
+        try {
+            Method virtualThreadExecutor = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) virtualThreadExecutor.invoke(null);
+
+        } catch (ReflectiveOperationException ex) {
+            return Executors.newFixedThreadPool(threads);
+        }
+    }
+
+
+    private static String getMessage(Throwable ex) {
+        Throwable cause = (ex instanceof CompletionException && ex.getCause() != null) ? ex.getCause() : ex;
+        return (cause instanceof UncheckedIOException) ? cause.getCause().toString() : cause.toString();
+    }
+}
@@ -0,0 +1,374 @@
+package runners;
+
+import domain.Maze;
+import domain.WordFloodFill;
+import exceptions.NonValidMazePathException;
+import parsers.BinaryMazeFormat;
+import parsers.InputParser;
+import parsers.MoveWriter;
+import parsers.OutputMode;
+import parsers.OutputParser;
+import parsers.TiledMazeFormat;
+import solvers.MazeSolver;
+import solvers.WallFollower;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.BitSet;
+
+/**
+ * A single maze file taken through the load, solve and output stages - all the state of one maze is kept here,
+ * so several jobs can run at the same time on different threads.
+ */
+public class MazeJob {
+
+    private static final int SEARCH_BYTES_PER_CELL = 16;
+
+    private final Path mazeFile;
+    private final MazeSettings settings;
+    private final MazeStatistics statistics;
+    private Maze maze;
+    private int[] pathCells;
+
+
+    public MazeJob(Path mazeFile, MazeSettings settings) {
+        this.mazeFile = mazeFile;
+        this.settings = settings;
+        this.statistics = settings.isCollectStatistics() ? new MazeStatistics() : null;
+    }
+
+
+    public Path getMazeFile() {
+        return mazeFile;
+    }
+
+
+    /**
+     * Loads the maze with its start and exit positions from the maze file.
+     *
+     * @throws IOException
+     */
+    public void loadMaze() throws IOException {
+        if (statistics != null) {
+            statistics.startPhase();
+        }
+
+        maze = readMaze(mazeFile, settings);
+
+        if (statistics != null) {
+            statistics.endPhase(MazeStatistics.Phase.LOAD);
+        }
+    }
+
+
+    /**
+     * Returns the loaded maze.
+     *
+     * @return Maze, or null if no maze has been loaded.
+     */
+    public Maze getMaze() {
+        return maze;
+    }
+
+
+    /**
+     * Returns the statistics of this job.
+     *
+     * @return MazeStatistics, or null if the statistics are not collected.
+     */
+    public MazeStatistics getStatistics() {
+        return statistics;
+    }
+
+
+    /**
+     * Reads the given maze file - binary maze files (.mzb) are mapped, tiled maze files (.mzt) are read a tile at a time through
+     * a cache of the configured number of tiles, any other file is parsed as a text maze file on the configured number of threads.
+     *
+     * @param mazeFile  The path of the maze file.
+     * @param settings  The settings with the tile cache size and the number of threads.
+     *
+     * @return Maze.
+     *
+     * @throws IOException
+     */
+    static Maze readMaze(Path mazeFile, MazeSettings settings) throws IOException {
+        if (TiledMazeFormat.isTiledMazeFile(mazeFile)) {
+            return TiledMazeFormat.parseMaze(mazeFile, settings.getCachedTiles());
+        }
+        return BinaryMazeFormat.isBinaryMazeFile(mazeFile) ? BinaryMazeFormat.parseMaze(mazeFile) : InputParser.parseMaze(mazeFile, settings.getThreads());
+    }
+
+
+    /**
+     * Solves the loaded maze with the selected solver - when the components are used, an exit not connected to the start
+     * is rejected without a search. The path is read out of the parents right away, as the solvers reuse their buffers
+     * for the next solve on the same thread.
+     */
+    public void solveMaze() {
+        if (maze == null) {
+            return;
+        }
+
+        if (statistics != null) {
+            statistics.startPhase();
+        }
+
+        searchMaze();
+
+        if (statistics != null) {
+            statistics.endPhase(MazeStatistics.Phase.SOLVE);
+            statistics.setResult(pathCells != null, (pathCells != null) ? pathCells.length - 1 : 0);
+        }
+    }
+
+
+    /**
+     * Searches the loaded maze for the path cells within the solve phase already started, adding the search counters to the statistics.
+     */
+    private void searchMaze() {
+        pathCells = null;
+
+        if (!settings.isUseComponents() || isExitConnected()) {
+            MazeSolver solver = settings.getSolverType().createSolver(settings.getThreads());
+            int[] parentNodes = solver.solve(maze, maze.getStartIndex(), maze.getExitIndex(), (statistics != null) ? statistics.getSearchStatistics() : null);
+
+            if (parentNodes != null) {
+                pathCells = OutputParser.getPathCells(parentNodes, maze.getExitIndex());
+            }
+        }
+    }
+
+
+    /**
+     * Checks if the exit may be connected to the start - the connected components answer when they are already labeled. Otherwise
+     * a word flood fill from the start answers on a maze that looks open, as it settles there in a few sweeps, and the components
+     * are labeled on a winding maze or when the fill gives up. A wall start or exit is left to the solver.
+     *
+     * @return boolean.
+     */
+    private boolean isExitConnected() {
+        int startIndex = maze.getStartIndex();
+        int exitIndex = maze.getExitIndex();
+
+        if (maze.isWall(startIndex) || maze.isWall(exitIndex)) {
+            return true;
+        }
+
+        if (!maze.hasComponents() && WordFloodFill.isOpenMaze(maze)) {
+            WordFloodFill floodFill = WordFloodFill.initFill(maze);
+
+            if (floodFill.fillFrom(startIndex, exitIndex)) {
+                return floodFill.isFilled(exitIndex);
+            }
+        }
+        return maze.getComponents().isReachable(startIndex, exitIndex);
+    }
+
+
+    /**
+     * Writes the solved maze, or only its path for the output modes other than the grid, or the reason it cannot be solved, to the given output.
+     *
+     * @param output  The output stream.
+     */
+    public void writeOutput(PrintStream output) {
+        if (maze == null) {
+            return;
+        }
+
+        if (statistics != null) {
+            statistics.startPhase();
+        }
+
+        try {
+            produceMazeOutput(output);
+        } catch (NonValidMazePathException ex) {
+            output.println(ex.getMessage());
+        }
+
+        if (statistics != null) {
+            statistics.endPhase(MazeStatistics.Phase.RENDER);
+        }
+    }
+
+
+    /**
+     * Walks the loaded maze from the start to the exit with a wall follower, which keeps a constant amount of memory however large
+     * the maze is, and writes the moves of the walk to the given output - run-length encoded in the rle output mode, one letter per move
+     * in the others. When no walk reaches the exit (on a maze with loops the exit
+     * may lie away from the walls followed, or there may be no path at all) the selected solver searches the maze instead, but only
+     * if its search fits in the free memory - otherwise the reason is written. The walk and the search are timed as one solve phase.
+     *
+     * @param output  The output stream.
+     */
+    public void walkMaze(PrintStream output) {
+        if (maze == null) {
+            return;
+        }
+
+        if (statistics != null) {
+            statistics.startPhase();
+        }
+
+        WallFollower wallFollower = WallFollower.initFollower(maze, maze.getStartIndex(), maze.getExitIndex());
+        long moveCount = wallFollower.findWalk((statistics != null) ? statistics.getSearchStatistics() : null);
+
+        boolean isSearched = moveCount < 0 && isSearchAffordable();
+
+        if (isSearched) {
+            searchMaze();
+        }
+
+        if (statistics != null) {
+            statistics.endPhase(MazeStatistics.Phase.SOLVE);
+
+            if (isSearched) {
+                statistics.setResult(pathCells != null, (pathCells != null) ? pathCells.length - 1 : 0);
+            } else {
+                statistics.setResult(moveCount >= 0, (int) Math.min(Math.max(0, moveCount), Integer.MAX_VALUE));
+            }
+        }
+
+        if (statistics != null) {
+            statistics.startPhase();
+        }
+
+        try {
+            produceMovesOutput(output, wallFollower, moveCount >= 0, isSearched);
+        } catch (NonValidMazePathException ex) {
+            output.println(ex.getMessage());
+        }
+
+        if (statistics != null) {
+            statistics.endPhase(MazeStatistics.Phase.RENDER);
+        }
+    }
+
+
+    /**
+     * Checks if a search of the loaded maze fits in the memory the heap can still grow by.
+     *
+     * @return boolean.
+     */
+    private boolean isSearchAffordable() {
+        Runtime runtime = Runtime.getRuntime();
+        long freeMemory = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+        return (long) maze.getCellCount() * SEARCH_BYTES_PER_CELL <= freeMemory;
+    }
+
+
+    /**
+     * Writes the moves of the walk, or of the path found by the fallback search, or throws an exception if neither reached the exit.
+     *
+     * @param output        The output stream.
+     * @param wallFollower  The wall follower.
+     * @param isWalked      True if the wall follower reached the exit.
+     * @param isSearched    True if the maze was searched after the wall follower failed.
+     *
+     * @throws NonValidMazePathException
+     */
+    private void produceMovesOutput(PrintStream output, WallFollower wallFollower, boolean isWalked, boolean isSearched) throws NonValidMazePathException {
+        MoveWriter moves = new MoveWriter(output, settings.getOutputMode() == OutputMode.RLE);
+
+        try {
+            if (isWalked) {
+                wallFollower.writeWalk(moves);
+
+            } else if (pathCells != null) {
+                moves.writePath(maze, pathCells);
+
+            } else if (isSearched) {
+                throw new NonValidMazePathException("The provided maze cannot be solved - there is no valid path between start and exit");
+
+            } else {
+                throw new NonValidMazePathException("The provided maze cannot be walked by following its walls, and it is too large to search in the available memory");
+            }
+            moves.finish();
+
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+
+    /**
+     * Produces the desired output or throws an exception if the maze cannot be solved.
+     *
+     * @param output  The output stream.
+     *
+     * @throws NonValidMazePathException
+     */
+    private void produceMazeOutput(PrintStream output) throws NonValidMazePathException {
+        BitSet mazePath;
+
+        if (pathCells != null && settings.getOutputMode() == OutputMode.GRID) {
+            mazePath = findMazePath(pathCells);
+            drawOutput(output, mazePath);
+
+        } else if (pathCells != null) {
+            writePath(output, pathCells);
+
+        } else {
+            throw new NonValidMazePathException("The provided maze cannot be solved - there is no valid path between start and exit");
+        }
+    }
+
+
+    /**
+     * Returns the cells of the path from start to finish in a bit set.
+     *
+     * @param pathCells  The cell indices in order from start to exit.
+     *
+     * @return BitSet.
+     */
+    private BitSet findMazePath(int[] pathCells) {
+        BitSet mazePath = new BitSet(maze.getCellCount());
+
+        if (pathCells == null) {
+            return mazePath;
+        }
+
+        for (int cell : pathCells) {
+            mazePath.set(cell);
+        }
+        return mazePath;
+    }
+
+
+    /**
+     * Writes only the path in the output, in the selected output mode - the other cells of the maze are never visited.
+     *
+     * @param output     The output stream.
+     * @param pathCells  The cell indices in order from start to exit.
+     */
+    private void writePath(PrintStream output, int[] pathCells) {
+        try {
+            if (settings.getOutputMode() == OutputMode.BINARY) {
+                OutputParser.writePathCells(pathCells, output);
+            } else {
+                MoveWriter moves = new MoveWriter(output, settings.getOutputMode() == OutputMode.RLE);
+                moves.writePath(maze, pathCells);
+                moves.finish();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+
+    /**
+     * Draws the maze in the output as per the requirements.
+     *
+     * @param output    The output stream.
+     * @param mazePath  The cells on the path from start to exit.
+     */
+    private void drawOutput(PrintStream output, BitSet mazePath) {
+        try {
+            OutputParser.writeOutput(maze, mazePath, maze.getStartIndex(), maze.getExitIndex(), output);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
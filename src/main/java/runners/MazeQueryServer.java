@@ -0,0 +1,324 @@
+package runners;
+
+import domain.Maze;
+import parsers.OutputParser;
+import solvers.SearchStatistics;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps a set of mazes loaded and answers path queries against them until the input ends - each maze is loaded and its components labeled once,
+ * and the queries are solved at the same time on a pool of threads sharing the loaded mazes.
+ *
+ * A query is a line of the form "&lt;maze id&gt; &lt;start x&gt; &lt;start y&gt; &lt;exit x&gt; &lt;exit y&gt;", where the maze id is the file name of the maze
+ * and the coordinates are given as in the maze file. Every query is answered with a line, in the order the queries were received:
+ * "OK &lt;steps&gt; &lt;x,y&gt; ..." with the path cells from start to exit, "NO PATH", or "ERROR &lt;reason&gt;".
+ */
+public class MazeQueryServer {
+
+    private static final String NO_PATH_RESPONSE = "NO PATH";
+    private static final String PATH_RESPONSE = "OK ";
+    private static final String ERROR_RESPONSE = "ERROR ";
+    private static final int QUERY_FIELDS = 5;
+    private static final int QUERIES_IN_FLIGHT_PER_THREAD = 4;
+    private static final int[] NO_PATH = new int[0];
+
+    private final MazeSettings settings;
+    private final int solveThreads;
+    private final Map<String, Maze> mazes = new ConcurrentHashMap<>();
+    private final PathCache pathCache;
+    private final ExecutorService solveExecutor;
+    private final MazeStatisticsCollector statistics;
+
+
+    /**
+     * Constructor.
+     *
+     * @param settings    The settings for solving the queries - the threads are used to solve different queries at the same time,
+     *                    and bound the shared pool of the solvers that search on more than one thread.
+     * @param cacheSize   The number of recent paths to keep.
+     * @param statistics  The collector for the statistics of every loaded maze and query, or null if the statistics are not collected.
+     */
+    public MazeQueryServer(MazeSettings settings, int cacheSize, MazeStatisticsCollector statistics) {
+        this.settings = settings.withThreads(1);
+        this.solveThreads = Math.max(1, settings.getThreads());
+        this.pathCache = new PathCache(cacheSize);
+        this.solveExecutor = Executors.newFixedThreadPool(solveThreads);
+        this.statistics = statistics;
+    }
+
+
+    /**
+     * Loads the maze files in the given directory, or matching the given glob, and labels their components.
+     *
+     * @param mazeFiles  A directory, or a path whose file name is a glob.
+     *
+     * @return int - the number of mazes loaded.
+     *
+     * @throws IOException
+     */
+    public int loadMazes(String mazeFiles) throws IOException {
+        int loadedMazes = 0;
+
+        for (Path mazeFile : BatchMazeRunner.findMazeFiles(mazeFiles)) {
+            MazeStatistics loadStatistics = (statistics != null) ? new MazeStatistics() : null;
+
+            if (loadStatistics != null) {
+                loadStatistics.startPhase();
+            }
+
+            Maze maze = MazeJob.readMaze(mazeFile, settings);
+            if (maze != null) {
+                maze.getComponents();
+                mazes.put(mazeFile.getFileName().toString(), maze);
+                ++loadedMazes;
+            }
+
+            if (loadStatistics != null) {
+                loadStatistics.endPhase(MazeStatistics.Phase.LOAD);
+                statistics.record(mazeFile.toString(), settings.getSolverType().getOptionName(), loadStatistics);
+            }
+        }
+        return loadedMazes;
+    }
+
+
+    /**
+     * Answers the queries read from the given input until it ends - queries are solved at the same time, but answered in order.
+     *
+     * @param input   The query input.
+     * @param output  The answer output.
+     *
+     * @throws IOException
+     */
+    public void serve(InputStream input, OutputStream output) throws IOException {
+        BufferedReader queries = new BufferedReader(new InputStreamReader(input, StandardCharsets.US_ASCII));
+        PrintStream answers = new PrintStream(output, true, "US-ASCII");
+        BlockingQueue<CompletableFuture<String>> pendingAnswers = new ArrayBlockingQueue<>(QUERIES_IN_FLIGHT_PER_THREAD * solveThreads);
+
+        Thread answerWriter = new Thread(() -> writeAnswers(pendingAnswers, answers), "maze-query-answers");
+        answerWriter.start();
+
+        try {
+            String query;
+            while ((query = queries.readLine()) != null) {
+
+                if (!query.trim().isEmpty()) {
+                    String currentQuery = query;
+                    putUninterruptibly(pendingAnswers, CompletableFuture.supplyAsync(() -> answerQuery(currentQuery), solveExecutor));
+                }
+            }
+        } finally {
+            putUninterruptibly(pendingAnswers, CompletableFuture.completedFuture(null));
+            joinUninterruptibly(answerWriter);
+        }
+    }
+
+
+    /**
+     * Answers the queries of every connection to the given port on the loopback address, each connection on its own thread.
+     * This method does not return unless the server socket fails.
+     *
+     * @param port  The port to listen on.
+     *
+     * @throws IOException
+     */
+    public void serve(int port) throws IOException {
+        ExecutorService connectionExecutor = Executors.newCachedThreadPool();
+
+        try (ServerSocket serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress())) {
+            while (true) {
+                Socket connection = serverSocket.accept();
+                connectionExecutor.execute(() -> serveConnection(connection));
+            }
+        } finally {
+            connectionExecutor.shutdown();
+        }
+    }
+
+
+    /**
+     * Stops the threads solving the queries.
+     */
+    public void shutdown() {
+        solveExecutor.shutdown();
+    }
+
+
+    /**
+     * Answers a single query.
+     *
+     * @param query  The query line.
+     *
+     * @return String.
+     */
+    String answerQuery(String query) {
+        String[] fields = query.trim().split("\\s+");
+
+        if (fields.length != QUERY_FIELDS) {
+            return ERROR_RESPONSE + "expected: <maze id> <start x> <start y> <exit x> <exit y>";
+        }
+
+        Maze maze = mazes.get(fields[0]);
+        if (maze == null) {
+            return ERROR_RESPONSE + "unknown maze " + fields[0];
+        }
+
+        int startIndex;
+        int exitIndex;
+        try {
+            startIndex = getCellIndex(maze, fields[1], fields[2]);
+            exitIndex = getCellIndex(maze, fields[3], fields[4]);
+        } catch (NumberFormatException ex) {
+            return ERROR_RESPONSE + "coordinates must be integers";
+        }
+
+        if (startIndex == Maze.NO_CELL || exitIndex == Maze.NO_CELL) {
+            return ERROR_RESPONSE + "coordinates outside the maze";
+        }
+
+        MazeStatistics queryStatistics = (statistics != null) ? new MazeStatistics() : null;
+        if (queryStatistics != null) {
+            queryStatistics.startPhase();
+        }
+
+        int[] pathCells = findPath(fields[0], maze, startIndex, exitIndex, queryStatistics);
+
+        if (queryStatistics != null) {
+            queryStatistics.endPhase(MazeStatistics.Phase.SOLVE);
+            queryStatistics.setResult(pathCells != NO_PATH, Math.max(0, pathCells.length - 1));
+            queryStatistics.startPhase();
+        }
+
+        String answer = (pathCells == NO_PATH) ? NO_PATH_RESPONSE : PATH_RESPONSE + (pathCells.length - 1) + ' ' + OutputParser.getPathCoordinates(maze, pathCells);
+
+        if (queryStatistics != null) {
+            queryStatistics.endPhase(MazeStatistics.Phase.RENDER);
+            statistics.record(fields[0], settings.getSolverType().getOptionName(), queryStatistics);
+        }
+        return answer;
+    }
+
+
+    /**
+     * Returns the path between the given cells from the cache, or solves and caches it.
+     *
+     * @return int[] - the path cells, or NO_PATH.
+     */
+    private int[] findPath(String mazeId, Maze maze, int startIndex, int exitIndex, MazeStatistics queryStatistics) {
+        String key = mazeId + ' ' + startIndex + ' ' + exitIndex;
+        int[] pathCells = pathCache.get(key);
+
+        if (pathCells != null) {
+            return pathCells;
+        }
+
+        pathCells = NO_PATH;
+        if (maze.getComponents().isReachable(startIndex, exitIndex)) {
+            SearchStatistics searchStatistics = (queryStatistics != null) ? queryStatistics.getSearchStatistics() : null;
+            int[] parentNodes = settings.getSolverType().createSolver(solveThreads).solve(maze, startIndex, exitIndex, searchStatistics);
+
+            if (parentNodes != null) {
+                pathCells = OutputParser.getPathCells(parentNodes, exitIndex);
+            }
+        }
+        pathCache.put(key, pathCells);
+        return pathCells;
+    }
+
+
+    private static int getCellIndex(Maze maze, String x, String y) {
+        int column = Integer.parseInt(x);
+        int row = Integer.parseInt(y);
+
+        if (column < 0 || row < 0 || column >= maze.getMazeWidth() || row >= maze.getMazeHeight()) {
+            return Maze.NO_CELL;
+        }
+        return maze.indexOf(row, column);
+    }
+
+
+    private void serveConnection(Socket connection) {
+        try (Socket socket = connection) {
+            serve(socket.getInputStream(), socket.getOutputStream());
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+
+    /**
+     * Writes the answers in the order their queries were received, until the end marker (an answer of null) is taken.
+     */
+    private static void writeAnswers(BlockingQueue<CompletableFuture<String>> pendingAnswers, PrintStream answers) {
+        while (true) {
+            String answer;
+            try {
+                answer = pendingAnswers.take().join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                answer = ERROR_RESPONSE + ex;
+            }
+
+            if (answer == null) {
+                return;
+            }
+            answers.println(answer);
+        }
+    }
+
+
+    private static <T> void putUninterruptibly(BlockingQueue<T> queue, T element) {
+        boolean isInterrupted = false;
+
+        while (true) {
+            try {
+                queue.put(element);
+                break;
+            } catch (InterruptedException ex) {
+                isInterrupted = true;
+            }
+        }
+
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    private static void joinUninterruptibly(Thread thread) {
+        boolean isInterrupted = false;
+
+        while (true) {
+            try {
+                thread.join();
+                break;
+            } catch (InterruptedException ex) {
+                isInterrupted = true;
+            }
+        }
+
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package runners;
+
+import parsers.OutputMode;
+import solvers.SolverType;
+
+/**
+ * The command line settings for solving mazes.
+ */
+public class MazeSettings {
+
+    private static final int DEFAULT_CACHED_TILES = 4096;
+
+    private SolverType solverType = SolverType.DFS;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private boolean useComponents;
+    private boolean constantMemory;
+    private OutputMode outputMode = OutputMode.GRID;
+    private int cachedTiles = DEFAULT_CACHED_TILES;
+    private boolean collectStatistics;
+
+
+    public SolverType getSolverType() {
+        return solverType;
+    }
+
+    public void setSolverType(SolverType solverType) {
+        this.solverType = solverType;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Returns whether the connected components of the maze are labeled before solving, so unreachable exits are rejected without a search.
+     *
+     * @return boolean.
+     */
+    public boolean isUseComponents() {
+        return useComponents;
+    }
+
+    public void setUseComponents(boolean useComponents) {
+        this.useComponents = useComponents;
+    }
+
+    /**
+     * Returns whether the maze is walked with a wall follower in constant memory, writing the moves of the walk instead of the solved maze.
+     *
+     * @return boolean.
+     */
+    public boolean isConstantMemory() {
+        return constantMemory;
+    }
+
+    public void setConstantMemory(boolean constantMemory) {
+        this.constantMemory = constantMemory;
+    }
+
+    /**
+     * Returns the form the solutions are written in - the rendered maze, or only the path for the other modes.
+     *
+     * @return OutputMode.
+     */
+    public OutputMode getOutputMode() {
+        return outputMode;
+    }
+
+    public void setOutputMode(OutputMode outputMode) {
+        this.outputMode = outputMode;
+    }
+
+    /**
+     * Returns the maximum number of tiles of a tiled maze file kept in memory.
+     *
+     * @return int.
+     */
+    public int getCachedTiles() {
+        return cachedTiles;
+    }
+
+    public void setCachedTiles(int cachedTiles) {
+        this.cachedTiles = cachedTiles;
+    }
+
+    /**
+     * Returns whether the phase timings and search counters of every maze are collected - when not, nothing is measured.
+     *
+     * @return boolean.
+     */
+    public boolean isCollectStatistics() {
+        return collectStatistics;
+    }
+
+    public void setCollectStatistics(boolean collectStatistics) {
+        this.collectStatistics = collectStatistics;
+    }
+
+    /**
+     * Returns a copy of these settings with the given number of threads.
+     *
+     * @param threads  The number of threads.
+     *
+     * @return MazeSettings.
+     */
+    public MazeSettings withThreads(int threads) {
+        MazeSettings settings = new MazeSettings();
+        settings.solverType = solverType;
+        settings.threads = threads;
+        settings.useComponents = useComponents;
+        settings.constantMemory = constantMemory;
+        settings.outputMode = outputMode;
+        settings.cachedTiles = cachedTiles;
+        settings.collectStatistics = collectStatistics;
+        return settings;
+    }
+}
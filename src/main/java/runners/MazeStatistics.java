@@ -0,0 +1,166 @@
+package runners;
+
+import solvers.SearchStatistics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * The statistics of solving one maze - the wall time and the bytes allocated by the load, solve and render phases,
+ * the search counters and the path length. Each phase runs on a single thread, so the bytes allocated are the ones of that thread -
+ * the threads a parallel solver starts are not counted.
+ */
+public class MazeStatistics {
+
+    /**
+     * The measured phases of solving a maze.
+     */
+    public enum Phase {
+        LOAD, SOLVE, RENDER
+    }
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean IS_ALLOCATION_MEASURED = isAllocationMeasured();
+
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private final SearchStatistics searchStatistics = new SearchStatistics();
+    private long bytesAllocated;
+    private int pathLength;
+    private boolean isSolved;
+    private boolean hasResult;
+
+    private long phaseStartNanos;
+    private long phaseStartBytes;
+
+
+    /**
+     * Starts measuring a phase on the current thread.
+     */
+    public void startPhase() {
+        phaseStartBytes = getAllocatedBytes();
+        phaseStartNanos = System.nanoTime();
+    }
+
+
+    /**
+     * Ends measuring the given phase, which must have been started on the current thread.
+     *
+     * @param phase  The phase.
+     */
+    public void endPhase(Phase phase) {
+        phaseNanos[phase.ordinal()] += System.nanoTime() - phaseStartNanos;
+
+        if (IS_ALLOCATION_MEASURED) {
+            bytesAllocated += getAllocatedBytes() - phaseStartBytes;
+        }
+    }
+
+
+    public SearchStatistics getSearchStatistics() {
+        return searchStatistics;
+    }
+
+
+    public long getPhaseNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+
+    public long getBytesAllocated() {
+        return bytesAllocated;
+    }
+
+
+    public int getPathLength() {
+        return pathLength;
+    }
+
+
+    public boolean isSolved() {
+        return isSolved;
+    }
+
+
+    /**
+     * Returns whether a search was recorded - the statistics of only loading a maze have none.
+     *
+     * @return boolean.
+     */
+    public boolean hasResult() {
+        return hasResult;
+    }
+
+
+    /**
+     * Records the outcome of the search.
+     *
+     * @param isSolved    Whether a path was found.
+     * @param pathLength  The number of steps of the path, 0 if no path was found.
+     */
+    public void setResult(boolean isSolved, int pathLength) {
+        this.isSolved = isSolved;
+        this.pathLength = pathLength;
+        this.hasResult = true;
+    }
+
+
+    /**
+     * Formats these statistics as a single line JSON object.
+     *
+     * @param mazeName    The name of the solved maze.
+     * @param solverName  The name of the solver.
+     *
+     * @return String.
+     */
+    public String toJson(String mazeName, String solverName) {
+        return "{\"maze\":\"" + escapeJson(mazeName) + "\""
+                + ",\"solver\":\"" + escapeJson(solverName) + "\""
+                + ",\"solved\":" + (hasResult ? Boolean.toString(isSolved) : "null")
+                + ",\"loadNanos\":" + getPhaseNanos(Phase.LOAD)
+                + ",\"solveNanos\":" + getPhaseNanos(Phase.SOLVE)
+                + ",\"renderNanos\":" + getPhaseNanos(Phase.RENDER)
+                + ",\"nodesExpanded\":" + searchStatistics.getNodesExpanded()
+                + ",\"peakFrontier\":" + searchStatistics.getPeakFrontier()
+                + ",\"pathLength\":" + pathLength
+                + ",\"bytesAllocated\":" + (IS_ALLOCATION_MEASURED ? Long.toString(bytesAllocated) : "null")
+                + "}";
+    }
+
+
+    private static long getAllocatedBytes() {
+        return IS_ALLOCATION_MEASURED ? ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+    }
+
+
+    /**
+     * Checks if the runtime can measure the bytes allocated by a thread.
+     *
+     * @return boolean.
+     */
+    private static boolean isAllocationMeasured() {
+        if (!(THREADS instanceof com.sun.management.ThreadMXBean)) {
+            return false;
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+        return threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled();
+    }
+
+
+    private static String escapeJson(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+
+        for (int i = 0; i < value.length(); ++i) {
+            char c = value.charAt(i);
+
+            if (c == '"' || c == '\\') {
+                escaped.append('\\').append(c);
+            } else if (c < ' ') {
+                escaped.append(String.format("\\u%04x", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
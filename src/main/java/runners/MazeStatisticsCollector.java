@@ -0,0 +1,133 @@
+package runners;
+
+import solvers.SearchStatistics;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adds up the statistics of every solved maze, writing them as JSON lines to an output if one is given, and publishes the totals
+ * as an MXBean once registered.
+ */
+public class MazeStatisticsCollector implements MazeStatisticsMXBean {
+
+    private static final String OBJECT_NAME = "maze_solution:type=MazeStatistics,name=";
+
+    private final PrintStream jsonOutput;
+
+    private long mazesSolved;
+    private long mazesUnsolved;
+    private long loadNanos;
+    private long solveNanos;
+    private long renderNanos;
+    private long nodesExpanded;
+    private int peakFrontier;
+    private long pathLength;
+    private long bytesAllocated;
+    private String lastMazeStatistics = "{}";
+
+
+    /**
+     * Constructor.
+     *
+     * @param jsonOutput  The output to write the statistics of every maze to as a JSON line, or null to only add them up.
+     */
+    public MazeStatisticsCollector(PrintStream jsonOutput) {
+        this.jsonOutput = jsonOutput;
+    }
+
+
+    /**
+     * Registers this collector with the platform MBean server under the given name.
+     *
+     * @param name  The name of the run, such as batch or server.
+     *
+     * @throws JMException if the MBean cannot be registered.
+     */
+    public void register(String name) throws JMException {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME + name));
+    }
+
+
+    /**
+     * Adds the statistics of a solved maze.
+     *
+     * @param mazeName    The name of the maze.
+     * @param solverName  The name of the solver.
+     * @param statistics  The statistics of the maze.
+     */
+    public synchronized void record(String mazeName, String solverName, MazeStatistics statistics) {
+        SearchStatistics searchStatistics = statistics.getSearchStatistics();
+
+        if (statistics.hasResult() && statistics.isSolved()) {
+            ++mazesSolved;
+        } else if (statistics.hasResult()) {
+            ++mazesUnsolved;
+        }
+        loadNanos += statistics.getPhaseNanos(MazeStatistics.Phase.LOAD);
+        solveNanos += statistics.getPhaseNanos(MazeStatistics.Phase.SOLVE);
+        renderNanos += statistics.getPhaseNanos(MazeStatistics.Phase.RENDER);
+        nodesExpanded += searchStatistics.getNodesExpanded();
+        peakFrontier = Math.max(peakFrontier, searchStatistics.getPeakFrontier());
+        pathLength += statistics.getPathLength();
+        bytesAllocated += statistics.getBytesAllocated();
+        lastMazeStatistics = statistics.toJson(mazeName, solverName);
+
+        if (jsonOutput != null) {
+            jsonOutput.println(lastMazeStatistics);
+        }
+    }
+
+    @Override
+    public synchronized long getMazesSolved() {
+        return mazesSolved;
+    }
+
+    @Override
+    public synchronized long getMazesUnsolved() {
+        return mazesUnsolved;
+    }
+
+    @Override
+    public synchronized long getLoadMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(loadNanos);
+    }
+
+    @Override
+    public synchronized long getSolveMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(solveNanos);
+    }
+
+    @Override
+    public synchronized long getRenderMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(renderNanos);
+    }
+
+    @Override
+    public synchronized long getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    @Override
+    public synchronized int getPeakFrontier() {
+        return peakFrontier;
+    }
+
+    @Override
+    public synchronized long getPathLength() {
+        return pathLength;
+    }
+
+    @Override
+    public synchronized long getBytesAllocated() {
+        return bytesAllocated;
+    }
+
+    @Override
+    public synchronized String getLastMazeStatistics() {
+        return lastMazeStatistics;
+    }
+}
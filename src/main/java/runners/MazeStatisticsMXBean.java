@@ -0,0 +1,32 @@
+package runners;
+
+/**
+ * The statistics of all the mazes solved by a batch run or a query server, published over JMX.
+ */
+public interface MazeStatisticsMXBean {
+
+    long getMazesSolved();
+
+    long getMazesUnsolved();
+
+    long getLoadMillis();
+
+    long getSolveMillis();
+
+    long getRenderMillis();
+
+    long getNodesExpanded();
+
+    int getPeakFrontier();
+
+    long getPathLength();
+
+    long getBytesAllocated();
+
+    /**
+     * Returns the statistics of the last maze as a JSON object.
+     *
+     * @return String.
+     */
+    String getLastMazeStatistics();
+}
@@ -0,0 +1,39 @@
+package runners;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A least recently used cache of solved paths, safe to use from several threads.
+ */
+final class PathCache {
+
+    private final Map<String, int[]> paths;
+
+
+    PathCache(int capacity) {
+        this.paths = new LinkedHashMap<String, int[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, int[]> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+
+    /**
+     * Returns the cached path cells for the given query key.
+     *
+     * @param key  The query key.
+     *
+     * @return int[] - the path cells, an empty array if the query has no path, or null if the query is not cached.
+     */
+    synchronized int[] get(String key) {
+        return paths.get(key);
+    }
+
+
+    synchronized void put(String key, int[] pathCells) {
+        paths.put(key, pathCells);
+    }
+}
@@ -0,0 +1,227 @@
+package solvers;
+
+import domain.Maze;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Solves the maze with A* using the Manhattan distance heuristic and jump point search pruning for 4-connected grids.
+ * Straight runs of cells without branching choices are skipped by the jumps, so only the jump points are added to the open list,
+ * which on open mazes is a small fraction of the cells. The path found is one of the shortest paths from start to exit.
+ *
+ * A vertical jump looks for jump points along the rows it crosses, so the jump point of every horizontal jump is kept for every cell
+ * it jumped over - a later jump from any of those cells is answered at once, and the rows of an open region are scanned once per solve
+ * instead of once for every vertical jump crossing them.
+ */
+public class AStarMazeSolver implements MazeSolver {
+
+    private static final int EAST_JUMPS = 0;
+    private static final int WEST_JUMPS = 1;
+
+    private Maze maze;
+    private int width;
+    private int height;
+    private int exitIndex;
+    private int[][] jumpPoints;
+    private BitSet[] jumpedCells;
+
+
+    @Override
+    public int[] solve(Maze maze, int startIndex, int exitIndex, SearchStatistics statistics) {
+        this.maze = maze;
+        this.width = maze.getMazeWidth();
+        this.height = maze.getMazeHeight();
+        this.exitIndex = exitIndex;
+
+        int cellCount = maze.getCellCount();
+        SearchBuffers buffers = SearchBuffers.acquire(cellCount);
+        int[] parentNodes = buffers.getParentNodes();
+        int[] pathCosts = buffers.getPathCosts();
+        BitSet openedNodes = buffers.getMarkedNodes();
+        BitSet closedNodes = buffers.getClosedNodes();
+        IntMinHeap openList = buffers.getOpenList();
+        this.jumpPoints = new int[][]{buffers.getJumpPoints(EAST_JUMPS), buffers.getJumpPoints(WEST_JUMPS)};
+        this.jumpedCells = new BitSet[]{buffers.getJumpedCells(EAST_JUMPS), buffers.getJumpedCells(WEST_JUMPS)};
+
+        parentNodes[startIndex] = Maze.NO_CELL;
+        pathCosts[startIndex] = 0;
+        openedNodes.set(startIndex);
+        openList.add(startIndex, getDistance(startIndex, exitIndex));
+
+        boolean isExitReached = false;
+        long nodesExpanded = 0;
+        int peakFrontier = 1;
+
+        while (!openList.isEmpty()) {
+            int node = openList.remove();
+
+            if (closedNodes.get(node)) {
+                continue;
+            }
+
+            if (node == exitIndex) {
+                isExitReached = true;
+                break;
+            }
+            closedNodes.set(node);
+            ++nodesExpanded;
+
+            int row = node / width;
+            int column = node % width;
+            int parentNode = parentNodes[node];
+
+            if (parentNode == Maze.NO_CELL) {
+                expandJumpPoint(node, row, column, -1, 0, parentNodes, pathCosts, openedNodes, closedNodes, openList);
+                expandJumpPoint(node, row, column, 1, 0, parentNodes, pathCosts, openedNodes, closedNodes, openList);
+                expandJumpPoint(node, row, column, 0, 1, parentNodes, pathCosts, openedNodes, closedNodes, openList);
+                expandJumpPoint(node, row, column, 0, -1, parentNodes, pathCosts, openedNodes, closedNodes, openList);
+
+            } else if (parentNode / width == row) {
+                int columnStep = Integer.signum(column - parentNode % width);
+                expandJumpPoint(node, row, column, -1, 0, parentNodes, pathCosts, openedNodes, closedNodes, openList);
+                expandJumpPoint(node, row, column, 1, 0, parentNodes, pathCosts, openedNodes, closedNodes, openList);
+                expandJumpPoint(node, row, column, 0, columnStep, parentNodes, pathCosts, openedNodes, closedNodes, openList);
+
+            } else {
+                int rowStep = Integer.signum(row - parentNode / width);
+                expandJumpPoint(node, row, column, 0, 1, parentNodes, pathCosts, openedNodes, closedNodes, openList);
+                expandJumpPoint(node, row, column, 0, -1, parentNodes, pathCosts, openedNodes, closedNodes, openList);
+                expandJumpPoint(node, row, column, rowStep, 0, parentNodes, pathCosts, openedNodes, closedNodes, openList);
+            }
+            peakFrontier = Math.max(peakFrontier, openList.size());
+        }
+
+        if (statistics != null) {
+            statistics.record(nodesExpanded, peakFrontier);
+        }
+
+        if (!isExitReached) {
+            return null;
+        }
+        fillPathBetweenJumpPoints(parentNodes, exitIndex);
+        return parentNodes;
+    }
+
+
+    /**
+     * Jumps from the given node in the given direction and adds the jump point found to the open list if it improves its path cost.
+     */
+    private void expandJumpPoint(int node, int row, int column, int rowStep, int columnStep,
+                                 int[] parentNodes, int[] pathCosts, BitSet openedNodes, BitSet closedNodes, IntMinHeap openList) {
+
+        int jumpPoint = (rowStep == 0) ? jumpHorizontally(row, column + columnStep, columnStep) : jumpVertically(row + rowStep, column, rowStep);
+
+        if (jumpPoint == Maze.NO_CELL || closedNodes.get(jumpPoint)) {
+            return;
+        }
+
+        int pathCost = pathCosts[node] + getDistance(node, jumpPoint);
+
+        if (!openedNodes.get(jumpPoint) || pathCost < pathCosts[jumpPoint]) {
+            openedNodes.set(jumpPoint);
+            pathCosts[jumpPoint] = pathCost;
+            parentNodes[jumpPoint] = node;
+            openList.add(jumpPoint, pathCost + getDistance(jumpPoint, exitIndex));
+        }
+    }
+
+
+    /**
+     * Moves east or west from the given cell until reaching the exit or a cell where a vertical move opens up that was blocked for the previous cell,
+     * or a cell already jumped from in the same direction. The jump point found is kept for every cell moved over.
+     *
+     * @return int - the jump point, or NO_CELL if the run ends at a wall.
+     */
+    private int jumpHorizontally(int row, int column, int columnStep) {
+        int direction = (columnStep > 0) ? EAST_JUMPS : WEST_JUMPS;
+        int firstColumn = column;
+        int jumpPoint = Maze.NO_CELL;
+
+        while (isClearPath(row, column)) {
+            int node = row * width + column;
+
+            if (jumpedCells[direction].get(node)) {
+                jumpPoint = jumpPoints[direction][node];
+                break;
+            }
+
+            if (node == exitIndex
+                    || (isClearPath(row - 1, column) && !isClearPath(row - 1, column - columnStep))
+                    || (isClearPath(row + 1, column) && !isClearPath(row + 1, column - columnStep))) {
+                jumpPoint = node;
+                break;
+            }
+            column += columnStep;
+        }
+
+        int fromNode = row * width + Math.min(firstColumn, column - columnStep);
+        int toNode = row * width + Math.max(firstColumn, column - columnStep) + 1;
+
+        if (column != firstColumn) {
+            jumpedCells[direction].set(fromNode, toNode);
+            Arrays.fill(jumpPoints[direction], fromNode, toNode, jumpPoint);
+        }
+        return jumpPoint;
+    }
+
+
+    /**
+     * Moves north or south from the given cell until reaching the exit, a cell with a forced horizontal neighbor,
+     * or a cell from which a horizontal jump finds a jump point.
+     *
+     * @return int - the jump point, or NO_CELL if the run ends at a wall.
+     */
+    private int jumpVertically(int row, int column, int rowStep) {
+        while (isClearPath(row, column)) {
+            int node = row * width + column;
+
+            if (node == exitIndex) {
+                return node;
+            }
+
+            if ((isClearPath(row, column - 1) && !isClearPath(row - rowStep, column - 1))
+                    || (isClearPath(row, column + 1) && !isClearPath(row - rowStep, column + 1))) {
+                return node;
+            }
+
+            if (jumpHorizontally(row, column + 1, 1) != Maze.NO_CELL || jumpHorizontally(row, column - 1, -1) != Maze.NO_CELL) {
+                return node;
+            }
+            row += rowStep;
+        }
+        return Maze.NO_CELL;
+    }
+
+
+    /**
+     * Replaces the jump point parents along the path with the parent of every cell in between, so the path can be followed one cell at a time.
+     * Jump points always lie on a straight line with their parent.
+     *
+     * @param parentNodes  The parent index of the jump points.
+     * @param exitIndex    The index of the exit cell.
+     */
+    private void fillPathBetweenJumpPoints(int[] parentNodes, int exitIndex) {
+        int node = exitIndex;
+
+        while (parentNodes[node] != Maze.NO_CELL) {
+            int jumpParent = parentNodes[node];
+            int step = (jumpParent / width == node / width) ? Integer.signum(jumpParent - node) : Integer.signum(jumpParent - node) * width;
+
+            for (int cell = node; cell != jumpParent; cell += step) {
+                parentNodes[cell] = cell + step;
+            }
+            node = jumpParent;
+        }
+    }
+
+
+    private boolean isClearPath(int row, int column) {
+        return row >= 0 && column >= 0 && row < height && column < width && !maze.isWall(row * width + column);
+    }
+
+
+    private int getDistance(int fromNode, int toNode) {
+        return Math.abs(fromNode / width - toNode / width) + Math.abs(fromNode % width - toNode % width);
+    }
+}
@@ -0,0 +1,261 @@
+package solvers;
+
+import domain.Maze;
+import domain.SharedPools;
+
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Solves the maze with two breadth first searches running at the same time on separate threads, one from the start and one from the exit.
+ * Every cell has a claim bit for each side in a shared atomic bitmap - the side that claims a cell the other side already claimed has found
+ * a meeting cell, and keeps the one with the shortest path through it. The searches go on level by level until no shorter path can be left:
+ * once every cell closer than level a to the start and closer than level b to the exit is expanded, every path of at most a + b steps has
+ * been met on, so a meeting path of at most a + b + 1 steps is one of the shortest. Both parent chains are then joined at its meeting cell.
+ *
+ * The search from the start runs on the solving thread and the search from the exit on the SharedPools pool with the number of threads
+ * of the solver, so however many solves run at once, the searches from the exit never take more threads than that. When every pool
+ * thread is busy and the search from the exit has not started by the time the search from the start finishes, it never starts - the
+ * search from the start has then searched on alone, as a plain breadth first search. The search state of both is kept in the
+ * SearchBuffers of the solving thread.
+ */
+public class BidirectionalMazeSolver implements MazeSolver {
+
+    private static final int START_SIDE = 0;
+    private static final int EXIT_SIDE = 1;
+    private static final int CLAIM_BITS_PER_CELL = 2;
+    private static final int CELLS_PER_WORD_SHIFT = 5;
+    private static final int CELLS_PER_WORD_MASK = (1 << CELLS_PER_WORD_SHIFT) - 1;
+    private static final long NO_MEETING = Long.MAX_VALUE;
+
+    private final int threads;
+
+
+    /**
+     * Constructor.
+     *
+     * @param threads  The number of threads of the pool the searches from the exit run on.
+     */
+    public BidirectionalMazeSolver(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+
+    @Override
+    public int[] solve(Maze maze, int startIndex, int exitIndex, SearchStatistics statistics) {
+        SearchBuffers buffers = SearchBuffers.acquire(maze.getCellCount());
+        int[] startParentNodes = buffers.getParentNodes();
+
+        if (startIndex == exitIndex) {
+            startParentNodes[startIndex] = Maze.NO_CELL;
+            return startParentNodes;
+        }
+
+        SharedSearchState sharedState = new SharedSearchState(buffers.getClaimedWords(CLAIM_BITS_PER_CELL));
+        SearchSide startSide = new SearchSide(maze, startIndex, START_SIDE, startParentNodes, buffers.getPathCosts(), buffers.getFrontier(), sharedState);
+        SearchSide exitSide = new SearchSide(maze, exitIndex, EXIT_SIDE, buffers.getExitParentNodes(), buffers.getExitPathCosts(), buffers.getExitFrontier(), sharedState);
+        startSide.otherSide = exitSide;
+        exitSide.otherSide = startSide;
+
+        ForkJoinTask<?> exitSideSearch = SharedPools.getPool(threads).submit(exitSide);
+        startSide.run();
+
+        if (!sharedState.takeExitSide()) {
+            exitSideSearch.join();
+        }
+
+        if (statistics != null) {
+            statistics.record(startSide.nodesExpanded + exitSide.nodesExpanded, startSide.peakFrontier + exitSide.peakFrontier);
+        }
+
+        long bestMeeting = sharedState.bestMeeting.get();
+        if (bestMeeting == NO_MEETING) {
+            return null;
+        }
+
+        joinParentChains(startParentNodes, exitSide.parentNodes, (int) bestMeeting);
+        return startParentNodes;
+    }
+
+
+    /**
+     * Reverses the exit side chain from the meeting cell into the start side parent array, so the whole path can be followed from the exit to the start.
+     * The chains of a shortest path only share the meeting cell, so the start side chain up to the meeting cell is left as it is.
+     *
+     * @param startParentNodes  The parent index of the cells reached from the start - the joined chain is written here.
+     * @param exitParentNodes   The parent index of the cells reached from the exit.
+     * @param meetingNode       The cell where the searches met on the shortest path.
+     */
+    private static void joinParentChains(int[] startParentNodes, int[] exitParentNodes, int meetingNode) {
+        int node = meetingNode;
+
+        while (exitParentNodes[node] != Maze.NO_CELL) {
+            int nextNode = exitParentNodes[node];
+            startParentNodes[nextNode] = node;
+            node = nextNode;
+        }
+    }
+
+
+    /**
+     * The state shared by both search sides.
+     */
+    private static final class SharedSearchState {
+
+        private final AtomicLongArray claimedNodes;
+        private final AtomicIntegerArray expandedLevels = new AtomicIntegerArray(2);
+        private final AtomicLong bestMeeting = new AtomicLong(NO_MEETING);
+        private final AtomicBoolean isExitSideTaken = new AtomicBoolean();
+        private volatile boolean isFinished;
+
+
+        private SharedSearchState(AtomicLongArray claimedNodes) {
+            this.claimedNodes = claimedNodes;
+        }
+
+
+        /**
+         * Takes the search from the exit, either to run it on a pool thread or, on the solving thread once the search from the start
+         * has finished, to never run it.
+         *
+         * @return boolean - true if the search from the exit was not taken before.
+         */
+        private boolean takeExitSide() {
+            return isExitSideTaken.compareAndSet(false, true);
+        }
+
+
+        private boolean isClaimed(int node, int side) {
+            return (claimedNodes.get(node >>> CELLS_PER_WORD_SHIFT) & getClaimBit(node, side)) != 0;
+        }
+
+
+        /**
+         * Sets the claim bit of the given side for the given cell, which the side has not claimed yet - only the side itself sets its bits,
+         * so the bit can be set with a single atomic add instead of a compare and set loop. The atomic add also publishes the path length
+         * the side set for the cell before, to the other side if it claims the cell later.
+         *
+         * @return boolean - true if the other side had claimed the cell before, so the sides meet there.
+         */
+        private boolean claim(int node, int side) {
+            long word = claimedNodes.getAndAdd(node >>> CELLS_PER_WORD_SHIFT, getClaimBit(node, side));
+            return (word & getClaimBit(node, side ^ 1)) != 0;
+        }
+
+
+        private static long getClaimBit(int node, int side) {
+            return 1L << (((node & CELLS_PER_WORD_MASK) << 1) + side);
+        }
+
+
+        /**
+         * Keeps the given meeting cell if the path through it is shorter than the best one so far - the length is kept in the upper half
+         * of the best meeting and the cell in the lower half, so the shortest path has the smallest value.
+         */
+        private void meet(int node, int pathLength) {
+            bestMeeting.accumulateAndGet(((long) pathLength << 32) | node, Math::min);
+        }
+
+
+        /**
+         * Checks if the best meeting path is one of the shortest, given that both sides have expanded every cell closer than their levels.
+         */
+        private boolean isShortestMet(int sideLevel, int otherSideLevel) {
+            return (bestMeeting.get() >>> 32) <= (long) sideLevel + otherSideLevel + 1;
+        }
+    }
+
+
+    /**
+     * A breadth first search from one end of the path, expanding a whole level at a time, and stopping when the best meeting path is
+     * one of the shortest or either side runs out of cells.
+     */
+    private static final class SearchSide implements Runnable {
+
+        private final Maze maze;
+        private final int side;
+        private final int[] parentNodes;
+        private final int[] pathLengths;
+        private final IntRingQueue frontier;
+        private final SharedSearchState sharedState;
+        private SearchSide otherSide;
+        private long nodesExpanded;
+        private int peakFrontier = 1;
+
+
+        private SearchSide(Maze maze, int rootNode, int side, int[] parentNodes, int[] pathLengths, IntRingQueue frontier, SharedSearchState sharedState) {
+            this.maze = maze;
+            this.side = side;
+            this.parentNodes = parentNodes;
+            this.pathLengths = pathLengths;
+            this.frontier = frontier;
+            this.sharedState = sharedState;
+
+            parentNodes[rootNode] = Maze.NO_CELL;
+            pathLengths[rootNode] = 0;
+            sharedState.claim(rootNode, side);
+            frontier.add(rootNode);
+        }
+
+
+        @Override
+        public void run() {
+            if (side == EXIT_SIDE && !sharedState.takeExitSide()) {
+                return;
+            }
+
+            int width = maze.getMazeWidth();
+            int cellCount = maze.getCellCount();
+
+            for (int level = 0; !frontier.isEmpty() && !sharedState.isFinished; ++level) {
+                sharedState.expandedLevels.set(side, level);
+
+                if (sharedState.isShortestMet(level, sharedState.expandedLevels.get(side ^ 1))) {
+                    break;
+                }
+
+                for (int levelSize = frontier.size(); levelSize > 0; --levelSize) {
+                    int node = frontier.remove();
+                    int column = node % width;
+                    ++nodesExpanded;
+
+                    if (node >= width) {
+                        visitNode(node, node - width, level + 1);
+                    }
+                    if (node < cellCount - width) {
+                        visitNode(node, node + width, level + 1);
+                    }
+                    if (column != width - 1) {
+                        visitNode(node, node + 1, level + 1);
+                    }
+                    if (column != 0) {
+                        visitNode(node, node - 1, level + 1);
+                    }
+                }
+                peakFrontier = Math.max(peakFrontier, frontier.size());
+            }
+            sharedState.isFinished = true;
+        }
+
+
+        /**
+         * Claims the given neighboring node for this side if it is a clear path, and meets the other side there if it claimed the node
+         * before - the parent arrays are only read by the solving thread after both sides have finished.
+         */
+        private void visitNode(int parentNode, int childNode, int pathLength) {
+            if (maze.isWall(childNode) || sharedState.isClaimed(childNode, side)) {
+                return;
+            }
+            parentNodes[childNode] = parentNode;
+            pathLengths[childNode] = pathLength;
+
+            if (sharedState.claim(childNode, side)) {
+                sharedState.meet(childNode, pathLength + otherSide.pathLengths[childNode]);
+            }
+            frontier.add(childNode);
+        }
+    }
+}
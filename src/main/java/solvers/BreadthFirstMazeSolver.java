@@ -0,0 +1,83 @@
+package solvers;
+
+import domain.Maze;
+
+import java.util.BitSet;
+
+/**
+ * Solves the maze with a breadth first search over the cell indices - the path found is one of the shortest paths from start to exit.
+ * The search state is kept in the SearchBuffers of the solving thread.
+ */
+public class BreadthFirstMazeSolver implements MazeSolver {
+
+    @Override
+    public int[] solve(Maze maze, int startIndex, int exitIndex, SearchStatistics statistics) {
+        int width = maze.getMazeWidth();
+        int cellCount = maze.getCellCount();
+
+        SearchBuffers buffers = SearchBuffers.acquire(cellCount);
+        int[] parentNodes = buffers.getParentNodes();
+        BitSet visitedNodes = buffers.getMarkedNodes();
+        IntRingQueue frontier = buffers.getFrontier();
+
+        parentNodes[startIndex] = Maze.NO_CELL;
+        visitedNodes.set(startIndex);
+        frontier.add(startIndex);
+
+        boolean isExitReached = false;
+        long nodesExpanded = 0;
+        int peakFrontier = 1;
+
+        while (!frontier.isEmpty()) {
+            int node = frontier.remove();
+
+            if (node == exitIndex) {
+                isExitReached = true;
+                break;
+            }
+
+            ++nodesExpanded;
+            int column = node % width;
+
+            if (node >= width) {
+                visitNode(maze, node, node - width, parentNodes, visitedNodes, frontier);
+            }
+            if (node < cellCount - width) {
+                visitNode(maze, node, node + width, parentNodes, visitedNodes, frontier);
+            }
+            if (column != width - 1) {
+                visitNode(maze, node, node + 1, parentNodes, visitedNodes, frontier);
+            }
+            if (column != 0) {
+                visitNode(maze, node, node - 1, parentNodes, visitedNodes, frontier);
+            }
+            peakFrontier = Math.max(peakFrontier, frontier.size());
+        }
+
+        if (statistics != null) {
+            statistics.record(nodesExpanded, peakFrontier);
+        }
+        return isExitReached ? parentNodes : null;
+    }
+
+
+    /**
+     * Adds the given neighboring node to the frontier if it is a clear path that has not been visited yet.
+     *
+     * @param maze          The maze object.
+     * @param parentNode    The node being expanded.
+     * @param childNode     The neighboring node.
+     * @param parentNodes   The parent index of every visited node.
+     * @param visitedNodes  The visited nodes.
+     * @param frontier      The queue of nodes to expand.
+     */
+    private static void visitNode(Maze maze, int parentNode, int childNode, int[] parentNodes, BitSet visitedNodes, IntRingQueue frontier) {
+        if (visitedNodes.get(childNode) || maze.isWall(childNode)) {
+            return;
+        }
+
+        visitedNodes.set(childNode);
+        parentNodes[childNode] = parentNode;
+        frontier.add(childNode);
+    }
+}
@@ -0,0 +1,30 @@
+package solvers;
+
+import domain.Maze;
+import domain.MazeTree;
+import domain.Position;
+
+/**
+ * Solves the maze with the depth first MazeTree walk - finds the first valid route, which is not necessarily the shortest one.
+ */
+public class DepthFirstMazeSolver implements MazeSolver {
+
+    @Override
+    public int[] solve(Maze maze, int startIndex, int exitIndex, SearchStatistics statistics) {
+        Position startPosition = new Position(maze.getCoordX(startIndex), maze.getCoordY(startIndex), maze);
+        Position exitPosition = new Position(maze.getCoordX(exitIndex), maze.getCoordY(exitIndex), maze);
+
+        MazeTree tree = MazeTree.getMazeTree(startPosition, exitPosition, maze);
+        if (tree == null) {
+            return null;
+        }
+
+        SearchBuffers buffers = SearchBuffers.acquire(maze.getCellCount());
+        tree.createTree(buffers.getParentNodes(), buffers.getMarkedNodes(), buffers.getClosedNodes());
+
+        if (statistics != null) {
+            statistics.record(tree.getVisitedNodeCount(), tree.getPeakDepth());
+        }
+        return tree.isSolvable() ? tree.getParentNodes() : null;
+    }
+}
@@ -0,0 +1,96 @@
+package solvers;
+
+import domain.Maze;
+
+import java.util.BitSet;
+
+/**
+ * Solves the maze with Dijkstra's algorithm over the cell costs - stepping onto a cell costs its cost digit, or 1 for a clear path.
+ * The cell costs are small integers, so the open cells are kept in a ring of buckets by path cost instead of a heap, and every cell
+ * is added and removed in constant time. The path found is one of the cheapest paths from start to exit, and one of the shortest
+ * on a maze without weighted cells. The search state is kept in the SearchBuffers of the solving thread.
+ */
+public class DijkstraMazeSolver implements MazeSolver {
+
+    @Override
+    public int[] solve(Maze maze, int startIndex, int exitIndex, SearchStatistics statistics) {
+        int width = maze.getMazeWidth();
+        int cellCount = maze.getCellCount();
+
+        SearchBuffers buffers = SearchBuffers.acquire(cellCount);
+        int[] parentNodes = buffers.getParentNodes();
+        int[] pathCosts = buffers.getPathCosts();
+        BitSet reachedNodes = buffers.getMarkedNodes();
+        IntBucketQueue openList = buffers.getCostBuckets();
+
+        parentNodes[startIndex] = Maze.NO_CELL;
+        pathCosts[startIndex] = 0;
+        reachedNodes.set(startIndex);
+        openList.add(startIndex, 0);
+
+        boolean isExitReached = false;
+        long nodesExpanded = 0;
+        int peakFrontier = 1;
+
+        while (!openList.isEmpty()) {
+            int node = openList.remove();
+
+            if (openList.getCurrentKey() > pathCosts[node]) {
+                continue;
+            }
+
+            if (node == exitIndex) {
+                isExitReached = true;
+                break;
+            }
+
+            ++nodesExpanded;
+            int column = node % width;
+
+            if (node >= width) {
+                visitNode(maze, node, node - width, parentNodes, pathCosts, reachedNodes, openList);
+            }
+            if (node < cellCount - width) {
+                visitNode(maze, node, node + width, parentNodes, pathCosts, reachedNodes, openList);
+            }
+            if (column != width - 1) {
+                visitNode(maze, node, node + 1, parentNodes, pathCosts, reachedNodes, openList);
+            }
+            if (column != 0) {
+                visitNode(maze, node, node - 1, parentNodes, pathCosts, reachedNodes, openList);
+            }
+            peakFrontier = Math.max(peakFrontier, openList.size());
+        }
+
+        if (statistics != null) {
+            statistics.record(nodesExpanded, peakFrontier);
+        }
+        return isExitReached ? parentNodes : null;
+    }
+
+
+    /**
+     * Adds the given neighboring node to the open list if it is a clear path not reached before, or reached more cheaply than before.
+     *
+     * @param maze          The maze object.
+     * @param parentNode    The node being expanded.
+     * @param childNode     The neighboring node.
+     * @param parentNodes   The parent index of every reached node.
+     * @param pathCosts     The cheapest known path cost of every reached node.
+     * @param reachedNodes  The nodes reached so far.
+     * @param openList      The nodes to expand, by path cost.
+     */
+    private static void visitNode(Maze maze, int parentNode, int childNode, int[] parentNodes, int[] pathCosts, BitSet reachedNodes, IntBucketQueue openList) {
+        if (maze.isWall(childNode)) {
+            return;
+        }
+
+        int pathCost = pathCosts[parentNode] + maze.getCellCost(childNode);
+        if (!reachedNodes.get(childNode) || pathCost < pathCosts[childNode]) {
+            reachedNodes.set(childNode);
+            pathCosts[childNode] = pathCost;
+            parentNodes[childNode] = parentNode;
+            openList.add(childNode, pathCost);
+        }
+    }
+}
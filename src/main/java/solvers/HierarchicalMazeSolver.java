@@ -0,0 +1,205 @@
+package solvers;
+
+import domain.ClusterAbstraction;
+import domain.ClusterSearch;
+import domain.Maze;
+
+import java.util.BitSet;
+
+/**
+ * Hierarchical path finding (HPA*) - the maze is split into square clusters, and A* runs over the abstract graph of their entrances
+ * instead of the cells. The start and the exit are first connected to the entrances of their own clusters by a search of just that
+ * cluster, and the abstract path is then refined into cells cluster by cluster, so a query only searches the clusters along its route.
+ * The abstraction is built once per maze and reused by every solve, and the node costs a solve sets are told from those of the last
+ * solve by a stamp, so a query costs the nodes and cells it visits rather than the size of the graph. The path found is near
+ * the shortest one but not always the shortest, as a cluster is only entered and left at its entrances.
+ */
+public class HierarchicalMazeSolver implements MazeSolver {
+
+    private static final int UNREACHED = Integer.MAX_VALUE;
+
+    private Maze maze;
+    private ClusterAbstraction abstraction;
+    private SearchBuffers buffers;
+    private ClusterSearch clusterSearch;
+
+
+    @Override
+    public int[] solve(Maze maze, int startIndex, int exitIndex, SearchStatistics statistics) {
+        if (maze.isWall(startIndex) || maze.isWall(exitIndex)) {
+            return null;
+        }
+
+        this.maze = maze;
+        this.abstraction = maze.getClusterAbstraction();
+        this.buffers = SearchBuffers.acquire(maze.getCellCount());
+        this.clusterSearch = buffers.getClusterSearch(maze, abstraction.getClusterSize());
+
+        int nodeCount = abstraction.getNodeCount();
+        int[] pathLengths = buffers.getNodeCosts(nodeCount);
+        int[] parentNodes = buffers.getNodeParents(nodeCount);
+        int[] exitLengths = buffers.getExitNodeCosts(nodeCount);
+        IntMinHeap openList = buffers.getOpenList();
+        int stamp = buffers.nextNodeStamp(nodeCount);
+        int[] stamps = buffers.getNodeStamps();
+        int[] exitStamps = buffers.getExitNodeStamps();
+
+        int startCluster = abstraction.getCluster(startIndex);
+        int exitCluster = abstraction.getCluster(exitIndex);
+
+        clusterSearch.search(exitIndex, Maze.NO_CELL);
+        for (int i = abstraction.getFirstClusterNode(exitCluster); i < abstraction.getFirstClusterNode(exitCluster + 1); ++i) {
+            int node = abstraction.getClusterNode(i);
+            int length = clusterSearch.getDistance(abstraction.getNodeCell(node));
+
+            if (length >= 0) {
+                exitLengths[node] = length;
+                exitStamps[node] = stamp;
+            }
+        }
+
+        clusterSearch.search(startIndex, Maze.NO_CELL);
+        int bestLength = (startCluster == exitCluster && clusterSearch.getDistance(exitIndex) >= 0) ? clusterSearch.getDistance(exitIndex) : UNREACHED;
+
+        for (int i = abstraction.getFirstClusterNode(startCluster); i < abstraction.getFirstClusterNode(startCluster + 1); ++i) {
+            int node = abstraction.getClusterNode(i);
+            int length = clusterSearch.getDistance(abstraction.getNodeCell(node));
+
+            if (length >= 0) {
+                pathLengths[node] = length;
+                parentNodes[node] = ClusterAbstraction.NO_NODE;
+                stamps[node] = stamp;
+                openList.add(node, length + getDistanceToExit(node, exitIndex));
+            }
+        }
+
+        int bestExitNode = ClusterAbstraction.NO_NODE;
+        long nodesExpanded = 0;
+        int peakFrontier = openList.size();
+
+        while (!openList.isEmpty() && openList.peekKey() < bestLength) {
+            int key = openList.peekKey();
+            int node = openList.remove();
+            int pathLength = pathLengths[node];
+
+            if (key > pathLength + getDistanceToExit(node, exitIndex)) {
+                continue;
+            }
+            ++nodesExpanded;
+
+            if (exitStamps[node] == stamp && pathLength + exitLengths[node] < bestLength) {
+                bestLength = pathLength + exitLengths[node];
+                bestExitNode = node;
+            }
+
+            for (int edge = abstraction.getFirstEdge(node); edge < abstraction.getFirstEdge(node + 1); ++edge) {
+                int target = abstraction.getEdgeTarget(edge);
+                int targetLength = pathLength + abstraction.getEdgeCost(edge);
+
+                if (stamps[target] != stamp || targetLength < pathLengths[target]) {
+                    pathLengths[target] = targetLength;
+                    parentNodes[target] = node;
+                    stamps[target] = stamp;
+                    openList.add(target, targetLength + getDistanceToExit(target, exitIndex));
+                }
+            }
+            peakFrontier = Math.max(peakFrontier, openList.size());
+        }
+
+        if (statistics != null) {
+            statistics.record(nodesExpanded, peakFrontier);
+        }
+
+        if (bestLength == UNREACHED) {
+            return null;
+        }
+        return refinePath(startIndex, exitIndex, bestExitNode, parentNodes);
+    }
+
+
+    /**
+     * Refines the abstract path ending at the given node into cells, searching each cluster along the way between the cells the path
+     * enters and leaves it at. A cell reached twice closes a loop, which is cut out of the path.
+     *
+     * @param startIndex    The index of the start cell.
+     * @param exitIndex     The index of the exit cell.
+     * @param lastNode      The last node of the abstract path, or NO_NODE if the exit is reached within the start cluster.
+     * @param parentNodes   The parent of every node of the abstract path - the path is reversed in place to run from the start.
+     *
+     * @return int[] - the parent of every cell of the path.
+     */
+    private int[] refinePath(int startIndex, int exitIndex, int lastNode, int[] parentNodes) {
+        int firstNode = ClusterAbstraction.NO_NODE;
+        for (int node = lastNode; node != ClusterAbstraction.NO_NODE; ) {
+            int parent = parentNodes[node];
+            parentNodes[node] = firstNode;
+            firstNode = node;
+            node = parent;
+        }
+
+        BitSet onPath = buffers.getMarkedNodes();
+        int[] pathCells = buffers.getPathCells(64);
+        int pathSize = 0;
+        pathCells[pathSize++] = startIndex;
+        onPath.set(startIndex);
+
+        int from = startIndex;
+        for (int node = firstNode; from != exitIndex; node = (node == ClusterAbstraction.NO_NODE) ? node : parentNodes[node]) {
+            int to = (node == ClusterAbstraction.NO_NODE) ? exitIndex : abstraction.getNodeCell(node);
+
+            if (abstraction.getCluster(from) != abstraction.getCluster(to)) {
+                pathSize = appendCell(to, pathSize, onPath);
+            } else {
+                clusterSearch.search(to, from);
+                for (int cell = clusterSearch.getParent(from); cell != Maze.NO_CELL; cell = clusterSearch.getParent(cell)) {
+                    pathSize = appendCell(cell, pathSize, onPath);
+                }
+            }
+            from = to;
+        }
+
+        pathCells = buffers.getPathCells(pathSize);
+        int[] parentCells = buffers.getParentNodes();
+        parentCells[startIndex] = Maze.NO_CELL;
+        onPath.clear(startIndex);
+        for (int i = 1; i < pathSize; ++i) {
+            parentCells[pathCells[i]] = pathCells[i - 1];
+            onPath.clear(pathCells[i]);
+        }
+        return parentCells;
+    }
+
+
+    /**
+     * Appends the given cell to the refined path - appending a cell already on the path removes the cells after it instead.
+     *
+     * @param cell      The cell index.
+     * @param pathSize  The number of cells of the path.
+     * @param onPath    The cells of the path.
+     *
+     * @return int - the new number of cells of the path.
+     */
+    private int appendCell(int cell, int pathSize, BitSet onPath) {
+        int[] pathCells = buffers.getPathCells(pathSize + 1);
+
+        if (onPath.get(cell)) {
+            while (pathCells[pathSize - 1] != cell) {
+                onPath.clear(pathCells[--pathSize]);
+            }
+            return pathSize;
+        }
+
+        onPath.set(cell);
+        pathCells[pathSize] = cell;
+        return pathSize + 1;
+    }
+
+
+    /**
+     * Returns the number of steps from the cell of the given node to the exit when there are no walls - it never overestimates
+     * the path length, so A* over the abstract graph stays admissible.
+     */
+    private int getDistanceToExit(int node, int exitIndex) {
+        int cell = abstraction.getNodeCell(node);
+        return Math.abs(maze.getCoordX(cell) - maze.getCoordX(exitIndex)) + Math.abs(maze.getCoordY(cell) - maze.getCoordY(exitIndex));
+    }}
@@ -0,0 +1,211 @@
+package solvers;
+
+import domain.Maze;
+import domain.MutableMaze;
+
+import java.util.Arrays;
+
+/**
+ * Keeps a shortest path between two cells of a MutableMaze, repairing it after the walls change (Lifelong Planning A*).
+ * Every cell keeps its distance from the start as of the last search and a one step lookahead from its neighbors - a wall edit
+ * only updates the lookahead of the edited cell and its neighbors, and the next search only expands the cells whose distance changed
+ * and that can still lie on a shorter path to the exit. The first search costs about as much as A*, and a repair after a few edits
+ * costs about the size of the region they affect.
+ *
+ * The solver listens to the wall edits of its maze, so any number of solvers can keep their paths on the same maze. An instance
+ * is not safe to use from several threads. Unlike a MazeSolver, which returns the parent of every cell, solvePath returns the path
+ * cells themselves, in order from start to exit.
+ */
+public final class IncrementalMazeSolver {
+
+    private static final int UNREACHED = Integer.MAX_VALUE;
+    private static final int[] DIRECTIONS = {Maze.NORTH, Maze.SOUTH, Maze.EAST, Maze.WEST};
+
+    private final MutableMaze maze;
+    private final int startIndex;
+    private final int exitIndex;
+    private final int[] pathLengths;
+    private final int[] lookaheadLengths;
+    private final LongKeyMinHeap openList = new LongKeyMinHeap();
+
+
+    /**
+     * Factory constructor - creates a solver for the path between the given cells of the given maze, repaired after every wall edit
+     * of the maze.
+     *
+     * @param maze        The mutable maze object.
+     * @param startIndex  The index of the start cell.
+     * @param exitIndex   The index of the exit cell.
+     *
+     * @return IncrementalMazeSolver.
+     */
+    public static IncrementalMazeSolver initSolver(MutableMaze maze, int startIndex, int exitIndex) {
+        if (maze == null) {
+            return null;
+        }
+
+        IncrementalMazeSolver solver = new IncrementalMazeSolver(maze, startIndex, exitIndex);
+        maze.addWallListener(solver::updateWall);
+        return solver;
+    }
+
+
+    /**
+     * Repairs the shortest path after the wall edits since the last call, or finds it on the first call.
+     *
+     * @return int[] - the cell indices in order from start to exit, or null if the exit cannot be reached.
+     */
+    public int[] solvePath() {
+        return solvePath(null);
+    }
+
+
+    /**
+     * Repairs the shortest path after the wall edits since the last call, or finds it on the first call, recording the search counters
+     * of the repair.
+     *
+     * @param statistics  The statistics to record the search counters in, or null to skip them.
+     *
+     * @return int[] - the cell indices in order from start to exit, or null if the exit cannot be reached.
+     */
+    public int[] solvePath(SearchStatistics statistics) {
+        long nodesExpanded = 0;
+        int peakFrontier = openList.size();
+
+        while (!openList.isEmpty()) {
+            int cell = openList.peek();
+
+            if (pathLengths[cell] == lookaheadLengths[cell] || openList.peekKey() != getKey(cell)) {
+                openList.remove();
+                continue;
+            }
+
+            if (openList.peekKey() >= getKey(exitIndex) && pathLengths[exitIndex] == lookaheadLengths[exitIndex]) {
+                break;
+            }
+            openList.remove();
+            ++nodesExpanded;
+
+            if (pathLengths[cell] > lookaheadLengths[cell]) {
+                pathLengths[cell] = lookaheadLengths[cell];
+            } else {
+                pathLengths[cell] = UNREACHED;
+                updateCell(cell);
+            }
+
+            for (int direction : DIRECTIONS) {
+                int neighbor = maze.getNeighbor(cell, direction);
+
+                if (neighbor != Maze.NO_CELL) {
+                    updateCell(neighbor);
+                }
+            }
+            peakFrontier = Math.max(peakFrontier, openList.size());
+        }
+
+        if (statistics != null) {
+            statistics.record(nodesExpanded, peakFrontier);
+        }
+        return getPathCells();
+    }
+
+
+    private IncrementalMazeSolver(MutableMaze maze, int startIndex, int exitIndex) {
+        this.maze = maze;
+        this.startIndex = startIndex;
+        this.exitIndex = exitIndex;
+        this.pathLengths = new int[maze.getCellCount()];
+        this.lookaheadLengths = new int[maze.getCellCount()];
+
+        Arrays.fill(pathLengths, UNREACHED);
+        Arrays.fill(lookaheadLengths, UNREACHED);
+        updateCell(startIndex);
+    }
+
+
+    /**
+     * Updates the lookahead of a cell whose wall changed and of its neighbors - the path is repaired by the next call to solvePath.
+     */
+    private void updateWall(int index) {
+        updateCell(index);
+        for (int direction : DIRECTIONS) {
+            int neighbor = maze.getNeighbor(index, direction);
+
+            if (neighbor != Maze.NO_CELL) {
+                updateCell(neighbor);
+            }
+        }
+    }
+
+
+    /**
+     * Sets the lookahead of the given cell from its neighbors, and adds the cell to the open list if its distance no longer matches it.
+     */
+    private void updateCell(int index) {
+        if (maze.isWall(index)) {
+            lookaheadLengths[index] = UNREACHED;
+        } else if (index == startIndex) {
+            lookaheadLengths[index] = 0;
+        } else {
+            int lookaheadLength = UNREACHED;
+
+            for (int direction : DIRECTIONS) {
+                int neighbor = maze.getNeighbor(index, direction);
+
+                if (neighbor != Maze.NO_CELL && !maze.isWall(neighbor) && pathLengths[neighbor] < lookaheadLength - 1) {
+                    lookaheadLength = pathLengths[neighbor] + 1;
+                }
+            }
+            lookaheadLengths[index] = lookaheadLength;
+        }
+
+        if (pathLengths[index] != lookaheadLengths[index]) {
+            openList.add(index, getKey(index));
+        }
+    }
+
+
+    /**
+     * Returns the open list key of the given cell - the estimated path length through the cell in the upper half and the distance
+     * from the start in the lower half, so equal estimates are ordered by the distance.
+     */
+    private long getKey(int index) {
+        int length = Math.min(pathLengths[index], lookaheadLengths[index]);
+
+        if (length == UNREACHED) {
+            return Long.MAX_VALUE;
+        }
+
+        int distanceToExit = Math.abs(maze.getCoordX(index) - maze.getCoordX(exitIndex)) + Math.abs(maze.getCoordY(index) - maze.getCoordY(exitIndex));
+        return ((long) (length + distanceToExit) << 32) | length;
+    }
+
+
+    /**
+     * Walks back from the exit to the start, each step to the neighbor closest to the start.
+     *
+     * @return int[] - the cell indices in order from start to exit, or null if the exit cannot be reached.
+     */
+    private int[] getPathCells() {
+        if (pathLengths[exitIndex] == UNREACHED) {
+            return null;
+        }
+
+        int[] pathCells = new int[pathLengths[exitIndex] + 1];
+        int cell = exitIndex;
+        pathCells[pathLengths[exitIndex]] = cell;
+
+        for (int step = pathLengths[exitIndex] - 1; step >= 0; --step) {
+            for (int direction : DIRECTIONS) {
+                int neighbor = maze.getNeighbor(cell, direction);
+
+                if (neighbor != Maze.NO_CELL && !maze.isWall(neighbor) && pathLengths[neighbor] == step) {
+                    cell = neighbor;
+                    break;
+                }
+            }
+            pathCells[step] = cell;
+        }
+        return pathCells;
+    }
+}
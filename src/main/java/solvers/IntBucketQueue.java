@@ -0,0 +1,82 @@
+package solvers;
+
+/**
+ * A monotone priority queue of primitive int elements with int keys, kept in a ring of first-in first-out buckets (Dial's buckets).
+ * The keys added must lie between the key of the last removed element and that key plus the largest key step, so every key has
+ * its own bucket in the ring and both adding and removing take constant time.
+ */
+final class IntBucketQueue {
+
+    private final IntRingQueue[] buckets;
+    private int currentKey;
+    private int size;
+
+
+    /**
+     * Constructor.
+     *
+     * @param maxKeyStep  The largest difference between the key of an added element and the key of the last removed element.
+     */
+    IntBucketQueue(int maxKeyStep) {
+        this.buckets = new IntRingQueue[maxKeyStep + 1];
+
+        for (int i = 0; i < buckets.length; ++i) {
+            buckets[i] = new IntRingQueue();
+        }
+    }
+
+
+    void add(int element, int key) {
+        buckets[key % buckets.length].add(element);
+        ++size;
+    }
+
+
+    /**
+     * Removes and returns an element with the smallest key - the queue must not be empty.
+     *
+     * @return int.
+     */
+    int remove() {
+        IntRingQueue bucket = buckets[currentKey % buckets.length];
+
+        while (bucket.isEmpty()) {
+            ++currentKey;
+            bucket = buckets[currentKey % buckets.length];
+        }
+        --size;
+        return bucket.remove();
+    }
+
+
+    /**
+     * Returns the key of the last removed element.
+     *
+     * @return int.
+     */
+    int getCurrentKey() {
+        return currentKey;
+    }
+
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+
+    int size() {
+        return size;
+    }
+
+
+    /**
+     * Removes every element and starts the keys again from 0.
+     */
+    void clear() {
+        for (IntRingQueue bucket : buckets) {
+            bucket.clear();
+        }
+        currentKey = 0;
+        size = 0;
+    }
+}
@@ -0,0 +1,107 @@
+package solvers;
+
+import java.util.Arrays;
+
+/**
+ * A binary min heap of primitive int elements ordered by an int key - the backing arrays double in size when they are full.
+ * There is no decrease-key operation: an element is added again with its smaller key and the stale entry is skipped by the caller.
+ */
+final class IntMinHeap {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private int[] elements;
+    private int[] keys;
+    private int size;
+
+
+    IntMinHeap() {
+        this.elements = new int[DEFAULT_CAPACITY];
+        this.keys = new int[DEFAULT_CAPACITY];
+    }
+
+
+    void add(int element, int key) {
+        if (size == elements.length) {
+            grow();
+        }
+
+        int position = size++;
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+
+            if (keys[parent] <= key) {
+                break;
+            }
+            elements[position] = elements[parent];
+            keys[position] = keys[parent];
+            position = parent;
+        }
+        elements[position] = element;
+        keys[position] = key;
+    }
+
+
+    /**
+     * Returns the key of the element at the top of the heap - the heap must not be empty.
+     *
+     * @return int.
+     */
+    int peekKey() {
+        return keys[0];
+    }
+
+
+    /**
+     * Removes and returns the element with the smallest key - the heap must not be empty.
+     *
+     * @return int.
+     */
+    int remove() {
+        int topElement = elements[0];
+        int lastElement = elements[--size];
+        int lastKey = keys[size];
+
+        int position = 0;
+        int half = size >>> 1;
+        while (position < half) {
+            int child = (position << 1) + 1;
+
+            if (child + 1 < size && keys[child + 1] < keys[child]) {
+                ++child;
+            }
+
+            if (lastKey <= keys[child]) {
+                break;
+            }
+            elements[position] = elements[child];
+            keys[position] = keys[child];
+            position = child;
+        }
+        elements[position] = lastElement;
+        keys[position] = lastKey;
+        return topElement;
+    }
+
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+
+    int size() {
+        return size;
+    }
+
+
+    void clear() {
+        size = 0;
+    }
+
+
+    private void grow() {
+        int capacity = elements.length << 1;
+        elements = Arrays.copyOf(elements, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+    }
+}
@@ -0,0 +1,65 @@
+package solvers;
+
+/**
+ * A first-in first-out queue of primitive ints backed by a ring buffer, which doubles in size when it is full.
+ */
+final class IntRingQueue {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private int[] elements;
+    private int head;
+    private int size;
+
+
+    IntRingQueue() {
+        this.elements = new int[DEFAULT_CAPACITY];
+    }
+
+
+    void add(int element) {
+        if (size == elements.length) {
+            grow();
+        }
+        elements[(head + size) & (elements.length - 1)] = element;
+        ++size;
+    }
+
+
+    int remove() {
+        int element = elements[head];
+        head = (head + 1) & (elements.length - 1);
+        --size;
+        return element;
+    }
+
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+
+    int size() {
+        return size;
+    }
+
+
+    void clear() {
+        head = 0;
+        size = 0;
+    }
+
+
+    /**
+     * Doubles the capacity, unrolling the elements to the start of the new buffer.
+     */
+    private void grow() {
+        int[] grownElements = new int[elements.length << 1];
+        int firstPart = elements.length - head;
+
+        System.arraycopy(elements, head, grownElements, 0, firstPart);
+        System.arraycopy(elements, 0, grownElements, firstPart, head);
+        elements = grownElements;
+        head = 0;
+    }
+}
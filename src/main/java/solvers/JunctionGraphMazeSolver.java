@@ -0,0 +1,307 @@
+package solvers;
+
+import domain.JunctionGraph;
+import domain.Maze;
+
+import java.util.BitSet;
+
+/**
+ * Solves the maze on its junction graph instead of its cells - the start and the exit first follow the filled dead ends towards the core,
+ * where a cell of a corridor is attached to the nodes at both ends of the corridor, and Dijkstra's algorithm runs over the weighted edges
+ * between the attached nodes. The path is then expanded back to cells by walking the corridors of the chosen edges again.
+ * The graph is built once per maze and reused by every solve, and the path found is one of the shortest paths from start to exit.
+ * Open mazes hardly contract, as most of their cells are junctions - when more than a quarter of the clear cells are nodes, the maze
+ * has no graph and the cells are searched breadth first instead. The search state is kept in the SearchBuffers of the solving thread.
+ */
+public class JunctionGraphMazeSolver implements MazeSolver {
+
+    private static final int NO_EDGE = -1;
+    private static final int UNREACHED = Integer.MAX_VALUE;
+
+    private Maze maze;
+    private JunctionGraph graph;
+    private SearchBuffers buffers;
+    private int[] parentNodes;
+
+
+    @Override
+    public int[] solve(Maze maze, int startIndex, int exitIndex, SearchStatistics statistics) {
+        if (maze.isWall(startIndex) || maze.isWall(exitIndex)) {
+            return null;
+        }
+
+        this.maze = maze;
+        this.graph = maze.getJunctionGraph();
+
+        if (graph == null) {
+            return new BreadthFirstMazeSolver().solve(maze, startIndex, exitIndex, statistics);
+        }
+
+        this.buffers = SearchBuffers.acquire(maze.getCellCount());
+        this.parentNodes = buffers.getParentNodes();
+        parentNodes[startIndex] = Maze.NO_CELL;
+
+        int startCore = startIndex;
+        int exitCore = exitIndex;
+
+        while (startCore != exitCore && !(graph.isCore(startCore) && graph.isCore(exitCore))) {
+            if (graph.getFillOrder(startCore) < graph.getFillOrder(exitCore)) {
+                startCore = graph.getCoreward(startCore);
+            } else {
+                exitCore = graph.getCoreward(exitCore);
+            }
+
+            if (startCore == Maze.NO_CELL || exitCore == Maze.NO_CELL) {
+                return null;
+            }
+        }
+
+        setTowardsCore(startIndex, startCore);
+        setFromCore(exitIndex, exitCore);
+
+        if (startCore == exitCore || solveCore(startCore, exitCore, statistics)) {
+            return parentNodes;
+        }
+        return null;
+    }
+
+
+    /**
+     * Finds the shortest path between two core cells over the junction graph and sets the parents of its cells.
+     *
+     * @param startCore   The core cell on the start side.
+     * @param exitCore    The core cell on the exit side.
+     * @param statistics  The statistics to record the search counters in, or null.
+     *
+     * @return boolean - false if the cells are not connected.
+     */
+    private boolean solveCore(int startCore, int exitCore, SearchStatistics statistics) {
+        Attachment startAttachment = new Attachment(startCore, exitCore);
+        Attachment exitAttachment = new Attachment(exitCore, Maze.NO_CELL);
+
+        int nodeCount = graph.getNodeCount();
+        int[] pathLengths = buffers.getPathCosts();
+        int[] parentEdges = buffers.getNodeEdges(nodeCount);
+        int[] parentGraphNodes = buffers.getNodeParents(nodeCount);
+        BitSet reachedNodes = buffers.getMarkedNodes();
+        IntMinHeap openList = buffers.getOpenList();
+
+        for (int i = 0; i < startAttachment.nodeCount; ++i) {
+            int node = startAttachment.nodes[i];
+
+            if (!reachedNodes.get(node) || startAttachment.lengths[i] < pathLengths[node]) {
+                reachedNodes.set(node);
+                pathLengths[node] = startAttachment.lengths[i];
+                parentEdges[node] = NO_EDGE;
+                parentGraphNodes[node] = i;
+                openList.add(node, pathLengths[node]);
+            }
+        }
+
+        int bestLength = startAttachment.directLength;
+        int bestExitNode = JunctionGraph.NO_NODE;
+        int bestExitAttachment = -1;
+        long nodesExpanded = 0;
+        int peakFrontier = openList.size();
+
+        while (!openList.isEmpty() && openList.peekKey() < bestLength) {
+            int pathLength = openList.peekKey();
+            int node = openList.remove();
+
+            if (pathLength > pathLengths[node]) {
+                continue;
+            }
+            ++nodesExpanded;
+
+            for (int i = 0; i < exitAttachment.nodeCount; ++i) {
+                if (exitAttachment.nodes[i] == node && pathLength + exitAttachment.lengths[i] < bestLength) {
+                    bestLength = pathLength + exitAttachment.lengths[i];
+                    bestExitNode = node;
+                    bestExitAttachment = i;
+                }
+            }
+
+            for (int edge = graph.getFirstEdge(node); edge < graph.getFirstEdge(node + 1); ++edge) {
+                int target = graph.getEdgeTarget(edge);
+                int targetLength = pathLength + graph.getEdgeLength(edge);
+
+                if (!reachedNodes.get(target) || targetLength < pathLengths[target]) {
+                    reachedNodes.set(target);
+                    pathLengths[target] = targetLength;
+                    parentEdges[target] = edge;
+                    parentGraphNodes[target] = node;
+                    openList.add(target, targetLength);
+                }
+            }
+            peakFrontier = Math.max(peakFrontier, openList.size());
+        }
+
+        if (statistics != null) {
+            statistics.record(nodesExpanded, peakFrontier);
+        }
+
+        if (bestLength == UNREACHED) {
+            return false;
+        }
+
+        if (bestExitNode == JunctionGraph.NO_NODE) {
+            walkCorridor(startCore, startAttachment.directFirstCell, exitCore);
+            return true;
+        }
+
+        int node = bestExitNode;
+        while (parentEdges[node] != NO_EDGE) {
+            int parentNode = parentGraphNodes[node];
+            int edge = parentEdges[node];
+            walkEdge(graph.getNodeCell(parentNode), graph.getEdgeDirection(edge));
+            node = parentNode;
+        }
+
+        int firstAttachment = parentGraphNodes[node];
+        if (startAttachment.firstCells[firstAttachment] != Maze.NO_CELL) {
+            walkCorridor(startCore, startAttachment.firstCells[firstAttachment], graph.getNodeCell(node));
+        }
+
+        if (exitAttachment.firstCells[bestExitAttachment] != Maze.NO_CELL) {
+            setCorridorFromExit(exitCore, exitAttachment.firstCells[bestExitAttachment]);
+        }
+        return true;
+    }
+
+
+    /**
+     * Sets the parents from the given start cell along the filled cells up to its core cell.
+     */
+    private void setTowardsCore(int startIndex, int startCore) {
+        for (int cell = startIndex; cell != startCore; ) {
+            int next = graph.getCoreward(cell);
+            parentNodes[next] = cell;
+            cell = next;
+        }
+    }
+
+
+    /**
+     * Sets the parents from the given core cell along the filled cells down to the exit cell.
+     */
+    private void setFromCore(int exitIndex, int exitCore) {
+        for (int cell = exitIndex; cell != exitCore; cell = parentNodes[cell]) {
+            parentNodes[cell] = graph.getCoreward(cell);
+        }
+    }
+
+
+    /**
+     * Sets the parents along the corridor from the given cell, through the given first cell, up to the last cell.
+     */
+    private void walkCorridor(int fromCell, int firstCell, int lastCell) {
+        int previous = fromCell;
+        int cell = firstCell;
+
+        while (true) {
+            parentNodes[cell] = previous;
+
+            if (cell == lastCell) {
+                return;
+            }
+            int next = graph.getNextCorridorCell(previous, cell);
+            previous = cell;
+            cell = next;
+        }
+    }
+
+
+    /**
+     * Sets the parents along the corridor of an edge, from its node in its first direction up to the node at its other end.
+     */
+    private void walkEdge(int nodeCell, int direction) {
+        int previous = nodeCell;
+        int cell = maze.getNeighbor(nodeCell, direction);
+
+        while (true) {
+            parentNodes[cell] = previous;
+
+            if (graph.isNode(cell)) {
+                return;
+            }
+            int next = graph.getNextCorridorCell(previous, cell);
+            previous = cell;
+            cell = next;
+        }
+    }
+
+
+    /**
+     * Sets the parents along the corridor from the node at its end, reached through the given first cell, back to the exit core cell.
+     * The corridor is walked from the exit, so each cell gets the next one as its parent.
+     */
+    private void setCorridorFromExit(int exitCore, int firstCell) {
+        int previous = exitCore;
+        int cell = firstCell;
+
+        while (true) {
+            parentNodes[previous] = cell;
+
+            if (graph.isNode(cell)) {
+                return;
+            }
+            int next = graph.getNextCorridorCell(previous, cell);
+            previous = cell;
+            cell = next;
+        }
+    }
+
+
+    /**
+     * The nodes a core cell is attached to - the cell itself if it is a node, otherwise the nodes at both ends of its corridor.
+     */
+    private final class Attachment {
+
+        private final int[] nodes = new int[2];
+        private final int[] lengths = new int[2];
+        private final int[] firstCells = new int[2];
+        private int nodeCount;
+        private int directLength = UNREACHED;
+        private int directFirstCell = Maze.NO_CELL;
+
+
+        /**
+         * Constructor.
+         *
+         * @param coreCell    The core cell.
+         * @param targetCell  A cell to look for on the corridor, for a path along the corridor alone, or Maze.NO_CELL.
+         */
+        private Attachment(int coreCell, int targetCell) {
+            if (graph.isNode(coreCell)) {
+                nodes[0] = graph.getNode(coreCell);
+                firstCells[0] = Maze.NO_CELL;
+                nodeCount = 1;
+                return;
+            }
+
+            int firstCell = Maze.NO_CELL;
+            for (int i = 0; i < 2; ++i) {
+                firstCell = graph.getNextCorridorCell(firstCell, coreCell);
+                int previous = coreCell;
+                int cell = firstCell;
+                int length = 1;
+
+                while (!graph.isNode(cell)) {
+                    if (cell == targetCell && length < directLength) {
+                        directLength = length;
+                        directFirstCell = firstCell;
+                    }
+                    int next = graph.getNextCorridorCell(previous, cell);
+                    previous = cell;
+                    cell = next;
+                    ++length;
+                }
+
+                nodes[i] = graph.getNode(cell);
+                lengths[i] = length;
+                firstCells[i] = firstCell;
+            }
+            nodeCount = 2;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package solvers;
+
+import domain.Maze;
+
+/**
+ * A strategy for finding a path between two cells of a maze. The maze is only read, so any number of solves may run on one maze at once.
+ * The parent array returned may be a buffer of the solving thread that the next solve on that thread reuses - the path should be
+ * read out of it (OutputParser.getPathCells) before the thread solves again.
+ */
+public interface MazeSolver {
+
+    /**
+     * Solves the maze from the start cell to the exit cell.
+     *
+     * @param maze        The maze object.
+     * @param startIndex  The index of the start cell.
+     * @param exitIndex   The index of the exit cell.
+     *
+     * @return int[] - the parent index of the cells on the path (Maze.NO_CELL for the start cell), or null if the maze cannot be solved.
+     */
+    default int[] solve(Maze maze, int startIndex, int exitIndex) {
+        return solve(maze, startIndex, exitIndex, null);
+    }
+
+    /**
+     * Solves the maze from the start cell to the exit cell, recording the search counters when the search ends.
+     *
+     * @param maze        The maze object.
+     * @param startIndex  The index of the start cell.
+     * @param exitIndex   The index of the exit cell.
+     * @param statistics  The statistics to record the search counters in, or null to skip them.
+     *
+     * @return int[] - the parent index of the cells on the path (Maze.NO_CELL for the start cell), or null if the maze cannot be solved.
+     */
+    int[] solve(Maze maze, int startIndex, int exitIndex, SearchStatistics statistics);
+}
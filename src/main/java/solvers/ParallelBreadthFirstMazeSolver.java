@@ -0,0 +1,230 @@
+package solvers;
+
+import domain.Maze;
+import domain.SharedPools;
+
+import java.util.Arrays;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Solves the maze with a level synchronous breadth first search - the frontier of every level is split into chunks that are expanded
+ * in parallel on a ForkJoinPool, and cells are claimed with a compare and set on a packed atomic bitmap so each cell gets exactly one parent.
+ * As a level is only expanded once the previous level is complete, the path has the same length as the one of the sequential search.
+ * Small levels are expanded on the calling thread, where splitting them would cost more than it saves.
+ *
+ * A solver is created for every solve, so the levels are expanded on the SharedPools pool with the same number of threads - a search
+ * with a single thread never starts a pool. The parents, the claimed cells and the frontiers of the levels and their chunks are kept
+ * in the SearchBuffers of the solving thread, so a solve allocates nothing once they have grown to the maze.
+ */
+public class ParallelBreadthFirstMazeSolver implements MazeSolver {
+
+    private static final int PARALLEL_LEVEL_SIZE = 4096;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int WORD_INDEX_SHIFT = 6;
+
+    private final int threads;
+
+    private Maze maze;
+    private SearchBuffers buffers;
+    private int[] parentNodes;
+    private AtomicLongArray visitedNodes;
+    private int exitIndex;
+    private volatile boolean isExitReached;
+
+    private int[] frontier;
+    private int frontierSize;
+    private int chunkSize;
+    private int[][] chunkFrontiers;
+    private int[] chunkFrontierSizes;
+
+
+    public ParallelBreadthFirstMazeSolver(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+
+    @Override
+    public int[] solve(Maze maze, int startIndex, int exitIndex, SearchStatistics statistics) {
+        int cellCount = maze.getCellCount();
+
+        this.maze = maze;
+        this.exitIndex = exitIndex;
+        this.isExitReached = startIndex == exitIndex;
+        this.buffers = SearchBuffers.acquire(cellCount);
+        this.parentNodes = buffers.getParentNodes();
+        this.visitedNodes = buffers.getClaimedWords(1);
+        this.chunkFrontiers = buffers.getChunkFrontiers(threads * CHUNKS_PER_THREAD);
+        this.chunkFrontierSizes = buffers.getChunkFrontierSizes(threads * CHUNKS_PER_THREAD);
+
+        parentNodes[startIndex] = Maze.NO_CELL;
+        claimNode(startIndex);
+        frontier = buffers.getLevelFrontier(1);
+        frontier[0] = startIndex;
+        frontierSize = 1;
+
+        long nodesExpanded = 0;
+        int peakFrontier = 1;
+
+        while (frontierSize > 0 && !isExitReached) {
+            nodesExpanded += frontierSize;
+            peakFrontier = Math.max(peakFrontier, frontierSize);
+
+            int chunks = getChunkCount();
+            chunkSize = (frontierSize + chunks - 1) / chunks;
+
+            if (chunks == 1) {
+                expandChunk(0);
+            } else {
+                SharedPools.getPool(threads).invoke(new ExpandChunksTask(0, chunks));
+            }
+            mergeChunkFrontiers(chunks);
+        }
+
+        if (statistics != null) {
+            statistics.record(nodesExpanded, peakFrontier);
+        }
+        return isExitReached ? parentNodes : null;
+    }
+
+
+    /**
+     * Returns the number of chunks to split the current level into - a single chunk for small levels.
+     *
+     * @return int.
+     */
+    private int getChunkCount() {
+        if (frontierSize < PARALLEL_LEVEL_SIZE || threads == 1) {
+            return 1;
+        }
+        return Math.min(threads * CHUNKS_PER_THREAD, frontierSize / (PARALLEL_LEVEL_SIZE / CHUNKS_PER_THREAD));
+    }
+
+
+    /**
+     * Expands the nodes of the given chunk of the current level into the chunk's part of the next level.
+     *
+     * @param chunk  The chunk index.
+     */
+    private void expandChunk(int chunk) {
+        int width = maze.getMazeWidth();
+        int cellCount = maze.getCellCount();
+        int from = chunk * chunkSize;
+        int to = Math.min(frontierSize, from + chunkSize);
+
+        int[] chunkFrontier = chunkFrontiers[chunk];
+        int chunkFrontierSize = 0;
+
+        for (int i = from; i < to; ++i) {
+            int node = frontier[i];
+            int column = node % width;
+
+            if (chunkFrontier.length < chunkFrontierSize + 4) {
+                chunkFrontier = Arrays.copyOf(chunkFrontier, Math.max(16, chunkFrontier.length << 1));
+            }
+
+            if (node >= width && visitNode(node, node - width)) {
+                chunkFrontier[chunkFrontierSize++] = node - width;
+            }
+            if (node < cellCount - width && visitNode(node, node + width)) {
+                chunkFrontier[chunkFrontierSize++] = node + width;
+            }
+            if (column != width - 1 && visitNode(node, node + 1)) {
+                chunkFrontier[chunkFrontierSize++] = node + 1;
+            }
+            if (column != 0 && visitNode(node, node - 1)) {
+                chunkFrontier[chunkFrontierSize++] = node - 1;
+            }
+        }
+        chunkFrontiers[chunk] = chunkFrontier;
+        chunkFrontierSizes[chunk] = chunkFrontierSize;
+    }
+
+
+    /**
+     * Concatenates the chunk parts of the next level into the frontier, which the buffers grow when the level does not fit.
+     *
+     * @param chunks  The number of chunks the level was split into.
+     */
+    private void mergeChunkFrontiers(int chunks) {
+        int nextFrontierSize = 0;
+        for (int chunk = 0; chunk < chunks; ++chunk) {
+            nextFrontierSize += chunkFrontierSizes[chunk];
+        }
+
+        frontier = buffers.getLevelFrontier(nextFrontierSize);
+
+        int position = 0;
+        for (int chunk = 0; chunk < chunks; ++chunk) {
+            System.arraycopy(chunkFrontiers[chunk], 0, frontier, position, chunkFrontierSizes[chunk]);
+            position += chunkFrontierSizes[chunk];
+        }
+        frontierSize = nextFrontierSize;
+    }
+
+
+    /**
+     * Claims the given neighboring node if it is a clear path that no thread has claimed yet, and records its parent.
+     *
+     * @return boolean - true if this thread claimed the node.
+     */
+    private boolean visitNode(int parentNode, int childNode) {
+        if (maze.isWall(childNode) || !claimNode(childNode)) {
+            return false;
+        }
+
+        parentNodes[childNode] = parentNode;
+
+        if (childNode == exitIndex) {
+            isExitReached = true;
+        }
+        return true;
+    }
+
+
+    private boolean claimNode(int node) {
+        int wordIndex = node >>> WORD_INDEX_SHIFT;
+        long bit = 1L << node;
+
+        long word;
+        do {
+            word = visitedNodes.get(wordIndex);
+
+            if ((word & bit) != 0) {
+                return false;
+            }
+        } while (!visitedNodes.compareAndSet(wordIndex, word, word | bit));
+
+        return true;
+    }
+
+
+    /**
+     * Expands a range of chunks, splitting the range in half until a single chunk is left.
+     */
+    private final class ExpandChunksTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int fromChunk;
+        private final int toChunk;
+
+
+        private ExpandChunksTask(int fromChunk, int toChunk) {
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+        }
+
+
+        @Override
+        protected void compute() {
+            if (toChunk - fromChunk == 1) {
+                expandChunk(fromChunk);
+                return;
+            }
+
+            int middleChunk = (fromChunk + toChunk) >>> 1;
+            invokeAll(new ExpandChunksTask(fromChunk, middleChunk), new ExpandChunksTask(middleChunk, toChunk));
+        }
+    }
+}
@@ -0,0 +1,435 @@
+package solvers;
+
+import constants.MazeConstants;
+import domain.ClusterSearch;
+import domain.Maze;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The per-cell search state of a solve - the parents, the path costs, two sets of marked cells, the frontier queue and the open lists,
+ * a second set of parents, path costs and frontier for the solvers that also search from the exit, the horizontal jumps already
+ * made by a jump point search, the level frontiers of a level synchronous search and the node costs, path cells and cluster search
+ * of a hierarchical search - kept per thread and reused by every solve on that thread, so many threads can solve the same maze
+ * at once without locks, and a solve allocates no grid sized arrays once the buffers of its thread have grown to the maze.
+ *
+ * Taking the buffers clears the marks and the frontier, but not the parents and path costs - the solvers only read them for marked
+ * cells. The parent array a solver returns is one of these buffers, so it is only valid until the next solve on the same thread,
+ * and a solver must not start another solve on its thread while it uses them.
+ *
+ * Every array is only grown by the getter of the solver that uses it, so a thread keeps the arrays of the solvers it runs. The buffers
+ * of a thread that has solved a large maze are dropped once it has solved a run of much smaller mazes, so a long lived thread does not
+ * keep the arrays of its largest maze forever, while a thread that keeps switching between large and small mazes reuses them.
+ */
+final class SearchBuffers {
+
+    private static final ThreadLocal<SearchBuffers> THREAD_BUFFERS = ThreadLocal.withInitial(SearchBuffers::new);
+    private static final int SHRINK_RATIO = 4;
+    private static final int SHRINK_AFTER_SOLVES = 16;
+
+    private final BitSet markedNodes = new BitSet();
+    private final BitSet closedNodes = new BitSet();
+    private final IntRingQueue frontier = new IntRingQueue();
+    private final IntMinHeap openList = new IntMinHeap();
+    private final IntBucketQueue costBuckets = new IntBucketQueue(MazeConstants.MAZE_MAX_CELL_COST);
+    private final IntRingQueue exitFrontier = new IntRingQueue();
+    private final BitSet[] jumpedCells = {new BitSet(), new BitSet()};
+    private int[] parentNodes = new int[0];
+    private int[] pathCosts = new int[0];
+    private int[] exitParentNodes = new int[0];
+    private int[] exitPathCosts = new int[0];
+    private int[][] jumpPoints = {new int[0], new int[0]};
+    private int[] nodeParents = new int[0];
+    private int[] nodeEdges = new int[0];
+    private int[] nodeCosts = new int[0];
+    private int[] exitNodeCosts = new int[0];
+    private int[] nodeStamps = new int[0];
+    private int[] exitNodeStamps = new int[0];
+    private int nodeStamp;
+    private int[] pathCells = new int[0];
+    private ClusterSearch clusterSearch;
+    private Maze clusterSearchMaze;
+    private AtomicLongArray claimedWords = new AtomicLongArray(0);
+    private int[] levelFrontier = new int[0];
+    private int[][] chunkFrontiers = new int[0][];
+    private int[] chunkFrontierSizes = new int[0];
+    private int cellCount;
+    private int largestCellCount;
+    private int smallSolves;
+
+
+    /**
+     * Returns the buffers of the calling thread, cleared for a solve of a maze with the given number of cells.
+     *
+     * @param cellCount  The number of cells of the maze.
+     *
+     * @return SearchBuffers.
+     */
+    static SearchBuffers acquire(int cellCount) {
+        SearchBuffers buffers = THREAD_BUFFERS.get();
+
+        if ((long) cellCount * SHRINK_RATIO >= buffers.largestCellCount) {
+            buffers.smallSolves = 0;
+        } else if (++buffers.smallSolves >= SHRINK_AFTER_SOLVES) {
+            release();
+            buffers = THREAD_BUFFERS.get();
+        }
+
+        buffers.largestCellCount = Math.max(buffers.largestCellCount, cellCount);
+        buffers.cellCount = cellCount;
+        buffers.markedNodes.clear();
+        buffers.closedNodes.clear();
+        buffers.frontier.clear();
+        buffers.exitFrontier.clear();
+        buffers.openList.clear();
+        buffers.costBuckets.clear();
+        buffers.jumpedCells[0].clear();
+        buffers.jumpedCells[1].clear();
+        return buffers;
+    }
+
+
+    /**
+     * Drops the buffers of the calling thread - the next solve on the thread starts with empty ones.
+     */
+    static void release() {
+        THREAD_BUFFERS.remove();
+    }
+
+
+    /**
+     * Returns the parent index of every cell, grown to the cell count - only the entries of the marked cells are set by the current solve.
+     *
+     * @return int[].
+     */
+    int[] getParentNodes() {
+        if (parentNodes.length < cellCount) {
+            parentNodes = new int[cellCount];
+        }
+        return parentNodes;
+    }
+
+
+    /**
+     * Returns the path cost of every cell, grown to the cell count - only the entries of the marked cells are set by the current solve.
+     *
+     * @return int[].
+     */
+    int[] getPathCosts() {
+        if (pathCosts.length < cellCount) {
+            pathCosts = new int[cellCount];
+        }
+        return pathCosts;
+    }
+
+
+    /**
+     * Returns the cleared set of the cells reached by the current solve.
+     *
+     * @return BitSet.
+     */
+    BitSet getMarkedNodes() {
+        return markedNodes;
+    }
+
+
+    /**
+     * Returns the cleared set of the cells expanded by the current solve, for the solvers that tell them from the reached cells.
+     *
+     * @return BitSet.
+     */
+    BitSet getClosedNodes() {
+        return closedNodes;
+    }
+
+
+    /**
+     * Returns the parent index of every cell for a search from the exit, grown to the cell count - only the entries of the cells
+     * that search reached are set by the current solve.
+     *
+     * @return int[].
+     */
+    int[] getExitParentNodes() {
+        if (exitParentNodes.length < cellCount) {
+            exitParentNodes = new int[cellCount];
+        }
+        return exitParentNodes;
+    }
+
+
+    /**
+     * Returns the path cost of every cell for a search from the exit, grown to the cell count - only the entries of the cells
+     * that search reached are set by the current solve.
+     *
+     * @return int[].
+     */
+    int[] getExitPathCosts() {
+        if (exitPathCosts.length < cellCount) {
+            exitPathCosts = new int[cellCount];
+        }
+        return exitPathCosts;
+    }
+
+
+    /**
+     * Returns the jump point of a horizontal jump in the given direction from every cell, grown to the cell count - only the entries
+     * of the jumped cells are set by the current solve.
+     *
+     * @param direction  0 for the jumps to the east, 1 for the jumps to the west.
+     *
+     * @return int[].
+     */
+    int[] getJumpPoints(int direction) {
+        if (jumpPoints[direction].length < cellCount) {
+            jumpPoints[direction] = new int[cellCount];
+        }
+        return jumpPoints[direction];
+    }
+
+
+    /**
+     * Returns the cleared set of the cells a horizontal jump in the given direction was made from by the current solve.
+     *
+     * @param direction  0 for the jumps to the east, 1 for the jumps to the west.
+     *
+     * @return BitSet.
+     */
+    BitSet getJumpedCells(int direction) {
+        return jumpedCells[direction];
+    }
+
+
+    /**
+     * Returns the parent node of every node of a graph searched instead of the cells - only the entries of the marked nodes are set by the current solve.
+     *
+     * @param nodeCount  The number of nodes of the graph.
+     *
+     * @return int[].
+     */
+    int[] getNodeParents(int nodeCount) {
+        if (nodeParents.length < nodeCount) {
+            nodeParents = new int[nodeCount];
+        }
+        return nodeParents;
+    }
+
+
+    /**
+     * Returns the edge each node of a graph searched instead of the cells was reached by - only the entries of the marked nodes are set by the current solve.
+     *
+     * @param nodeCount  The number of nodes of the graph.
+     *
+     * @return int[].
+     */
+    int[] getNodeEdges(int nodeCount) {
+        if (nodeEdges.length < nodeCount) {
+            nodeEdges = new int[nodeCount];
+        }
+        return nodeEdges;
+    }
+
+
+    /**
+     * Starts a new generation of the node stamps, so the node costs of the last solve read as unset without clearing them -
+     * the stamps are only cleared when the generations wrap around.
+     *
+     * @param nodeCount  The number of nodes of the graph.
+     *
+     * @return int - the stamp of the nodes set by the current solve.
+     */
+    int nextNodeStamp(int nodeCount) {
+        if (nodeStamps.length < nodeCount) {
+            nodeStamps = new int[nodeCount];
+            exitNodeStamps = new int[nodeCount];
+        }
+
+        if (++nodeStamp == 0) {
+            Arrays.fill(nodeStamps, 0);
+            Arrays.fill(exitNodeStamps, 0);
+            nodeStamp = 1;
+        }
+        return nodeStamp;
+    }
+
+
+    /**
+     * Returns the stamp of the solve that set the node cost of every node - the array is grown by nextNodeStamp.
+     *
+     * @return int[].
+     */
+    int[] getNodeStamps() {
+        return nodeStamps;
+    }
+
+
+    /**
+     * Returns the stamp of the solve that set the exit node cost of every node - the array is grown by nextNodeStamp.
+     *
+     * @return int[].
+     */
+    int[] getExitNodeStamps() {
+        return exitNodeStamps;
+    }
+
+
+    /**
+     * Returns the path cost of every node of a graph searched instead of the cells - only the entries of the nodes stamped by
+     * the current solve are set.
+     *
+     * @param nodeCount  The number of nodes of the graph.
+     *
+     * @return int[].
+     */
+    int[] getNodeCosts(int nodeCount) {
+        if (nodeCosts.length < nodeCount) {
+            nodeCosts = new int[nodeCount];
+        }
+        return nodeCosts;
+    }
+
+
+    /**
+     * Returns the path cost from every node of a graph searched instead of the cells to the exit - only the entries of the nodes
+     * whose exit stamp is the one of the current solve are set.
+     *
+     * @param nodeCount  The number of nodes of the graph.
+     *
+     * @return int[].
+     */
+    int[] getExitNodeCosts(int nodeCount) {
+        if (exitNodeCosts.length < nodeCount) {
+            exitNodeCosts = new int[nodeCount];
+        }
+        return exitNodeCosts;
+    }
+
+
+    /**
+     * Returns the cells of a path built in order, grown to hold the given number of cells - the cells it held before are kept.
+     *
+     * @param cellCount  The number of cells of the path.
+     *
+     * @return int[].
+     */
+    int[] getPathCells(int cellCount) {
+        if (pathCells.length < cellCount) {
+            pathCells = Arrays.copyOf(pathCells, Math.max(cellCount, pathCells.length << 1));
+        }
+        return pathCells;
+    }
+
+
+    /**
+     * Returns the search within a single cluster of the given maze - the search is kept for the next solve of the same maze.
+     *
+     * @param maze         The maze object.
+     * @param clusterSize  The number of rows and columns of a cluster.
+     *
+     * @return ClusterSearch.
+     */
+    ClusterSearch getClusterSearch(Maze maze, int clusterSize) {
+        if (clusterSearch == null || clusterSearchMaze != maze || clusterSearch.getClusterSize() != clusterSize) {
+            clusterSearch = new ClusterSearch(maze, clusterSize);
+            clusterSearchMaze = maze;
+        }
+        return clusterSearch;
+    }
+
+
+    /**
+     * Returns the cleared words of a bitmap of the cells, for the solvers whose threads claim cells with atomic updates.
+     * The words are cleared when they are taken, so only the solvers using them pay for it.
+     *
+     * @param bitsPerCell  The number of claim bits of every cell - a power of two up to 64.
+     *
+     * @return AtomicLongArray - the bits of a cell are at bit (index * bitsPerCell) of the bitmap, 64 bits to a word.
+     */
+    AtomicLongArray getClaimedWords(int bitsPerCell) {
+        int wordCount = (int) (((long) cellCount * bitsPerCell + Long.SIZE - 1) >>> 6);
+
+        if (claimedWords.length() < wordCount) {
+            claimedWords = new AtomicLongArray(wordCount);
+        } else {
+            for (int wordIndex = 0; wordIndex < wordCount; ++wordIndex) {
+                claimedWords.set(wordIndex, 0);
+            }
+        }
+        return claimedWords;
+    }
+
+
+    /**
+     * Returns the nodes of a search level for the level synchronous searches, grown to hold the given number of nodes - the array
+     * may be a new one, so the nodes it held before are not kept.
+     *
+     * @param nodeCount  The number of nodes of the level.
+     *
+     * @return int[].
+     */
+    int[] getLevelFrontier(int nodeCount) {
+        if (levelFrontier.length < nodeCount) {
+            levelFrontier = new int[Math.max(nodeCount, levelFrontier.length << 1)];
+        }
+        return levelFrontier;
+    }
+
+
+    /**
+     * Returns the part of the next level found by every chunk of a level for the level synchronous searches - the searches grow
+     * the part of a chunk in place, so the grown arrays are kept for the next solve.
+     *
+     * @param chunkCount  The number of chunks.
+     *
+     * @return int[][] - at least the given number of chunk parts.
+     */
+    int[][] getChunkFrontiers(int chunkCount) {
+        if (chunkFrontiers.length < chunkCount) {
+            int grownFrom = chunkFrontiers.length;
+            chunkFrontiers = Arrays.copyOf(chunkFrontiers, chunkCount);
+            Arrays.fill(chunkFrontiers, grownFrom, chunkCount, new int[0]);
+        }
+        return chunkFrontiers;
+    }
+
+
+    /**
+     * Returns the number of nodes in the part of the next level found by every chunk of a level.
+     *
+     * @param chunkCount  The number of chunks.
+     *
+     * @return int[].
+     */
+    int[] getChunkFrontierSizes(int chunkCount) {
+        if (chunkFrontierSizes.length < chunkCount) {
+            chunkFrontierSizes = new int[chunkCount];
+        }
+        return chunkFrontierSizes;
+    }
+
+
+    IntRingQueue getFrontier() {
+        return frontier;
+    }
+
+
+    IntMinHeap getOpenList() {
+        return openList;
+    }
+
+
+    /**
+     * Returns the cleared open list by path cost for the searches over the cell costs, whose steps cost at most the largest cell cost.
+     *
+     * @return IntBucketQueue.
+     */
+    IntBucketQueue getCostBuckets() {
+        return costBuckets;
+    }
+
+
+    IntRingQueue getExitFrontier() {
+        return exitFrontier;
+    }
+}
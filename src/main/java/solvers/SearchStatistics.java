@@ -0,0 +1,33 @@
+package solvers;
+
+/**
+ * The counters of a search - the solvers count in local variables while searching and record the totals here once the search ends,
+ * so a solve without statistics costs the same as before.
+ */
+public final class SearchStatistics {
+
+    private long nodesExpanded;
+    private int peakFrontier;
+
+
+    /**
+     * Adds the counters of a finished search.
+     *
+     * @param nodesExpanded  The number of nodes whose neighbors were searched.
+     * @param peakFrontier   The largest number of nodes waiting to be expanded at any time.
+     */
+    public void record(long nodesExpanded, int peakFrontier) {
+        this.nodesExpanded += nodesExpanded;
+        this.peakFrontier = Math.max(this.peakFrontier, peakFrontier);
+    }
+
+
+    public long getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+
+    public int getPeakFrontier() {
+        return peakFrontier;
+    }
+}
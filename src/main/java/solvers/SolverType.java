@@ -0,0 +1,71 @@
+package solvers;
+
+import java.util.Locale;
+import java.util.function.IntFunction;
+
+/**
+ * The available maze solvers, selected by name on the command line.
+ */
+public enum SolverType {
+
+    DFS(threads -> new DepthFirstMazeSolver()),
+    BFS(threads -> new BreadthFirstMazeSolver()),
+    DIJKSTRA(threads -> new DijkstraMazeSolver()),
+    ASTAR(threads -> new AStarMazeSolver()),
+    BIDIRECTIONAL(BidirectionalMazeSolver::new),
+    PARALLEL_BFS(ParallelBreadthFirstMazeSolver::new),
+    JUNCTION(threads -> new JunctionGraphMazeSolver()),
+    HPA(threads -> new HierarchicalMazeSolver());
+
+    private final IntFunction<MazeSolver> solverFactory;
+
+    SolverType(IntFunction<MazeSolver> solverFactory) {
+        this.solverFactory = solverFactory;
+    }
+
+    /**
+     * Creates a new solver of this type using as many threads as there are available processors.
+     *
+     * @return MazeSolver.
+     */
+    public MazeSolver createSolver() {
+        return createSolver(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a new solver of this type - the number of threads is only used by the parallel solvers.
+     *
+     * @param threads  The number of threads the solver may use.
+     *
+     * @return MazeSolver.
+     */
+    public MazeSolver createSolver(int threads) {
+        return solverFactory.apply(threads);
+    }
+
+    /**
+     * Returns the name of this solver type as given on the command line.
+     *
+     * @return String.
+     */
+    public String getOptionName() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    /**
+     * Returns the solver type with the given name, ignoring case - dashes in the name stand for underscores (parallel-bfs).
+     *
+     * @param name  The solver name.
+     *
+     * @return SolverType, or null if there is no solver with the given name.
+     */
+    public static SolverType fromName(String name) {
+        for (SolverType solverType : values()) {
+
+            if (solverType.name().equalsIgnoreCase(name.replace('-', '_'))) {
+                return solverType;
+            }
+        }
+        return null;
+    }
+}
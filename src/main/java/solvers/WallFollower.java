@@ -0,0 +1,188 @@
+package solvers;
+
+import domain.Maze;
+import parsers.MoveWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Walks from the start to the exit keeping a hand on a wall, remembering nothing but the current cell and heading - the walk needs
+ * a constant amount of memory however large the maze, so it also works on mazes whose walls are read from disk a tile at a time.
+ * The walk first heads straight until it is blocked, and then follows the blocking wall with the right or the left hand.
+ *
+ * On a perfect maze (one without loops) every wall is connected to the border, so the walk always reaches a reachable exit.
+ * On other mazes the walk may circle a wall island without ever passing the exit - the walk stops once it is back where it began
+ * following the wall, and the next heading or hand is tried. The moves found are those of a walk through the maze, so the path
+ * may enter dead ends and come back out of them - it is not the shortest path.
+ */
+public final class WallFollower {
+
+    private static final int NO_WALK = -1;
+    private static final int[] DIRECTIONS = {Maze.EAST, Maze.SOUTH, Maze.WEST, Maze.NORTH};
+    private static final int[] RIGHT_TURNS = {Maze.EAST, Maze.WEST, Maze.SOUTH, Maze.NORTH};
+    private static final int[] LEFT_TURNS = {Maze.WEST, Maze.EAST, Maze.NORTH, Maze.SOUTH};
+
+    private final Maze maze;
+    private final int startIndex;
+    private final int exitIndex;
+    private int initialDirection = NO_WALK;
+    private boolean isRightHand;
+    private long stepsWalked;
+
+
+    /**
+     * Factory constructor - creates a wall follower for the walk between the given cells of the given maze.
+     *
+     * @param maze        The maze object.
+     * @param startIndex  The index of the start cell.
+     * @param exitIndex   The index of the exit cell.
+     *
+     * @return WallFollower.
+     */
+    public static WallFollower initFollower(Maze maze, int startIndex, int exitIndex) {
+        return (maze != null) ? new WallFollower(maze, startIndex, exitIndex) : null;
+    }
+
+
+    /**
+     * Tries the four initial headings with the right hand and then with the left hand, until a walk reaches the exit.
+     *
+     * @param statistics  The statistics to record the steps walked in, or null to skip them.
+     *
+     * @return long - the number of moves of the walk found, or -1 if no walk reaches the exit.
+     */
+    public long findWalk(SearchStatistics statistics) {
+        long moveCount = NO_WALK;
+
+        if (!maze.isWall(startIndex) && !maze.isWall(exitIndex)) {
+            for (int hand = 0; hand < 2 && moveCount == NO_WALK; ++hand) {
+
+                for (int i = 0; i < DIRECTIONS.length && moveCount == NO_WALK; ++i) {
+                    moveCount = walk(DIRECTIONS[i], hand == 0);
+
+                    if (moveCount != NO_WALK) {
+                        initialDirection = DIRECTIONS[i];
+                        isRightHand = hand == 0;
+                    }
+                }
+            }
+        }
+
+        if (statistics != null) {
+            statistics.record(stepsWalked, 0);
+        }
+        return moveCount;
+    }
+
+
+    /**
+     * Walks the walk found by findWalk again, writing its moves.
+     *
+     * @param moves  The writer of the moves.
+     *
+     * @throws IOException
+     */
+    public void writeWalk(MoveWriter moves) throws IOException {
+        if (initialDirection != NO_WALK) {
+            walk(initialDirection, isRightHand, moves);
+        }
+    }
+
+
+    private WallFollower(Maze maze, int startIndex, int exitIndex) {
+        this.maze = maze;
+        this.startIndex = startIndex;
+        this.exitIndex = exitIndex;
+    }
+
+
+    /**
+     * Walks without writing the moves, so nothing is written that could fail.
+     */
+    private long walk(int direction, boolean isRightHand) {
+        try {
+            return walk(direction, isRightHand, null);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+
+    /**
+     * Walks straight in the given direction until blocked, and then along the blocking wall with the given hand on it - at every cell
+     * the walk turns towards the hand if it can, goes straight otherwise, and turns away or back only when it has to.
+     *
+     * @param direction    The initial heading.
+     * @param isRightHand  True to keep the right hand on the wall, false for the left hand.
+     * @param moves        The writer of the moves, or null to only count them.
+     *
+     * @return long - the number of moves to the exit, or NO_WALK if the walk comes back to where it began following the wall.
+     *
+     * @throws IOException
+     */
+    private long walk(int direction, boolean isRightHand, MoveWriter moves) throws IOException {
+        int cell = startIndex;
+        long moveCount = 0;
+
+        for (int next = getClearNeighbor(cell, direction); cell != exitIndex && next != Maze.NO_CELL; next = getClearNeighbor(cell, direction)) {
+            cell = next;
+            moveCount = writeMove(moves, direction, moveCount);
+        }
+
+        if (cell == exitIndex) {
+            return moveCount;
+        }
+
+        direction = turn(direction, !isRightHand);
+        int firstCell = cell;
+        int firstDirection = direction;
+        long maxMoveCount = moveCount + 4L * maze.getCellCount();
+
+        do {
+            direction = turn(direction, isRightHand);
+            int next = getClearNeighbor(cell, direction);
+
+            for (int turns = 1; next == Maze.NO_CELL; ++turns) {
+                if (turns == DIRECTIONS.length) {
+                    return NO_WALK;
+                }
+                direction = turn(direction, !isRightHand);
+                next = getClearNeighbor(cell, direction);
+            }
+
+            cell = next;
+            moveCount = writeMove(moves, direction, moveCount);
+
+            if (cell == exitIndex) {
+                return moveCount;
+            }
+        } while ((cell != firstCell || direction != firstDirection) && moveCount < maxMoveCount);
+
+        return NO_WALK;
+    }
+
+
+    private long writeMove(MoveWriter moves, int direction, long moveCount) throws IOException {
+        ++stepsWalked;
+
+        if (moves != null) {
+            moves.writeMove(direction);
+        }
+        return moveCount + 1;
+    }
+
+
+    private int getClearNeighbor(int index, int direction) {
+        int neighbor = maze.getNeighbor(index, direction);
+        return (neighbor != Maze.NO_CELL && !maze.isWall(neighbor)) ? neighbor : Maze.NO_CELL;
+    }
+
+
+    /**
+     * Returns the direction a quarter turn to the right or to the left of the given direction.
+     */
+    private static int turn(int direction, boolean isRight) {
+        return isRight ? RIGHT_TURNS[direction] : LEFT_TURNS[direction];
+    }
+}
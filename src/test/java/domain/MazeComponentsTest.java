@@ -0,0 +1,85 @@
+package domain;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the component labels against breadth first searches on random mazes - two clear path cells share a label exactly when one
+ * can be reached from the other.
+ */
+public class MazeComponentsTest {
+
+    private static final int RANDOM_MAZES = 300;
+    private static final int MAX_MAZE_SIZE = 60;
+
+
+    @Test(timeout = 60000)
+    public void testComponentsMatchBreadthFirstSearch() {
+        Random random = new Random(5L);
+
+        for (int i = 0; i < RANDOM_MAZES; ++i) {
+            Maze maze = RandomMazes.createMaze(random, MAX_MAZE_SIZE);
+            MazeComponents components = maze.getComponents();
+            boolean[] isLabelSeen = new boolean[maze.getCellCount() + 1];
+            int componentCount = 0;
+
+            for (int index = 0; index < maze.getCellCount(); ++index) {
+                if (maze.isWall(index)) {
+                    assertEquals(MazeComponents.NO_COMPONENT, components.getComponent(index));
+                    continue;
+                }
+
+                int label = components.getComponent(index);
+                if (isLabelSeen[label]) {
+                    continue;
+                }
+                isLabelSeen[label] = true;
+                ++componentCount;
+
+                int[] pathLengths = RandomMazes.findPathLengths(maze, index);
+                for (int other = 0; other < maze.getCellCount(); ++other) {
+                    if (!maze.isWall(other)) {
+                        boolean isReached = pathLengths[other] != RandomMazes.UNREACHED;
+
+                        assertEquals(isReached, components.getComponent(other) == label);
+                        assertEquals(isReached, components.isReachable(index, other));
+                    }
+                }
+            }
+            assertEquals(componentCount, components.getComponentCount());
+        }
+    }
+
+
+    /**
+     * A wall start or exit has no component, so the labels leave it to the solver.
+     */
+    @Test
+    public void testWallCells() {
+        long[] walls = Maze.createWallBits(3, 1);
+        Maze.setWallBit(walls, 1);
+        Maze maze = Maze.initMaze(3, 1, walls, 0, 2);
+        MazeComponents components = maze.getComponents();
+
+        assertEquals(2, components.getComponentCount());
+        assertFalse(components.isReachable(0, 2));
+        assertTrue(components.isReachable(0, 1));
+        assertTrue(components.isReachable(1, 2));
+    }
+
+
+    @Test
+    public void testComponentsAreKept() {
+        Maze maze = RandomMazes.createMaze(new Random(6L), 20);
+        assertFalse(maze.hasComponents());
+
+        assertSame(maze.getComponents(), maze.getComponents());
+        assertTrue(maze.hasComponents());
+    }
+}
@@ -0,0 +1,68 @@
+package domain;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MutableMazeTest {
+
+    @Test
+    public void testCopiesMaze() {
+        Maze maze = RandomMazes.createMaze(new Random(51L), 13, 7, 0.4, 5, 80);
+        MutableMaze mutableMaze = MutableMaze.initMaze(maze);
+
+        assertEquals(13, mutableMaze.getMazeWidth());
+        assertEquals(7, mutableMaze.getMazeHeight());
+        assertEquals(5, mutableMaze.getStartIndex());
+        assertEquals(80, mutableMaze.getExitIndex());
+        for (int index = 0; index < maze.getCellCount(); ++index) {
+            assertEquals(maze.isWall(index), mutableMaze.isWall(index));
+        }
+        assertNull(MutableMaze.initMaze(null));
+    }
+
+
+    /**
+     * The edits change the mutable maze only - the maze it was created from and the mazes taken before stay as they were.
+     */
+    @Test
+    public void testEditsDoNotChangeMazes() {
+        Maze maze = Maze.initMaze(3, 2, Maze.createWallBits(3, 2), 0, 5);
+        MutableMaze mutableMaze = MutableMaze.initMaze(maze);
+        Maze snapshot = mutableMaze.toMaze();
+
+        mutableMaze.setWall(1, 1, true);
+
+        assertTrue(mutableMaze.isWall(1, 1));
+        assertTrue(mutableMaze.isWall(4));
+        assertTrue(mutableMaze.toMaze().isWall(1, 1));
+        assertFalse(maze.isWall(1, 1));
+        assertFalse(snapshot.isWall(1, 1));
+
+        mutableMaze.setWall(1, 1, false);
+        assertFalse(mutableMaze.isWall(1, 1));
+    }
+
+
+    @Test
+    public void testWallListenersToldOfChanges() {
+        MutableMaze mutableMaze = MutableMaze.initMaze(Maze.initMaze(3, 2, Maze.createWallBits(3, 2), 0, 5));
+        List<Integer> changedCells = new ArrayList<>();
+        mutableMaze.addWallListener(changedCells::add);
+
+        mutableMaze.setWall(0, 1, true);
+        mutableMaze.setWall(0, 1, true);
+        mutableMaze.setWall(1, 2, false);
+        mutableMaze.setWall(0, 1, false);
+
+        assertEquals(Arrays.asList(1, 1), changedCells);
+    }
+}
@@ -0,0 +1,228 @@
+package domain;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Random mazes and a plain breadth first search over them, which the randomized tests check the solvers, fills and parsers against.
+ */
+public final class RandomMazes {
+
+    public static final int UNREACHED = -1;
+
+    private RandomMazes() {
+        //private constructor to prevent instantiation
+    }
+
+
+    /**
+     * Creates a maze of the given size where every cell is a wall with the given chance, and the start and exit are clear paths.
+     *
+     * @param random      The source of randomness.
+     * @param width       The maze width.
+     * @param height      The maze height.
+     * @param wallChance  The chance of a cell being a wall.
+     * @param startIndex  The index of the start cell.
+     * @param exitIndex   The index of the exit cell.
+     *
+     * @return Maze.
+     */
+    public static Maze createMaze(Random random, int width, int height, double wallChance, int startIndex, int exitIndex) {
+        long[] walls = Maze.createWallBits(width, height);
+
+        for (int index = 0; index < width * height; ++index) {
+            if (index != startIndex && index != exitIndex && random.nextDouble() < wallChance) {
+                Maze.setWallBit(walls, index);
+            }
+        }
+        return Maze.initMaze(width, height, walls, startIndex, exitIndex);
+    }
+
+
+    /**
+     * Creates a maze of random size up to the given size, with a random wall chance up to one half and a random start and exit.
+     *
+     * @param random   The source of randomness.
+     * @param maxSize  The largest width and height.
+     *
+     * @return Maze.
+     */
+    public static Maze createMaze(Random random, int maxSize) {
+        int width = 1 + random.nextInt(maxSize);
+        int height = 1 + random.nextInt(maxSize);
+
+        return createMaze(random, width, height, random.nextDouble() / 2, random.nextInt(width * height), random.nextInt(width * height));
+    }
+
+
+    /**
+     * Creates a maze of one cell wide corridors carved by a random depth first walk over the odd rows and columns, with the start
+     * and exit at random corridor cells. Every wall between two corridors is then knocked down with the given chance, so a maze
+     * with no chance has exactly one path between any two corridor cells and a maze with some chance has loops.
+     *
+     * @param random      The source of randomness.
+     * @param width       The maze width - an odd number.
+     * @param height      The maze height - an odd number.
+     * @param loopChance  The chance of knocking down a wall between two corridors.
+     *
+     * @return Maze.
+     */
+    public static Maze createCorridorMaze(Random random, int width, int height, double loopChance) {
+        long[] walls = Maze.createWallBits(width, height);
+        for (int index = 0; index < width * height; ++index) {
+            Maze.setWallBit(walls, index);
+        }
+
+        boolean[] isCarved = new boolean[width * height];
+        int[] stack = new int[width * height];
+        int stackSize = 0;
+        stack[stackSize++] = width + 1;
+        isCarved[width + 1] = true;
+        Maze.clearWallBit(walls, width + 1);
+        int[] steps = {-2 * width, 2 * width, 2, -2};
+
+        while (stackSize > 0) {
+            int cell = stack[stackSize - 1];
+            int row = cell / width;
+            int column = cell % width;
+            int[] neighbors = new int[4];
+            int neighborCount = 0;
+
+            for (int step : steps) {
+                int neighbor = cell + step;
+                int neighborColumn = column + ((step == 2) ? 2 : (step == -2) ? -2 : 0);
+                int neighborRow = row + ((step == 2 * width) ? 2 : (step == -2 * width) ? -2 : 0);
+
+                if (neighborRow > 0 && neighborRow < height - 1 && neighborColumn > 0 && neighborColumn < width - 1 && !isCarved[neighbor]) {
+                    neighbors[neighborCount++] = neighbor;
+                }
+            }
+
+            if (neighborCount == 0) {
+                --stackSize;
+                continue;
+            }
+
+            int neighbor = neighbors[random.nextInt(neighborCount)];
+            isCarved[neighbor] = true;
+            Maze.clearWallBit(walls, neighbor);
+            Maze.clearWallBit(walls, (cell + neighbor) / 2);
+            stack[stackSize++] = neighbor;
+        }
+
+        for (int row = 1; row < height - 1; ++row) {
+            for (int column = 1 + row % 2; column < width - 1; column += 2) {
+                if (random.nextDouble() < loopChance) {
+                    Maze.clearWallBit(walls, row * width + column);
+                }
+            }
+        }
+
+        return Maze.initMaze(width, height, walls, getRandomCorridorCell(random, width, height), getRandomCorridorCell(random, width, height));
+    }
+
+
+    private static int getRandomCorridorCell(Random random, int width, int height) {
+        return (1 + 2 * random.nextInt(height / 2)) * width + 1 + 2 * random.nextInt(width / 2);
+    }
+
+
+    /**
+     * Finds the number of steps from the given cell to every cell of the maze with a breadth first search.
+     *
+     * @param maze       The maze object.
+     * @param fromIndex  The index of the cell to search from.
+     *
+     * @return int[] - the number of steps to every cell, or UNREACHED for the cells that cannot be reached.
+     */
+    public static int[] findPathLengths(Maze maze, int fromIndex) {
+        int[] pathLengths = new int[maze.getCellCount()];
+        Arrays.fill(pathLengths, UNREACHED);
+
+        if (maze.isWall(fromIndex)) {
+            return pathLengths;
+        }
+
+        int[] queue = new int[maze.getCellCount()];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = fromIndex;
+        pathLengths[fromIndex] = 0;
+
+        while (head < tail) {
+            int index = queue[head++];
+
+            for (int direction = Maze.NORTH; direction <= Maze.WEST; ++direction) {
+                int neighbor = maze.getNeighbor(index, direction);
+
+                if (neighbor != Maze.NO_CELL && !maze.isWall(neighbor) && pathLengths[neighbor] == UNREACHED) {
+                    pathLengths[neighbor] = pathLengths[index] + 1;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return pathLengths;
+    }
+
+
+    /**
+     * Follows the given parents back from the exit to the start, giving up after as many steps as the maze has cells.
+     *
+     * @param maze         The maze object.
+     * @param parentNodes  The parent index of the cells on the path, as returned by a solver.
+     * @param startIndex   The index of the start cell.
+     * @param exitIndex    The index of the exit cell.
+     *
+     * @return int[] - the cell indices in order from start to exit, or null if the parents do not lead from the exit to the start.
+     */
+    public static int[] followParents(Maze maze, int[] parentNodes, int startIndex, int exitIndex) {
+        int[] reversedCells = new int[maze.getCellCount() + 1];
+        int pathSize = 0;
+
+        for (int cell = exitIndex; cell != Maze.NO_CELL; cell = parentNodes[cell]) {
+            if (pathSize == reversedCells.length) {
+                return null;
+            }
+            reversedCells[pathSize++] = cell;
+        }
+
+        if (reversedCells[pathSize - 1] != startIndex) {
+            return null;
+        }
+
+        int[] pathCells = new int[pathSize];
+        for (int i = 0; i < pathSize; ++i) {
+            pathCells[i] = reversedCells[pathSize - 1 - i];
+        }
+        return pathCells;
+    }
+
+
+    /**
+     * Checks that every step of the given path goes to a neighboring clear path cell.
+     *
+     * @param maze       The maze object.
+     * @param pathCells  The cell indices of the path in order.
+     *
+     * @return boolean.
+     */
+    public static boolean isConnectedPath(Maze maze, int[] pathCells) {
+        int width = maze.getMazeWidth();
+
+        for (int i = 0; i < pathCells.length; ++i) {
+            if (maze.isWall(pathCells[i])) {
+                return false;
+            }
+
+            if (i > 0) {
+                int rowSteps = Math.abs(pathCells[i] / width - pathCells[i - 1] / width);
+                int columnSteps = Math.abs(pathCells[i] % width - pathCells[i - 1] % width);
+
+                if (rowSteps + columnSteps != 1) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,72 @@
+package domain;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the cells the word flood fill reaches against a breadth first search on random mazes.
+ */
+public class WordFloodFillTest {
+
+    private static final int RANDOM_MAZES = 400;
+    private static final int MAX_MAZE_SIZE = 150;
+
+
+    @Test(timeout = 60000)
+    public void testFillMatchesBreadthFirstSearch() {
+        Random random = new Random(3L);
+        int decidedFills = 0;
+
+        for (int i = 0; i < RANDOM_MAZES; ++i) {
+            Maze maze = RandomMazes.createMaze(random, MAX_MAZE_SIZE);
+            WordFloodFill fill = WordFloodFill.initFill(maze);
+            int[] pathLengths = RandomMazes.findPathLengths(maze, maze.getStartIndex());
+
+            if (!fill.fillFrom(maze.getStartIndex(), Maze.NO_CELL)) {
+                continue;
+            }
+            ++decidedFills;
+
+            for (int index = 0; index < maze.getCellCount(); ++index) {
+                assertEquals("cell " + index, pathLengths[index] != RandomMazes.UNREACHED, fill.isFilled(index));
+            }
+
+            if (fill.fillFrom(maze.getStartIndex(), maze.getExitIndex())) {
+                assertEquals(pathLengths[maze.getExitIndex()] != RandomMazes.UNREACHED, fill.isFilled(maze.getExitIndex()));
+            }
+        }
+        assertTrue(decidedFills > RANDOM_MAZES / 2);
+    }
+
+
+    /**
+     * Sparse walls make an open maze, while the corridors of a winding maze make as many walls as clear paths.
+     */
+    @Test
+    public void testOpenMazeCheck() {
+        Random random = new Random(4L);
+
+        for (int i = 0; i < 20; ++i) {
+            int size = 100 + random.nextInt(400);
+            assertTrue(WordFloodFill.isOpenMaze(RandomMazes.createMaze(random, size, size, 0.1, 0, 0)));
+            assertFalse(WordFloodFill.isOpenMaze(RandomMazes.createCorridorMaze(random, size | 1, size | 1, 0)));
+        }
+        assertTrue(WordFloodFill.isOpenMaze(RandomMazes.createMaze(random, 5, 5, 1, 0, 0)));
+    }
+
+
+    /**
+     * A long corridor winding up and down the maze needs a sweep for every turn, so the fill gives up on it.
+     */
+    @Test(timeout = 60000)
+    public void testFillGivesUpOnWindingMaze() {
+        Maze maze = RandomMazes.createCorridorMaze(new Random(5L), 301, 301, 0);
+
+        assertFalse(WordFloodFill.initFill(maze).fillFrom(maze.getStartIndex(), Maze.NO_CELL));
+    }
+}
@@ -0,0 +1,208 @@
+package parsers;
+
+import domain.Maze;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class InputParserTest {
+
+    private static final int LARGE_MAZE_SIZE = 3000;
+    private static final int PARSER_THREADS = 4;
+
+    private Path mazeFile;
+
+
+    @Before
+    public void createMazeFile() throws IOException {
+        mazeFile = Files.createTempFile("maze", ".txt");
+    }
+
+
+    @After
+    public void deleteMazeFile() throws IOException {
+        Files.deleteIfExists(mazeFile);
+    }
+
+
+    @Test
+    public void testMazeFile() throws IOException {
+        Maze maze = parseMaze("5 4\n1 1\n3 2\n1 1 1 1 1\n1 0 0 0 1\n1 0 1 0 1\n1 1 1 1 1\n");
+
+        assertNotNull(maze);
+        assertEquals(5, maze.getMazeWidth());
+        assertEquals(4, maze.getMazeHeight());
+        assertEquals(maze.indexOf(1, 1), maze.getStartIndex());
+        assertEquals(maze.indexOf(2, 3), maze.getExitIndex());
+        assertTrue(maze.isWall(0, 0));
+        assertFalse(maze.isWall(1, 2));
+        assertTrue(maze.isWall(2, 2));
+        assertFalse(maze.hasCellCosts());
+    }
+
+
+    @Test
+    public void testWindowsLineEnds() throws IOException {
+        Maze maze = parseMaze("3 2\r\n0 0\r\n2 1\r\n0 1 0\r\n0 0 0\r\n");
+
+        assertNotNull(maze);
+        assertEquals(3, maze.getMazeWidth());
+        assertTrue(maze.isWall(0, 1));
+        assertFalse(maze.isWall(0, 2));
+        assertFalse(maze.isWall(1, 0));
+    }
+
+
+    /**
+     * Cells missing from a short row are clear paths, cells past the width of a long row are ignored, and rows past the height are ignored.
+     */
+    @Test
+    public void testRaggedRows() throws IOException {
+        Maze maze = parseMaze("3 3\n0 0\n2 2\n1\n0 0 0 1 1\n1 1 0\n1 1 1\n");
+
+        assertNotNull(maze);
+        assertTrue(maze.isWall(0, 0));
+        assertFalse(maze.isWall(0, 1));
+        assertFalse(maze.isWall(0, 2));
+        assertFalse(maze.isWall(1, 2));
+        assertTrue(maze.isWall(2, 0));
+        assertFalse(maze.isWall(2, 2));
+    }
+
+
+    @Test
+    public void testCellCosts() throws IOException {
+        Maze maze = parseMaze("3 1\n0 0\n2 0\n0 5 9\n");
+
+        assertNotNull(maze);
+        assertTrue(maze.hasCellCosts());
+        assertEquals(1, maze.getCellCost(0));
+        assertEquals(5, maze.getCellCost(1));
+        assertEquals(9, maze.getCellCost(2));
+        assertFalse(maze.isWall(1));
+    }
+
+
+    @Test
+    public void testIncompleteHeader() throws IOException {
+        assertNull(parseMaze("3 3\n0 0\n"));
+        assertNull(InputParser.parseMaze(null));
+    }
+
+
+    @Test
+    public void testSmallFileOnSeveralThreads() throws IOException {
+        Maze maze = parseMaze("3 2\n0 0\n2 1\n0 1 0\n0 0 0\n");
+        Maze parallelMaze = InputParser.parseMaze(mazeFile, PARSER_THREADS);
+
+        assertNotNull(parallelMaze);
+        checkSameMaze(maze, parallelMaze);
+    }
+
+
+    /**
+     * The parallel decoder only runs on files of at least 16MB, so these maze files have 3000x3000 cells.
+     */
+    @Test(timeout = 120000)
+    public void testParallelDecoder() throws IOException {
+        checkParallelDecoder(new Random(1L), "\n", false, false);
+    }
+
+
+    @Test(timeout = 120000)
+    public void testParallelDecoderWithWindowsLineEnds() throws IOException {
+        checkParallelDecoder(new Random(2L), "\r\n", false, false);
+    }
+
+
+    @Test(timeout = 120000)
+    public void testParallelDecoderWithCellCosts() throws IOException {
+        checkParallelDecoder(new Random(3L), "\n", true, false);
+    }
+
+
+    @Test(timeout = 120000)
+    public void testParallelDecoderWithRaggedRows() throws IOException {
+        checkParallelDecoder(new Random(4L), "\r\n", true, true);
+    }
+
+
+    private Maze parseMaze(String content) throws IOException {
+        Files.write(mazeFile, content.getBytes(StandardCharsets.US_ASCII));
+        return InputParser.parseMaze(mazeFile);
+    }
+
+
+    private void checkParallelDecoder(Random random, String lineEnd, boolean hasCellCosts, boolean hasRaggedRows) throws IOException {
+        writeMazeFile(random, lineEnd, hasCellCosts, hasRaggedRows);
+        Maze maze = InputParser.parseMaze(mazeFile);
+        Maze parallelMaze = InputParser.parseMaze(mazeFile, PARSER_THREADS);
+
+        assertNotNull(maze);
+        assertNotNull(parallelMaze);
+        checkSameMaze(maze, parallelMaze);
+    }
+
+
+    private static void checkSameMaze(Maze expectedMaze, Maze maze) {
+        assertEquals(expectedMaze.getMazeWidth(), maze.getMazeWidth());
+        assertEquals(expectedMaze.getMazeHeight(), maze.getMazeHeight());
+        assertEquals(expectedMaze.getStartIndex(), maze.getStartIndex());
+        assertEquals(expectedMaze.getExitIndex(), maze.getExitIndex());
+
+        for (int index = 0; index < expectedMaze.getCellCount(); ++index) {
+            assertEquals("wall of cell " + index, expectedMaze.isWall(index), maze.isWall(index));
+            assertEquals("cost of cell " + index, expectedMaze.getCellCost(index), maze.getCellCost(index));
+        }
+    }
+
+
+    /**
+     * Writes a random maze file - ragged rows are randomly cut short or run past the maze width, and extra rows follow the last one.
+     */
+    private void writeMazeFile(Random random, String lineEnd, boolean hasCellCosts, boolean hasRaggedRows) throws IOException {
+        try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(mazeFile))) {
+            String header = LARGE_MAZE_SIZE + " " + LARGE_MAZE_SIZE + lineEnd
+                    + random.nextInt(LARGE_MAZE_SIZE) + " " + random.nextInt(LARGE_MAZE_SIZE) + lineEnd
+                    + random.nextInt(LARGE_MAZE_SIZE) + " " + random.nextInt(LARGE_MAZE_SIZE) + lineEnd;
+            output.write(header.getBytes(StandardCharsets.US_ASCII));
+
+            int rowCount = hasRaggedRows ? LARGE_MAZE_SIZE + 10 : LARGE_MAZE_SIZE;
+            byte[] lineEndBytes = lineEnd.getBytes(StandardCharsets.US_ASCII);
+
+            for (int row = 0; row < rowCount; ++row) {
+                int rowLength = hasRaggedRows ? LARGE_MAZE_SIZE - LARGE_MAZE_SIZE / 10 + random.nextInt(LARGE_MAZE_SIZE / 5) : LARGE_MAZE_SIZE;
+
+                for (int column = 0; column < rowLength; ++column) {
+                    if (column > 0) {
+                        output.write(' ');
+                    }
+                    output.write(getRandomCell(random, hasCellCosts));
+                }
+                output.write(lineEndBytes);
+            }
+        }
+    }
+
+
+    private static int getRandomCell(Random random, boolean hasCellCosts) {
+        if (hasCellCosts && random.nextInt(8) == 0) {
+            return '2' + random.nextInt(8);
+        }
+        return random.nextBoolean() ? '1' : '0';
+    }
+}
@@ -0,0 +1,85 @@
+package runners;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import solvers.SolverType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class BatchMazeRunnerTest {
+
+    private static final String MAZE = "5 5\n1 1\n3 3\n1 1 1 1 1\n1 0 1 0 1\n1 0 1 0 1\n1 0 0 0 1\n1 1 1 1 1\n";
+
+    private Path directory;
+
+
+    @Before
+    public void createMazeFiles() throws IOException {
+        directory = Files.createTempDirectory("mazes");
+        Files.write(directory.resolve("first.txt"), MAZE.getBytes(StandardCharsets.US_ASCII));
+        Files.write(directory.resolve("second.txt"), MAZE.getBytes(StandardCharsets.US_ASCII));
+    }
+
+
+    @After
+    public void deleteMazeFiles() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+
+    @Test(timeout = 60000)
+    public void testOutputDirectoryIsCreated() throws IOException {
+        Path outputDirectory = directory.resolve("solutions").resolve("bfs");
+        String report = runBatch(outputDirectory);
+
+        assertEquals(2, report.split("\n").length);
+        assertTrue(report.contains(" -> "));
+        assertTrue(Files.isRegularFile(outputDirectory.resolve("first.txt.solution")));
+        assertTrue(Files.isRegularFile(outputDirectory.resolve("second.txt.solution")));
+    }
+
+
+    /**
+     * A solution written to a full disk fails its maze file, while the other maze files are still solved.
+     */
+    @Test(timeout = 60000)
+    public void testWriteErrorIsReported() throws IOException {
+        Path fullDevice = Paths.get("/dev/full");
+        assumeTrue(Files.isWritable(fullDevice));
+
+        Path outputDirectory = Files.createDirectory(directory.resolve("solutions"));
+        Files.createSymbolicLink(outputDirectory.resolve("first.txt.solution"), fullDevice);
+        String[] report = runBatch(outputDirectory).split("\n");
+
+        assertFalse(report[0], report[0].contains(" -> "));
+        assertTrue(report[0], report[0].contains("could not be written"));
+        assertTrue(report[1], report[1].contains(" -> "));
+    }
+
+
+    private String runBatch(Path outputDirectory) throws IOException {
+        MazeSettings settings = new MazeSettings();
+        settings.setSolverType(SolverType.BFS);
+        settings.setThreads(2);
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+
+        new BatchMazeRunner(settings, outputDirectory, null).run(directory.toString(), new PrintStream(report, true));
+        return new String(report.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,81 @@
+package runners;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import solvers.SolverType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MazeJobTest {
+
+    private Path mazeFile;
+
+
+    @Before
+    public void createMazeFile() throws IOException {
+        mazeFile = Files.createTempFile("maze", ".txt");
+    }
+
+
+    @After
+    public void deleteMazeFile() throws IOException {
+        Files.deleteIfExists(mazeFile);
+    }
+
+
+    @Test
+    public void testWalk() throws IOException {
+        MazeJob job = loadMaze("5 3\n1 1\n3 1\n1 1 1 1 1\n1 0 0 0 1\n1 1 1 1 1\n");
+        String moves = walkMaze(job);
+
+        assertEquals("EE", moves.trim());
+        assertTrue(job.getStatistics().isSolved());
+        assertEquals(2, job.getStatistics().getPathLength());
+    }
+
+
+    /**
+     * The exit in the middle of an open room is never reached by following the walls, so the solver searches the maze within
+     * the same solve phase as the walk, and the counters of both are kept.
+     */
+    @Test
+    public void testSearchAfterFailedWalk() throws IOException {
+        MazeJob job = loadMaze("5 5\n0 0\n2 2\n0 0 0 0 0\n0 0 0 0 0\n0 0 0 0 0\n0 0 0 0 0\n0 0 0 0 0\n");
+        String moves = walkMaze(job);
+        MazeStatistics statistics = job.getStatistics();
+
+        assertEquals(4, moves.trim().length());
+        assertTrue(statistics.isSolved());
+        assertEquals(4, statistics.getPathLength());
+        assertTrue(statistics.getPhaseNanos(MazeStatistics.Phase.SOLVE) > 0);
+        assertTrue(statistics.getSearchStatistics().getNodesExpanded() > 25);
+    }
+
+
+    private MazeJob loadMaze(String content) throws IOException {
+        Files.write(mazeFile, content.getBytes(StandardCharsets.US_ASCII));
+
+        MazeSettings settings = new MazeSettings();
+        settings.setSolverType(SolverType.BFS);
+        settings.setCollectStatistics(true);
+        MazeJob job = new MazeJob(mazeFile, settings);
+        job.loadMaze();
+        return job;
+    }
+
+
+    private static String walkMaze(MazeJob job) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        job.walkMaze(new PrintStream(output, true));
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,53 @@
+package solvers;
+
+import domain.Maze;
+import domain.RandomMazes;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+public class AStarMazeSolverTest {
+
+    @Test(timeout = 60000)
+    public void testRandomMazes() {
+        SolverChecks.checkShortestPaths(new AStarMazeSolver(), 5L, 1000, 40);
+    }
+
+
+    /**
+     * Few walls on a large maze - the jumps run far, and most rows are jumped over again from many cells, so the cached
+     * horizontal jumps are read back often.
+     */
+    @Test(timeout = 60000)
+    public void testSparseMazes() {
+        Random random = new Random(6L);
+        MazeSolver solver = new AStarMazeSolver();
+
+        for (int i = 0; i < 20; ++i) {
+            int size = 100 + random.nextInt(200);
+            Maze maze = RandomMazes.createMaze(random, size, size, 0.02 * (i % 5), random.nextInt(size * size), random.nextInt(size * size));
+
+            SolverChecks.checkShortestPath(solver, maze);
+        }
+    }
+
+
+    /**
+     * On a maze without walls the only jump points are the ones in line with the exit, so only a few cells are expanded.
+     */
+    @Test(timeout = 60000)
+    public void testOpenMazeExpandsJumpPointsOnly() {
+        Random random = new Random(7L);
+
+        for (int i = 0; i < 20; ++i) {
+            Maze maze = Maze.initMaze(500, 500, Maze.createWallBits(500, 500), random.nextInt(250000), random.nextInt(250000));
+            SearchStatistics statistics = new SearchStatistics();
+            new AStarMazeSolver().solve(maze, maze.getStartIndex(), maze.getExitIndex(), statistics);
+
+            SolverChecks.checkShortestPath(new AStarMazeSolver(), maze);
+            assertTrue(statistics.getNodesExpanded() <= 3);
+        }
+    }
+}
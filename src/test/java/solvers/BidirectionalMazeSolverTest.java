@@ -0,0 +1,77 @@
+package solvers;
+
+import domain.Maze;
+import domain.RandomMazes;
+import domain.SharedPools;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class BidirectionalMazeSolverTest {
+
+    @Test(timeout = 60000)
+    public void testRandomMazes() {
+        SolverChecks.checkShortestPaths(new BidirectionalMazeSolver(2), 11L, 1000, 40);
+    }
+
+
+    /**
+     * Open mazes have many paths of the shortest length, and the searches meet on many cells of the same level at once.
+     */
+    @Test(timeout = 60000)
+    public void testOpenMazes() {
+        Random random = new Random(12L);
+        MazeSolver solver = new BidirectionalMazeSolver(2);
+
+        for (int i = 0; i < 50; ++i) {
+            int size = 50 + random.nextInt(200);
+            SolverChecks.checkShortestPath(solver, RandomMazes.createMaze(random, size, size, 0.05, random.nextInt(size * size), random.nextInt(size * size)));
+        }
+    }
+
+
+    /**
+     * With every thread of the pool busy, the search from the exit never starts and the search from the start finishes alone.
+     */
+    @Test(timeout = 60000)
+    public void testBusyPool() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        SharedPools.getPool(1).submit(() -> {
+            release.await();
+            return null;
+        });
+
+        try {
+            SolverChecks.checkShortestPaths(new BidirectionalMazeSolver(1), 13L, 200, 40);
+        } finally {
+            release.countDown();
+        }
+    }
+
+
+    @Test(timeout = 60000)
+    public void testConcurrentSolves() throws Exception {
+        Random random = new Random(14L);
+        Maze maze = RandomMazes.createMaze(random, 300, 300, 0.3, 0, 300 * 300 - 1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<?>> solves = new ArrayList<>();
+            for (int i = 0; i < 64; ++i) {
+                solves.add(executor.submit(() -> SolverChecks.checkShortestPath(new BidirectionalMazeSolver(2), maze)));
+            }
+
+            for (Future<?> solve : solves) {
+                solve.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
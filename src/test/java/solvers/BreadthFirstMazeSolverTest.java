@@ -0,0 +1,64 @@
+package solvers;
+
+import domain.Maze;
+import domain.RandomMazes;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+
+public class BreadthFirstMazeSolverTest {
+
+    @Test(timeout = 60000)
+    public void testRandomMazes() {
+        SolverChecks.checkShortestPaths(new BreadthFirstMazeSolver(), 1L, 500, 40);
+    }
+
+
+    @Test
+    public void testCorridor() {
+        long[] walls = Maze.createWallBits(5, 3);
+        for (int column = 0; column < 4; ++column) {
+            Maze.setWallBit(walls, 5 + column);
+        }
+        Maze maze = Maze.initMaze(5, 3, walls, 0, 10);
+
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4, 9, 14, 13, 12, 11, 10}, SolverChecks.solvePath(new BreadthFirstMazeSolver(), maze));
+    }
+
+
+    @Test
+    public void testStartIsExit() {
+        Maze maze = Maze.initMaze(3, 3, Maze.createWallBits(3, 3), 4, 4);
+
+        assertArrayEquals(new int[]{4}, SolverChecks.solvePath(new BreadthFirstMazeSolver(), maze));
+    }
+
+
+    @Test
+    public void testWalledInExit() {
+        long[] walls = Maze.createWallBits(3, 3);
+        Maze.setWallBit(walls, 5);
+        Maze.setWallBit(walls, 7);
+        Maze maze = Maze.initMaze(3, 3, walls, 0, 8);
+
+        assertNull(SolverChecks.solvePath(new BreadthFirstMazeSolver(), maze));
+    }
+
+
+    /**
+     * Solves mazes of changing sizes with one solver, so the buffers of the thread are reused, grown and solved with again.
+     */
+    @Test(timeout = 60000)
+    public void testReusedBuffers() {
+        Random random = new Random(2L);
+        MazeSolver solver = new BreadthFirstMazeSolver();
+
+        for (int i = 0; i < 200; ++i) {
+            int size = (i % 2 == 0) ? 5 : 60;
+            SolverChecks.checkShortestPath(solver, RandomMazes.createMaze(random, size, size, 0.3, 0, size * size - 1));
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package solvers;
+
+import constants.MazeConstants;
+import domain.LongArrayWallGrid;
+import domain.Maze;
+import domain.RandomMazes;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class DijkstraMazeSolverTest {
+
+    private static final int UNREACHED = Integer.MAX_VALUE;
+
+
+    /**
+     * Without weighted cells every step costs 1, so the cheapest path is one of the shortest.
+     */
+    @Test(timeout = 60000)
+    public void testRandomMazes() {
+        SolverChecks.checkShortestPaths(new DijkstraMazeSolver(), 41L, 1000, 40);
+    }
+
+
+    @Test(timeout = 60000)
+    public void testWeightedMazes() {
+        Random random = new Random(42L);
+        MazeSolver solver = new DijkstraMazeSolver();
+
+        for (int i = 0; i < 500; ++i) {
+            checkCheapestPath(solver, createWeightedMaze(random, 1 + random.nextInt(40), 1 + random.nextInt(40)));
+        }
+    }
+
+
+    /**
+     * A corridor of expensive cells is left for a longer detour of clear paths.
+     */
+    @Test
+    public void testDetourAroundExpensiveCells() {
+        long[] walls = Maze.createWallBits(5, 3);
+        Maze.setWallBit(walls, 6);
+        Maze.setWallBit(walls, 7);
+        Maze.setWallBit(walls, 8);
+        byte[] cellCosts = new byte[15];
+        Arrays.fill(cellCosts, (byte) 1);
+        cellCosts[1] = 9;
+        cellCosts[2] = 9;
+        cellCosts[3] = 9;
+        Maze maze = Maze.initMaze(5, 3, new LongArrayWallGrid(walls), cellCosts, 0, 4);
+
+        int[] pathCells = SolverChecks.solvePath(new DijkstraMazeSolver(), maze);
+        assertNotNull(pathCells);
+        assertEquals(8, getPathCost(maze, pathCells));
+        assertEquals(9, pathCells.length);
+    }
+
+
+    private static Maze createWeightedMaze(Random random, int width, int height) {
+        int cellCount = width * height;
+        int startIndex = random.nextInt(cellCount);
+        int exitIndex = random.nextInt(cellCount);
+        double wallChance = random.nextDouble() / 3;
+        long[] walls = Maze.createWallBits(width, height);
+        byte[] cellCosts = new byte[cellCount];
+
+        for (int index = 0; index < cellCount; ++index) {
+            cellCosts[index] = (byte) ((random.nextInt(3) == 0) ? 2 + random.nextInt(MazeConstants.MAZE_MAX_CELL_COST - 1) : 1);
+
+            if (index != startIndex && index != exitIndex && random.nextDouble() < wallChance) {
+                Maze.setWallBit(walls, index);
+            }
+        }
+        return Maze.initMaze(width, height, new LongArrayWallGrid(walls), cellCosts, startIndex, exitIndex);
+    }
+
+
+    private static void checkCheapestPath(MazeSolver solver, Maze maze) {
+        int expectedCost = findPathCost(maze, maze.getStartIndex(), maze.getExitIndex());
+        int[] pathCells = SolverChecks.solvePath(solver, maze);
+        String message = "path cost on a " + maze.getMazeWidth() + "x" + maze.getMazeHeight() + " maze";
+
+        if (expectedCost == UNREACHED) {
+            assertNull(message, pathCells);
+        } else {
+            assertNotNull(message, pathCells);
+            assertEquals(message, expectedCost, getPathCost(maze, pathCells));
+        }
+    }
+
+
+    private static int getPathCost(Maze maze, int[] pathCells) {
+        int pathCost = 0;
+
+        for (int i = 1; i < pathCells.length; ++i) {
+            pathCost += maze.getCellCost(pathCells[i]);
+        }
+        return pathCost;
+    }
+
+
+    /**
+     * Finds the cost of the cheapest path with a plain Dijkstra search over a priority queue of cells, keyed by the path cost.
+     */
+    private static int findPathCost(Maze maze, int startIndex, int exitIndex) {
+        int[] pathCosts = new int[maze.getCellCount()];
+        Arrays.fill(pathCosts, UNREACHED);
+
+        if (maze.isWall(startIndex)) {
+            return UNREACHED;
+        }
+
+        PriorityQueue<long[]> openList = new PriorityQueue<>((first, second) -> Long.compare(first[0], second[0]));
+        pathCosts[startIndex] = 0;
+        openList.add(new long[] {0, startIndex});
+
+        while (!openList.isEmpty()) {
+            long[] entry = openList.poll();
+            int index = (int) entry[1];
+
+            if (entry[0] > pathCosts[index]) {
+                continue;
+            }
+
+            for (int direction = Maze.NORTH; direction <= Maze.WEST; ++direction) {
+                int neighbor = maze.getNeighbor(index, direction);
+
+                if (neighbor != Maze.NO_CELL && !maze.isWall(neighbor) && pathCosts[index] + maze.getCellCost(neighbor) < pathCosts[neighbor]) {
+                    pathCosts[neighbor] = pathCosts[index] + maze.getCellCost(neighbor);
+                    openList.add(new long[] {pathCosts[neighbor], neighbor});
+                }
+            }
+        }
+        return pathCosts[exitIndex];
+    }
+}
@@ -0,0 +1,105 @@
+package solvers;
+
+import domain.Maze;
+import domain.RandomMazes;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class HierarchicalMazeSolverTest {
+
+    /**
+     * A maze no larger than a cluster is searched within that cluster alone, so the path is the shortest one.
+     */
+    @Test(timeout = 60000)
+    public void testSingleClusterMazes() {
+        SolverChecks.checkShortestPaths(new HierarchicalMazeSolver(), 21L, 1000, 32);
+    }
+
+
+    @Test(timeout = 60000)
+    public void testRandomMazes() {
+        Random random = new Random(22L);
+        MazeSolver solver = new HierarchicalMazeSolver();
+
+        for (int i = 0; i < 200; ++i) {
+            int width = 40 + random.nextInt(160);
+            int height = 40 + random.nextInt(160);
+            Maze maze = RandomMazes.createMaze(random, width, height, 0.4 * random.nextDouble(), random.nextInt(width * height), random.nextInt(width * height));
+
+            checkNearShortestPath(solver, maze, maze.getStartIndex(), maze.getExitIndex());
+        }
+    }
+
+
+    /**
+     * A maze of corridors without loops has a single path between two cells, so the refined path is the shortest one even when
+     * it winds through many clusters.
+     */
+    @Test(timeout = 60000)
+    public void testCorridorMazes() {
+        Random random = new Random(23L);
+        MazeSolver solver = new HierarchicalMazeSolver();
+
+        for (int i = 0; i < 100; ++i) {
+            SolverChecks.checkShortestPath(solver, RandomMazes.createCorridorMaze(random, 61 + 2 * random.nextInt(40), 61 + 2 * random.nextInt(40), 0));
+        }
+    }
+
+
+    @Test(timeout = 60000)
+    public void testCorridorMazesWithLoops() {
+        Random random = new Random(24L);
+        MazeSolver solver = new HierarchicalMazeSolver();
+
+        for (int i = 0; i < 100; ++i) {
+            Maze maze = RandomMazes.createCorridorMaze(random, 61 + 2 * random.nextInt(40), 61 + 2 * random.nextInt(40), 0.1);
+
+            checkNearShortestPath(solver, maze, maze.getStartIndex(), maze.getExitIndex());
+        }
+    }
+
+
+    /**
+     * Many queries on the same thread reuse the node costs of the earlier ones, alternating between two mazes of different sizes.
+     */
+    @Test(timeout = 60000)
+    public void testRepeatedQueries() {
+        Random random = new Random(25L);
+        Maze[] mazes = {
+                RandomMazes.createMaze(random, 150, 120, 0.3, 0, 0),
+                RandomMazes.createCorridorMaze(random, 91, 131, 0.05)
+        };
+        MazeSolver solver = new HierarchicalMazeSolver();
+
+        for (int i = 0; i < 2000; ++i) {
+            Maze maze = mazes[random.nextInt(mazes.length)];
+
+            checkNearShortestPath(solver, maze, random.nextInt(maze.getCellCount()), random.nextInt(maze.getCellCount()));
+        }
+    }
+
+
+    /**
+     * Checks that the solver finds a path exactly when there is one, and that the path is no shorter than the shortest one.
+     */
+    private static void checkNearShortestPath(MazeSolver solver, Maze maze, int startIndex, int exitIndex) {
+        int shortestLength = RandomMazes.findPathLengths(maze, startIndex)[exitIndex];
+        int[] parentNodes = solver.solve(maze, startIndex, exitIndex);
+
+        if (shortestLength == RandomMazes.UNREACHED) {
+            assertNull(parentNodes);
+            return;
+        }
+
+        assertNotNull(parentNodes);
+        int[] pathCells = RandomMazes.followParents(maze, parentNodes, startIndex, exitIndex);
+        assertNotNull("the parents do not lead from the exit to the start", pathCells);
+        assertTrue("the path steps through a wall or jumps a cell", RandomMazes.isConnectedPath(maze, pathCells));
+        assertTrue("the path is shorter than the shortest one", pathCells.length - 1 >= shortestLength);
+    }
+}
@@ -0,0 +1,114 @@
+package solvers;
+
+import domain.Maze;
+import domain.MutableMaze;
+import domain.RandomMazes;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the paths the incremental solver repairs after random wall edits against a breadth first search of the edited maze.
+ */
+public class IncrementalMazeSolverTest {
+
+    private static final int RANDOM_MAZES = 200;
+    private static final int MAX_MAZE_SIZE = 30;
+    private static final int EDIT_ROUNDS = 10;
+
+
+    @Test(timeout = 60000)
+    public void testRepairedPathsMatchBreadthFirstSearch() {
+        Random random = new Random(42L);
+
+        for (int i = 0; i < RANDOM_MAZES; ++i) {
+            MutableMaze maze = MutableMaze.initMaze(RandomMazes.createMaze(random, MAX_MAZE_SIZE));
+            IncrementalMazeSolver solver = IncrementalMazeSolver.initSolver(maze, maze.getStartIndex(), maze.getExitIndex());
+            checkPath(solver, maze, maze.getStartIndex(), maze.getExitIndex());
+
+            for (int round = 0; round < EDIT_ROUNDS; ++round) {
+                editWalls(random, maze, 1 + random.nextInt(maze.getCellCount()));
+                checkPath(solver, maze, maze.getStartIndex(), maze.getExitIndex());
+            }
+        }
+    }
+
+
+    /**
+     * Several solvers keep their own paths on the same maze, each repaired after the edits of the maze.
+     */
+    @Test(timeout = 60000)
+    public void testSolversShareMaze() {
+        Random random = new Random(43L);
+        MutableMaze maze = MutableMaze.initMaze(RandomMazes.createMaze(random, 40, 40, 0.2, 0, 0));
+        int[] startCells = new int[4];
+        int[] exitCells = new int[4];
+        IncrementalMazeSolver[] solvers = new IncrementalMazeSolver[4];
+
+        for (int i = 0; i < solvers.length; ++i) {
+            startCells[i] = random.nextInt(maze.getCellCount());
+            exitCells[i] = random.nextInt(maze.getCellCount());
+            solvers[i] = IncrementalMazeSolver.initSolver(maze, startCells[i], exitCells[i]);
+        }
+
+        for (int round = 0; round < 50; ++round) {
+            editWalls(random, maze, 1 + random.nextInt(20));
+
+            for (int i = 0; i < solvers.length; ++i) {
+                checkPath(solvers[i], maze, startCells[i], exitCells[i]);
+            }
+        }
+    }
+
+
+    /**
+     * A wall placed on the path of a large maze is repaired by expanding the cells around it, not by searching the maze again.
+     */
+    @Test(timeout = 60000)
+    public void testRepairExpandsAffectedCellsOnly() {
+        Random random = new Random(44L);
+        MutableMaze maze = MutableMaze.initMaze(RandomMazes.createMaze(random, 300, 300, 0.2, 0, 300 * 300 - 1));
+        IncrementalMazeSolver solver = IncrementalMazeSolver.initSolver(maze, maze.getStartIndex(), maze.getExitIndex());
+        SearchStatistics firstSearch = new SearchStatistics();
+        int[] pathCells = solver.solvePath(firstSearch);
+        assertNotNull(pathCells);
+
+        int pathCell = pathCells[pathCells.length / 2];
+        maze.setWall(maze.getCoordX(pathCell), maze.getCoordY(pathCell), true);
+        SearchStatistics repair = new SearchStatistics();
+        solver.solvePath(repair);
+
+        assertTrue(repair.getNodesExpanded() + " of " + firstSearch.getNodesExpanded(), repair.getNodesExpanded() < firstSearch.getNodesExpanded() / 2);
+        checkPath(solver, maze, maze.getStartIndex(), maze.getExitIndex());
+    }
+
+
+    private static void editWalls(Random random, MutableMaze maze, int edits) {
+        for (int edit = 0; edit < edits; ++edit) {
+            int index = random.nextInt(maze.getCellCount());
+            maze.setWall(maze.getCoordX(index), maze.getCoordY(index), random.nextBoolean());
+        }
+    }
+
+
+    private static void checkPath(IncrementalMazeSolver solver, MutableMaze mutableMaze, int startIndex, int exitIndex) {
+        Maze maze = mutableMaze.toMaze();
+        int expectedLength = RandomMazes.findPathLengths(maze, startIndex)[exitIndex];
+        int[] pathCells = solver.solvePath();
+
+        if (expectedLength == RandomMazes.UNREACHED) {
+            assertNull(pathCells);
+            return;
+        }
+        assertNotNull(pathCells);
+        assertEquals(startIndex, pathCells[0]);
+        assertEquals(exitIndex, pathCells[pathCells.length - 1]);
+        assertEquals(expectedLength, pathCells.length - 1);
+        assertTrue(RandomMazes.isConnectedPath(maze, pathCells));
+    }
+}
@@ -0,0 +1,69 @@
+package solvers;
+
+import domain.Maze;
+import domain.RandomMazes;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class JunctionGraphMazeSolverTest {
+
+    /**
+     * Mazes of corridors without loops - the start and exit are on dead ends or corridors of a tree, so the solve walks the filled
+     * dead ends towards the core.
+     */
+    @Test(timeout = 60000)
+    public void testCorridorMazes() {
+        Random random = new Random(15L);
+        MazeSolver solver = new JunctionGraphMazeSolver();
+
+        for (int i = 0; i < 200; ++i) {
+            Maze maze = RandomMazes.createCorridorMaze(random, 3 + 2 * random.nextInt(30), 3 + 2 * random.nextInt(30), 0);
+
+            SolverChecks.checkShortestPath(solver, maze);
+        }
+    }
+
+
+    /**
+     * Mazes of corridors with loops, where the shortest path has to be chosen between the weighted edges of the junctions.
+     */
+    @Test(timeout = 60000)
+    public void testCorridorMazesWithLoops() {
+        Random random = new Random(16L);
+        MazeSolver solver = new JunctionGraphMazeSolver();
+
+        for (int i = 0; i < 300; ++i) {
+            Maze maze = RandomMazes.createCorridorMaze(random, 3 + 2 * random.nextInt(30), 3 + 2 * random.nextInt(30), 0.02 + 0.2 * random.nextDouble());
+
+            assertNotNull(maze.getJunctionGraph());
+            SolverChecks.checkShortestPath(solver, maze);
+        }
+    }
+
+
+    /**
+     * Open mazes hardly contract, so they keep no graph and are searched breadth first.
+     */
+    @Test(timeout = 60000)
+    public void testOpenMazesFallBack() {
+        Random random = new Random(17L);
+        MazeSolver solver = new JunctionGraphMazeSolver();
+
+        for (int i = 0; i < 100; ++i) {
+            Maze maze = RandomMazes.createMaze(random, 100, 100, 0.05, random.nextInt(10000), random.nextInt(10000));
+
+            assertNull(maze.getJunctionGraph());
+            SolverChecks.checkShortestPath(solver, maze);
+        }
+    }
+
+
+    @Test(timeout = 60000)
+    public void testRandomMazes() {
+        SolverChecks.checkShortestPaths(new JunctionGraphMazeSolver(), 18L, 1000, 40);
+    }
+}
@@ -0,0 +1,116 @@
+package solvers;
+
+import domain.Maze;
+import domain.RandomMazes;
+import org.junit.Test;
+import parsers.OutputParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks every solver against a plain breadth first search while they share the search buffers of their threads - the solvers that
+ * find the shortest path must find one of the same length, the hierarchical solver a path no shorter, and the depth first solver any path.
+ */
+public class MazeSolverTest {
+
+    private static final int RANDOM_MAZES = 400;
+    private static final int MAX_MAZE_SIZE = 40;
+    private static final int SOLVER_THREADS = 4;
+
+
+    /**
+     * Every solver solves every maze in turn on the same thread, so each solve takes the buffers the other solvers just used.
+     */
+    @Test(timeout = 60000)
+    public void testSolversShareThreadBuffers() {
+        Random random = new Random(31L);
+
+        for (int i = 0; i < RANDOM_MAZES; ++i) {
+            Maze maze = RandomMazes.createMaze(random, MAX_MAZE_SIZE);
+
+            for (SolverType solverType : SolverType.values()) {
+                checkSolver(solverType.createSolver(SOLVER_THREADS), solverType, maze);
+            }
+        }
+    }
+
+
+    /**
+     * A large maze grows the buffers of the thread, and the run of small mazes after it drops them again.
+     */
+    @Test(timeout = 60000)
+    public void testSolversAcrossMazeSizes() {
+        Random random = new Random(32L);
+
+        for (SolverType solverType : SolverType.values()) {
+            MazeSolver solver = solverType.createSolver(SOLVER_THREADS);
+            checkSolver(solver, solverType, RandomMazes.createMaze(random, 400, 400, 0.2, 0, 400 * 400 - 1));
+
+            for (int i = 0; i < RANDOM_MAZES / 8; ++i) {
+                checkSolver(solver, solverType, RandomMazes.createMaze(random, MAX_MAZE_SIZE));
+            }
+        }
+    }
+
+
+    /**
+     * Many threads solve the same maze with every solver at once.
+     */
+    @Test(timeout = 120000)
+    public void testConcurrentSolves() throws Exception {
+        Random random = new Random(33L);
+        Maze maze = RandomMazes.createMaze(random, 200, 200, 0.25, 0, 200 * 200 - 1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<?>> solves = new ArrayList<>();
+            for (int i = 0; i < 16; ++i) {
+                for (SolverType solverType : SolverType.values()) {
+                    solves.add(executor.submit(() -> checkSolver(solverType.createSolver(SOLVER_THREADS), solverType, maze)));
+                }
+            }
+
+            for (Future<?> solve : solves) {
+                solve.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+
+    private static void checkSolver(MazeSolver solver, SolverType solverType, Maze maze) {
+        int startIndex = maze.getStartIndex();
+        int exitIndex = maze.getExitIndex();
+        int expectedLength = RandomMazes.findPathLengths(maze, startIndex)[exitIndex];
+        int[] parentNodes = solver.solve(maze, startIndex, exitIndex);
+        String message = solverType.getOptionName() + " on a " + maze.getMazeWidth() + "x" + maze.getMazeHeight() + " maze";
+
+        if (expectedLength == RandomMazes.UNREACHED) {
+            assertNull(message, parentNodes);
+            return;
+        }
+        assertNotNull(message, parentNodes);
+
+        int[] pathCells = OutputParser.getPathCells(parentNodes, exitIndex);
+        int pathLength = pathCells.length - 1;
+        assertEquals(message, startIndex, pathCells[0]);
+        assertTrue(message, RandomMazes.isConnectedPath(maze, pathCells));
+
+        if (solverType == SolverType.HPA) {
+            assertTrue(message, pathLength >= expectedLength);
+        } else if (solverType != SolverType.DFS) {
+            assertEquals(message, expectedLength, pathLength);
+        }
+    }
+}
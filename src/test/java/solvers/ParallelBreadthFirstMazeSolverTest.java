@@ -0,0 +1,45 @@
+package solvers;
+
+import domain.Maze;
+import domain.RandomMazes;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class ParallelBreadthFirstMazeSolverTest {
+
+    private static final int LARGE_MAZE_SIZE = 2500;
+
+
+    @Test(timeout = 60000)
+    public void testRandomMazes() {
+        SolverChecks.checkShortestPaths(new ParallelBreadthFirstMazeSolver(4), 8L, 500, 40);
+    }
+
+
+    @Test(timeout = 60000)
+    public void testSingleThread() {
+        SolverChecks.checkShortestPaths(new ParallelBreadthFirstMazeSolver(1), 9L, 200, 40);
+    }
+
+
+    /**
+     * Solves from the middle of large mazes, whose levels grow large enough to be split into chunks and expanded on the pool.
+     */
+    @Test(timeout = 120000)
+    public void testLevelsExpandedInParallel() {
+        Random random = new Random(10L);
+        int startIndex = (LARGE_MAZE_SIZE / 2) * LARGE_MAZE_SIZE + LARGE_MAZE_SIZE / 2;
+
+        for (int threads = 2; threads <= 8; threads <<= 1) {
+            MazeSolver solver = new ParallelBreadthFirstMazeSolver(threads);
+
+            for (int i = 0; i < 2; ++i) {
+                int exitIndex = random.nextInt(LARGE_MAZE_SIZE * LARGE_MAZE_SIZE);
+                Maze maze = RandomMazes.createMaze(random, LARGE_MAZE_SIZE, LARGE_MAZE_SIZE, 0.15 * i, startIndex, exitIndex);
+
+                SolverChecks.checkShortestPath(solver, maze);
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package solvers;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SearchBuffersTest {
+
+    private static final int LARGE_CELL_COUNT = 1 << 20;
+    private static final int SMALL_CELL_COUNT = 1 << 10;
+
+
+    @Before
+    public void releaseBuffers() {
+        SearchBuffers.release();
+    }
+
+
+    @Test
+    public void testBuffersAreReused() {
+        SearchBuffers buffers = SearchBuffers.acquire(SMALL_CELL_COUNT);
+        int[] parentNodes = buffers.getParentNodes();
+
+        assertSame(buffers, SearchBuffers.acquire(SMALL_CELL_COUNT / 2));
+        assertSame(parentNodes, buffers.getParentNodes());
+    }
+
+
+    /**
+     * A run of solves of much smaller mazes drops the arrays grown for a large maze.
+     */
+    @Test
+    public void testBuffersShrinkAfterSmallSolves() {
+        SearchBuffers.acquire(LARGE_CELL_COUNT).getParentNodes();
+
+        for (int i = 0; i < 100; ++i) {
+            SearchBuffers.acquire(SMALL_CELL_COUNT);
+        }
+
+        int[] parentNodes = SearchBuffers.acquire(SMALL_CELL_COUNT).getParentNodes();
+        assertEquals(SMALL_CELL_COUNT, parentNodes.length);
+    }
+
+
+    /**
+     * A thread switching between a large maze and small ones keeps the arrays of the large maze.
+     */
+    @Test
+    public void testBuffersKeptWhenSwitchingMazeSizes() {
+        int[] parentNodes = SearchBuffers.acquire(LARGE_CELL_COUNT).getParentNodes();
+
+        for (int i = 0; i < 100; ++i) {
+            SearchBuffers.acquire((i % 8 == 0) ? LARGE_CELL_COUNT : SMALL_CELL_COUNT);
+        }
+
+        SearchBuffers buffers = SearchBuffers.acquire(LARGE_CELL_COUNT);
+        assertSame(parentNodes, buffers.getParentNodes());
+        assertTrue(buffers.getParentNodes().length >= LARGE_CELL_COUNT);
+    }
+
+
+    @Test
+    public void testThreadsHaveTheirOwnBuffers() throws InterruptedException {
+        SearchBuffers buffers = SearchBuffers.acquire(SMALL_CELL_COUNT);
+        SearchBuffers[] threadBuffers = new SearchBuffers[1];
+        Thread thread = new Thread(() -> threadBuffers[0] = SearchBuffers.acquire(SMALL_CELL_COUNT));
+
+        thread.start();
+        thread.join();
+        assertNotSame(buffers, threadBuffers[0]);
+    }
+}
@@ -0,0 +1,81 @@
+package solvers;
+
+import domain.Maze;
+import domain.RandomMazes;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Solves mazes and checks the paths found against a plain breadth first search, for the solver tests.
+ */
+final class SolverChecks {
+
+    private SolverChecks() {
+        //private constructor to prevent instantiation
+    }
+
+
+    /**
+     * Solves the maze from its start to its exit, and checks that the parents found lead from the exit back to the start through
+     * neighboring clear path cells.
+     *
+     * @param solver  The solver.
+     * @param maze    The maze object.
+     *
+     * @return int[] - the cell indices in order from start to exit, or null if the solver found no path.
+     */
+    static int[] solvePath(MazeSolver solver, Maze maze) {
+        int[] parentNodes = solver.solve(maze, maze.getStartIndex(), maze.getExitIndex());
+
+        if (parentNodes == null) {
+            return null;
+        }
+
+        int[] pathCells = RandomMazes.followParents(maze, parentNodes, maze.getStartIndex(), maze.getExitIndex());
+        assertNotNull("the parents do not lead from the exit to the start", pathCells);
+        assertTrue("the path steps through a wall or jumps a cell", RandomMazes.isConnectedPath(maze, pathCells));
+        return pathCells;
+    }
+
+
+    /**
+     * Checks that the solver finds a path exactly when there is one, and that the path has the length of the shortest one.
+     *
+     * @param solver  The solver.
+     * @param maze    The maze object.
+     */
+    static void checkShortestPath(MazeSolver solver, Maze maze) {
+        int expectedLength = RandomMazes.findPathLengths(maze, maze.getStartIndex())[maze.getExitIndex()];
+        int[] pathCells = solvePath(solver, maze);
+        String message = "path length on a " + maze.getMazeWidth() + "x" + maze.getMazeHeight() + " maze";
+
+        if (expectedLength == RandomMazes.UNREACHED) {
+            assertNull(message, pathCells);
+        } else {
+            assertNotNull(message, pathCells);
+            assertEquals(message, expectedLength, pathCells.length - 1);
+        }
+    }
+
+
+    /**
+     * Checks the shortest paths the solver finds on the given number of random mazes.
+     *
+     * @param solver   The solver.
+     * @param seed     The seed of the random mazes.
+     * @param mazes    The number of mazes.
+     * @param maxSize  The largest width and height of the mazes.
+     */
+    static void checkShortestPaths(MazeSolver solver, long seed, int mazes, int maxSize) {
+        Random random = new Random(seed);
+
+        for (int i = 0; i < mazes; ++i) {
+            checkShortestPath(solver, RandomMazes.createMaze(random, maxSize));
+        }
+    }
+}